@@ -0,0 +1,20 @@
+package com.scy.mytemplate.common;
+
+import lombok.Data;
+
+/**
+ * 游标分页请求
+ */
+@Data
+public class CursorPageRequest {
+
+    /**
+     * 上一页返回的 nextCursor，为空表示第一页
+     */
+    private String cursor;
+
+    /**
+     * 页面大小
+     */
+    private int pageSize = 100;
+}
@@ -0,0 +1,314 @@
+package com.scy.mytemplate.config;
+
+import lombok.Data;
+import org.neo4j.driver.TransactionConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 图谱（Neo4j）相关配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "graph")
+@Data
+public class GraphConfig {
+
+    /**
+     * 批量写入时每个事务包含的记录数
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 单次批量请求允许的最大记录数
+     */
+    private int maxBatchItems = 100000;
+
+    /**
+     * 流式导出时驱动每次从服务端拉取的记录数
+     */
+    private int streamFetchSize = 500;
+
+    /**
+     * 游标分页允许的最大页面大小
+     */
+    private int maxPageSize = 1000;
+
+    /**
+     * 是否开启节点读缓存
+     */
+    private boolean nodeCacheEnabled = true;
+
+    /**
+     * 节点读缓存最大条数
+     */
+    private int nodeCacheCapacity = 10000;
+
+    /**
+     * 节点读缓存过期时间（毫秒，从写入时起算，命中不续期）
+     */
+    private long nodeCacheTtlMillis = 60000;
+
+    /**
+     * 启动时是否创建节点名称唯一约束
+     */
+    private boolean schemaBootstrapEnabled = true;
+
+    /**
+     * 邻域查询允许的最大跳数
+     */
+    private int maxNeighborhoodDepth = 5;
+
+    /**
+     * 邻域查询每跳每个节点允许的最大邻居数
+     */
+    private int maxNeighborhoodFanOut = 200;
+
+    /**
+     * 邻域查询最多返回的节点数
+     */
+    private int maxNeighborhoodNodes = 2000;
+
+    /**
+     * 邻域查询最多返回的关系数
+     */
+    private int maxNeighborhoodRelationships = 5000;
+
+    /**
+     * 路径查询允许的最大长度
+     */
+    private int maxPathDepth = 15;
+
+    /**
+     * 路径查询最多返回的路径条数
+     */
+    private int maxPaths = 100;
+
+    /**
+     * 路径查询超时时间（毫秒）
+     */
+    private long pathQueryTimeoutMillis = 5000;
+
+    /**
+     * 是否开启内存邻接快照（CSR），开启后快照类遍历接口不再访问数据库
+     */
+    private boolean snapshotEnabled = false;
+
+    /**
+     * 快照重建与覆盖层合并的检查间隔（毫秒）
+     */
+    private long snapshotRefreshMillis = 5000;
+
+    /**
+     * 快照覆盖层累积多少条变更后合并为新的 CSR
+     */
+    private int snapshotCompactChanges = 10000;
+
+    /**
+     * 文件导入的写入线程数
+     */
+    private int importThreads = 4;
+
+    /**
+     * 文件导入等待写入的批次队列长度，队列满时由读取线程自行写入以形成背压
+     */
+    private int importQueueCapacity = 8;
+
+    /**
+     * 文件导入的工作目录，保存上传文件及断点，为空时使用系统临时目录
+     */
+    private String importDir = "";
+
+    /**
+     * 是否开启写入组提交：单条写入进入队列，合并后按时间窗口或条数在一个事务中提交
+     */
+    private boolean groupCommitEnabled = false;
+
+    /**
+     * 组提交时间窗口（毫秒），从窗口内第一条写入开始计时
+     */
+    private long groupCommitIntervalMillis = 20;
+
+    /**
+     * 组提交每个事务最多包含的写入条数
+     */
+    private int groupCommitMaxOperations = 500;
+
+    /**
+     * 组提交队列长度，队列满时拒绝写入
+     */
+    private int groupCommitQueueCapacity = 10000;
+
+    /**
+     * 同步写入等待组提交结果的超时时间（毫秒）
+     */
+    private long groupCommitWaitTimeoutMillis = 30000;
+
+    /**
+     * 可视化快照细节层次模式下返回的最大节点数
+     */
+    private int viewMaxNodes = 2000;
+
+    /**
+     * 变更日志保留的最大记录数（至少为 1），更早的版本需要全量同步
+     */
+    private int changeLogCapacity = 10000;
+
+    /**
+     * 变更推送的合并时间窗口（毫秒）
+     */
+    private long streamBatchMillis = 100;
+
+    /**
+     * 每个订阅者缓冲的批次数，缓冲满时断开该订阅者
+     */
+    private int streamBufferBatches = 64;
+
+    /**
+     * 最大订阅数
+     */
+    private int streamMaxSubscribers = 100;
+
+    /**
+     * 订阅连接超时时间（毫秒），超时后客户端自动重连
+     */
+    private long streamTimeoutMillis = 1800000;
+
+    /**
+     * 变更推送的发送线程数
+     */
+    private int streamSendThreads = 4;
+
+    /**
+     * 无变更时的心跳间隔（毫秒）
+     */
+    private long streamHeartbeatMillis = 15000;
+
+    /**
+     * 图谱分析的并行度，0 表示使用全部 CPU 核数
+     */
+    private int analyticsParallelism = 0;
+
+    /**
+     * 介数中心性最多使用的源点数，请求未指定抽样数时按该值抽样
+     */
+    private int analyticsBetweennessMaxSources = 1000;
+
+    /**
+     * 单次中心性分析的截止时间（毫秒），超过后中止计算，0 表示不限制
+     */
+    private long analyticsTimeoutMillis = 600000;
+
+    /**
+     * 是否定时计算连通分量与社区（图谱版本变化后才重新计算）
+     */
+    private boolean communityEnabled = false;
+
+    /**
+     * 连通分量与社区的定时计算间隔（毫秒）
+     */
+    private long communityRefreshMillis = 60000;
+
+    /**
+     * 标签传播最大迭代次数
+     */
+    private int communityMaxIterations = 20;
+
+    /**
+     * 名称补全每次最多返回的条数
+     */
+    private int suggestMaxResults = 50;
+
+    /**
+     * 名称补全索引的全量重建间隔（毫秒）
+     */
+    private long suggestRebuildMillis = 600000;
+
+    /**
+     * 全文索引的全量重建间隔（毫秒）
+     */
+    private long searchRebuildMillis = 600000;
+
+    /**
+     * 读操作默认的事务超时时间（毫秒），0 表示不设置，使用数据库的配置
+     */
+    private long queryTimeoutMillis = 30000;
+
+    /**
+     * 一次返回全部结果的读操作默认允许的最大行数，超过时拒绝并提示改用分页或流式接口，0 表示不限制
+     */
+    private int queryMaxRows = 100000;
+
+    /**
+     * 按操作覆盖超时时间和最大行数，键为 GraphService 方法名的短横线形式，如 get-all-nodes
+     */
+    private Map<String, QueryLimit> queryLimits = new HashMap<>();
+
+    /**
+     * 获取操作的事务超时时间（毫秒）
+     *
+     * @param operation 操作名
+     * @param defaultTimeoutMillis 未单独配置时的超时时间
+     * @return
+     */
+    public long resolveQueryTimeoutMillis(String operation, long defaultTimeoutMillis) {
+        QueryLimit queryLimit = queryLimits.get(operation);
+        return queryLimit == null || queryLimit.getTimeoutMillis() == null ? defaultTimeoutMillis : queryLimit.getTimeoutMillis();
+    }
+
+    /**
+     * 读操作的事务配置，超时时间按操作配置，未配置时使用默认读超时
+     *
+     * @param operation 操作名
+     * @return
+     */
+    public TransactionConfig readTransactionConfig(String operation) {
+        return readTransactionConfig(operation, queryTimeoutMillis);
+    }
+
+    /**
+     * 读操作的事务配置，超时由数据库在服务端执行，到期后终止查询并释放会话
+     *
+     * @param operation 操作名
+     * @param defaultTimeoutMillis 未单独配置时的超时时间（毫秒）
+     * @return
+     */
+    public TransactionConfig readTransactionConfig(String operation, long defaultTimeoutMillis) {
+        long timeoutMillis = resolveQueryTimeoutMillis(operation, defaultTimeoutMillis);
+        if (timeoutMillis <= 0) {
+            return TransactionConfig.empty();
+        }
+        return TransactionConfig.builder().withTimeout(Duration.ofMillis(timeoutMillis)).build();
+    }
+
+    /**
+     * 获取操作允许的最大行数
+     *
+     * @param operation 操作名
+     * @return
+     */
+    public int resolveQueryMaxRows(String operation) {
+        QueryLimit queryLimit = queryLimits.get(operation);
+        return queryLimit == null || queryLimit.getMaxRows() == null ? queryMaxRows : queryLimit.getMaxRows();
+    }
+
+    /**
+     * 单个操作的查询限制，未配置的项使用默认值
+     */
+    @Data
+    public static class QueryLimit {
+
+        /**
+         * 事务超时时间（毫秒），0 表示不设置
+         */
+        private Long timeoutMillis;
+
+        /**
+         * 最大行数，0 表示不限制
+         */
+        private Integer maxRows;
+    }
+}
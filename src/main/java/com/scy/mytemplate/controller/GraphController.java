@@ -1,23 +1,74 @@
 package com.scy.mytemplate.controller;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scy.mytemplate.common.BaseResponse;
 import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.common.ResultUtils;
+import com.scy.mytemplate.config.AsyncRequestConfig;
+import com.scy.mytemplate.config.GraphConfig;
 import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.graph.GraphBinaryFormat;
+import com.scy.mytemplate.manager.GraphChangeLogManager;
+import com.scy.mytemplate.manager.GraphEventStreamManager;
+import com.scy.mytemplate.manager.GraphSnapshotManager;
+import com.scy.mytemplate.manager.NodeNameIndexManager;
+import com.scy.mytemplate.model.dto.analytics.GraphAnalyticsRequest;
+import com.scy.mytemplate.model.dto.graphimport.GraphImportResumeRequest;
 import com.scy.mytemplate.model.dto.node.*;
+import com.scy.mytemplate.model.dto.path.PathQueryRequest;
 import com.scy.mytemplate.model.dto.relationship.*;
+import com.scy.mytemplate.model.dto.view.GraphViewRequest;
 import com.scy.mytemplate.model.entity.Node;
+import com.scy.mytemplate.model.vo.BatchResultVO;
+import com.scy.mytemplate.model.vo.CacheStatsVO;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphImportTaskVO;
+import com.scy.mytemplate.model.vo.GraphSnapshotStatsVO;
+import com.scy.mytemplate.model.vo.GraphAnalyticsRunVO;
+import com.scy.mytemplate.model.vo.GraphChangesVO;
+import com.scy.mytemplate.model.vo.GraphCommunityStatsVO;
+import com.scy.mytemplate.model.vo.GraphStreamStatsVO;
+import com.scy.mytemplate.model.vo.GraphViewVO;
+import com.scy.mytemplate.model.vo.GroupCommitStatsVO;
+import com.scy.mytemplate.model.vo.IndexStatusVO;
+import com.scy.mytemplate.model.vo.NodeCommunityVO;
+import com.scy.mytemplate.model.vo.NodeMultiGetVO;
+import com.scy.mytemplate.model.vo.NodeSearchHitVO;
 import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.PathVO;
 import com.scy.mytemplate.model.vo.RelationshipVO;
+import com.scy.mytemplate.model.vo.SnapshotReachableVO;
+import com.scy.mytemplate.model.vo.SubgraphVO;
+import com.scy.mytemplate.service.GraphAnalyticsService;
+import com.scy.mytemplate.service.GraphAsyncService;
+import com.scy.mytemplate.service.GraphImportService;
 import com.scy.mytemplate.service.GraphService;
 import lombok.extern.slf4j.Slf4j;
 import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.beans.BeanUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,6 +79,40 @@ public class GraphController {
     @Resource
     private GraphService graphService;
 
+    @Resource
+    private GraphAsyncService graphAsyncService;
+
+    @Resource
+    private GraphImportService graphImportService;
+
+    @Resource
+    private GraphAnalyticsService graphAnalyticsService;
+
+    @Resource
+    private GraphSnapshotManager graphSnapshotManager;
+
+    @Resource
+    private GraphChangeLogManager graphChangeLogManager;
+
+    @Resource
+    private GraphEventStreamManager graphEventStreamManager;
+
+    @Resource
+    private NodeNameIndexManager nodeNameIndexManager;
+
+    @Resource
+    private GraphConfig graphConfig;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * 异步请求超时在查询事务超时之外多留的时间（毫秒）
+     */
+    private static final long ASYNC_TIMEOUT_GRACE_MILLIS = 5000;
+
     // 添加节点
     @PostMapping("/createNode")
     public BaseResponse<String> createNode(@RequestBody NodeCreateRequest nodeCreateRequest) {
@@ -40,6 +125,16 @@ public class GraphController {
         return ResultUtils.success(result);
     }
 
+    // 批量添加节点
+    @PostMapping("/createNodes")
+    public BaseResponse<BatchResultVO> createNodes(@RequestBody NodeBatchCreateRequest nodeBatchCreateRequest) {
+        if (nodeBatchCreateRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        BatchResultVO result = graphService.createNodes(nodeBatchCreateRequest.getNodes());
+        return ResultUtils.success(result);
+    }
+
     // 删除节点
     @DeleteMapping("/deleteNode")
     public BaseResponse<String> deleteNode(@RequestBody NodeDeleteRequest nodeDeleteRequest) {
@@ -81,50 +176,102 @@ public class GraphController {
         return ResultUtils.success(existingNode);
     }
 
-    // 创建关系
-    @PostMapping("/createRelationship")
-    public BaseResponse<String> createRelationship(@RequestBody RelationshipCreateRequest relationshipCreateRequest) {
-        String name = relationshipCreateRequest.getName();
-        Map<String, Object> properties = relationshipCreateRequest.getProperties();
+    // 节点名称前缀补全（不区分大小写），基于内存索引，不访问数据库
+    @GetMapping("/suggest")
+    public BaseResponse<List<String>> suggestNodeNames(String prefix, Integer limit) {
+        if (prefix == null || prefix.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "前缀为空");
+        }
+        int size = limit == null ? Math.min(10, graphConfig.getSuggestMaxResults()) : limit;
+        if (size <= 0 || size > graphConfig.getSuggestMaxResults()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "条数需在 1 到 " + graphConfig.getSuggestMaxResults() + " 之间");
+        }
+        return ResultUtils.success(nodeNameIndexManager.suggest(prefix, size));
+    }
 
-        String fromNode = (String) properties.get("fromNode");
-        String toNode = (String) properties.get("toNode");
+    // 全文搜索节点
+    @PostMapping("/search")
+    public BaseResponse<Page<NodeSearchHitVO>> searchNodes(@RequestBody NodeSearchRequest nodeSearchRequest) {
+        if (nodeSearchRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        return ResultUtils.success(graphService.searchNodes(nodeSearchRequest.getQuery(),
+                nodeSearchRequest.isIncludeProperties(), nodeSearchRequest.getCurrent(), nodeSearchRequest.getPageSize()));
+    }
 
-        // 先查询起始节点是否存在
-        NodeVO startNode = graphService.findNode(fromNode);
-        if (startNode == null) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "起始节点不存在，无法创建关系");
+    // 按名称批量查询节点
+    @PostMapping("/findNodes")
+    public BaseResponse<NodeMultiGetVO> findNodes(@RequestBody NodeMultiGetRequest nodeMultiGetRequest) {
+        if (nodeMultiGetRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
+        return ResultUtils.success(graphService.findNodes(nodeMultiGetRequest.getNames()));
+    }
 
-        // 先查询结束节点是否存在
-        NodeVO endNode = graphService.findNode(toNode);
-        if (endNode == null) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "结束节点不存在，无法创建关系");
+    // 节点读缓存统计
+    @GetMapping("/nodeCache/stats")
+    public BaseResponse<CacheStatsVO> getNodeCacheStats() {
+        return ResultUtils.success(graphService.getNodeCacheStats());
+    }
+
+    // 命名语句执行次数统计
+    @GetMapping("/statement/stats")
+    public BaseResponse<Map<String, Long>> getStatementStats() {
+        return ResultUtils.success(graphService.getStatementStats());
+    }
+
+    // 写入组提交统计
+    @GetMapping("/groupCommit/stats")
+    public BaseResponse<GroupCommitStatsVO> getGroupCommitStats() {
+        return ResultUtils.success(graphService.getGroupCommitStats());
+    }
+
+    // 索引状态
+    @GetMapping("/schema/indexes")
+    public BaseResponse<List<IndexStatusVO>> listIndexes() {
+        return ResultUtils.success(graphService.listIndexes());
+    }
+
+    // 创建关系
+    @PostMapping("/createRelationship")
+    public BaseResponse<String> createRelationship(@RequestBody RelationshipCreateRequest relationshipCreateRequest) {
+        if (relationshipCreateRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
+        // 端点是否存在、关系是否已存在由服务层在创建语句中一并检查
+        String result = graphService.createRelationship(relationshipCreateRequest.getName(), relationshipCreateRequest.getProperties());
+        return ResultUtils.success(result);
+    }
 
-        // 再查询关系是否已存在（可根据业务需求决定是否添加此步）
-        RelationshipVO existingRelationship = graphService.findRelationship(name);
-        Map<String, Object> existingRelationshipProperties = existingRelationship.getProperties();
-        String existingFromNode = (String) existingRelationshipProperties.get("fromNode");
-        String existingToNode = (String) existingRelationshipProperties.get("toNode");
-        if (existingRelationship != null &&  existingFromNode.equals(fromNode) && existingToNode.equals(toNode)) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系已存在，无法创建");
+    // 批量创建关系
+    @PostMapping("/createRelationships")
+    public BaseResponse<BatchResultVO> createRelationships(@RequestBody RelationshipBatchCreateRequest relationshipBatchCreateRequest) {
+        if (relationshipBatchCreateRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
-        String result = graphService.createRelationship(name, properties);
+        BatchResultVO result = graphService.createRelationships(relationshipBatchCreateRequest.getRelationships());
         return ResultUtils.success(result);
     }
 
     // 删除关系
     @DeleteMapping("/deleteRelationship")
     public BaseResponse<String> deleteRelationship(@RequestBody RelationshipDeleteRequest relationshipDeleteRequest) {
+        if (relationshipDeleteRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
         String name = relationshipDeleteRequest.getName();
-
-        // 先查询关系是否存在
-        RelationshipVO existingRelationship = graphService.findRelationship(name);
-        if (existingRelationship == null) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系不存在，无法删除");
+        // 指定了端点时只删除这两个节点之间的该类型关系
+        Map<String, Object> properties = relationshipDeleteRequest.getProperties();
+        if (properties != null && properties.get("fromNode") instanceof String && properties.get("toNode") instanceof String) {
+            String relationshipToDelete = graphService.deleteRelationship(name,
+                    (String) properties.get("fromNode"), (String) properties.get("toNode"));
+            return ResultUtils.success("Relationship:" + relationshipToDelete + " deleted successfully");
+        }
+        // 未指定端点时删除该类型的全部关系；不设置 deleteAllOfType 的调用沿用旧接口行为，已弃用
+        if (!relationshipDeleteRequest.isDeleteAllOfType()) {
+            log.warn("已弃用的关系删除调用：未指定端点也未设置 deleteAllOfType，关系类型 {} 的全部关系将被删除", name);
         }
-        String relationshipToDelete = graphService.deleteRelationship(name);
+        String relationshipToDelete = graphService.deleteRelationshipsOfType(name);
         return ResultUtils.success("Relationship:" + relationshipToDelete + " deleted successfully");
     }
 
@@ -136,12 +283,13 @@ public class GraphController {
         }
         String name = relationshipUpdateRequest.getName();
         Map<String, Object> newProperties = relationshipUpdateRequest.getProperties();
-        // 先查询关系是否存在
-        RelationshipVO existingRelationship = graphService.findRelationship(name);
-        if (existingRelationship == null) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系不存在，无法更新");
-        }
-        String result = graphService.updateRelationship(name, newProperties);
+        // 给出原端点时按原端点定位关系，新属性中的端点不同则改为连接新端点；
+        // 未给出原端点时沿用旧接口行为（已弃用）：用新属性描述的关系替换该类型的全部关系
+        String fromNode = relationshipUpdateRequest.getFromNode();
+        String toNode = relationshipUpdateRequest.getToNode();
+        String result = fromNode != null || toNode != null
+                ? graphService.updateRelationship(name, fromNode, toNode, newProperties)
+                : graphService.updateRelationship(name, newProperties);
         return ResultUtils.success(result);
     }
 
@@ -152,8 +300,12 @@ public class GraphController {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
         String name = relationshipQueryRequest.getName();
-        // 先查询关系是否存在
-        RelationshipVO existingRelationship = graphService.findRelationship(name);
+        Map<String, Object> properties = relationshipQueryRequest.getProperties();
+        // 指定了端点时按端点查询，否则返回该类型的任意一条关系
+        RelationshipVO existingRelationship = properties != null
+                && properties.get("fromNode") instanceof String && properties.get("toNode") instanceof String
+                ? graphService.findRelationship(name, (String) properties.get("fromNode"), (String) properties.get("toNode"))
+                : graphService.findRelationship(name);
         if (existingRelationship == null) {
             log.error("关系不存在，name: " + name);
             return null;
@@ -166,7 +318,19 @@ public class GraphController {
     public BaseResponse<List<NodeVO>> getAllNodes(@RequestBody NodeGetAllRequest nodeGetAllRequest) {
         boolean isIncludeProperties = nodeGetAllRequest.isIncludeProperties();
         List<NodeVO> nodes = graphService.getAllNodes(isIncludeProperties);
-        log.error("Nodes: " + nodes);
+        log.info("获取全部节点，count: {}", nodes.size());
+        return ResultUtils.success(nodes);
+    }
+
+    // 获取全部节点（GET），图谱版本未变化时按 If-None-Match 返回 304，不访问数据库
+    @GetMapping("/getAllNodes")
+    public BaseResponse<List<NodeVO>> getAllNodesIfModified(NodeGetAllRequest nodeGetAllRequest, WebRequest webRequest) {
+        boolean isIncludeProperties = nodeGetAllRequest.isIncludeProperties();
+        if (webRequest.checkNotModified(graphChangeLogManager.currentETag("nodes-" + isIncludeProperties))) {
+            return null;
+        }
+        List<NodeVO> nodes = graphService.getAllNodes(isIncludeProperties);
+        log.info("获取全部节点，count: {}", nodes.size());
         return ResultUtils.success(nodes);
     }
 
@@ -175,7 +339,414 @@ public class GraphController {
     public BaseResponse<List<RelationshipVO>> getAllRelationships(@RequestBody RelationshipGetAllRequest relationshipGetAllRequest) {
         boolean isIncludeProperties = relationshipGetAllRequest.isIncludeProperties();
         List<RelationshipVO> relationships = graphService.getAllRelationships(isIncludeProperties);
-        log.error("Relationships: " + relationships);
+        log.info("获取全部关系，count: {}", relationships.size());
+        return ResultUtils.success(relationships);
+    }
+
+    // 获取全部关系（GET），图谱版本未变化时按 If-None-Match 返回 304，不访问数据库
+    @GetMapping("/getAllRelationships")
+    public BaseResponse<List<RelationshipVO>> getAllRelationshipsIfModified(RelationshipGetAllRequest relationshipGetAllRequest, WebRequest webRequest) {
+        boolean isIncludeProperties = relationshipGetAllRequest.isIncludeProperties();
+        if (webRequest.checkNotModified(graphChangeLogManager.currentETag("relationships-" + isIncludeProperties))) {
+            return null;
+        }
+        List<RelationshipVO> relationships = graphService.getAllRelationships(isIncludeProperties);
+        log.info("获取全部关系，count: {}", relationships.size());
         return ResultUtils.success(relationships);
     }
-}
\ No newline at end of file
+
+    // 游标分页获取节点
+    @PostMapping("/listNodes/page")
+    public BaseResponse<CursorPageVO<NodeVO>> listNodesByPage(@RequestBody NodePageRequest nodePageRequest) {
+        if (nodePageRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        CursorPageVO<NodeVO> page = graphService.listNodesByCursor(nodePageRequest.isIncludeProperties(),
+                nodePageRequest.getCursor(), nodePageRequest.getPageSize());
+        return ResultUtils.success(page);
+    }
+
+    // 游标分页获取关系（只包含起点为 :AMSNet 节点的关系，不含其他程序直接写入数据库的无标签节点之间的关系）
+    @PostMapping("/listRelationships/page")
+    public BaseResponse<CursorPageVO<RelationshipVO>> listRelationshipsByPage(@RequestBody RelationshipPageRequest relationshipPageRequest) {
+        if (relationshipPageRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        CursorPageVO<RelationshipVO> page = graphService.listRelationshipsByCursor(relationshipPageRequest.isIncludeProperties(),
+                relationshipPageRequest.getCursor(), relationshipPageRequest.getPageSize());
+        return ResultUtils.success(page);
+    }
+
+    // 邻域查询
+    @PostMapping("/neighborhood")
+    public BaseResponse<SubgraphVO> getNeighborhood(@RequestBody NodeNeighborhoodRequest nodeNeighborhoodRequest) {
+        if (nodeNeighborhoodRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        SubgraphVO subgraph = graphService.getNeighborhood(nodeNeighborhoodRequest.getName(), nodeNeighborhoodRequest.getDepth(),
+                nodeNeighborhoodRequest.getFanOut(), nodeNeighborhoodRequest.getRelationshipTypes());
+        if (subgraph == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "起始节点不存在");
+        }
+        return ResultUtils.success(subgraph);
+    }
+
+    // 两节点之间的最短路径
+    @PostMapping("/findPaths")
+    public BaseResponse<List<PathVO>> findPaths(@RequestBody PathQueryRequest pathQueryRequest) {
+        if (pathQueryRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        List<PathVO> paths = graphService.findPaths(pathQueryRequest.getFromNode(), pathQueryRequest.getToNode(),
+                pathQueryRequest.getMaxDepth(), pathQueryRequest.getK());
+        return ResultUtils.success(paths);
+    }
+
+    // 两节点之间是否存在路径
+    @PostMapping("/pathExists")
+    public BaseResponse<Boolean> pathExists(@RequestBody PathQueryRequest pathQueryRequest) {
+        if (pathQueryRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        boolean exists = graphService.pathExists(pathQueryRequest.getFromNode(), pathQueryRequest.getToNode(),
+                pathQueryRequest.getMaxDepth());
+        return ResultUtils.success(exists);
+    }
+
+    // 从 xlsx / csv 或二进制快照导入节点和关系，返回任务 id
+    @PostMapping("/import")
+    public BaseResponse<String> importFile(@RequestPart("file") MultipartFile multipartFile) {
+        return ResultUtils.success(graphImportService.importFile(multipartFile));
+    }
+
+    // 导出全部节点和关系为二进制快照（.amsg），可通过 /graph/import 恢复
+    @GetMapping("/export/binary")
+    public ResponseEntity<StreamingResponseBody> exportBinary(HttpServletRequest request) {
+        setStreamingTimeout(request, "export-binary");
+        StreamingResponseBody body = outputStream -> {
+            try {
+                long count = graphService.exportBinary(Channels.newChannel(outputStream));
+                log.info("导出二进制快照，count: {}", count);
+            } catch (UncheckedIOException e) {
+                // 客户端已断开，服务层已回滚事务并记录日志
+            } catch (BusinessException e) {
+                // 响应头已发出，文件已以错误记录结束
+                log.warn("导出二进制快照中途失败: {}", e.getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=amsnet." + GraphBinaryFormat.FILE_SUFFIX)
+                .body(body);
+    }
+
+    // 从断点继续导入
+    @PostMapping("/import/resume")
+    public BaseResponse<String> resumeImport(@RequestBody GraphImportResumeRequest graphImportResumeRequest) {
+        if (graphImportResumeRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        return ResultUtils.success(graphImportService.resume(graphImportResumeRequest.getTaskId()));
+    }
+
+    // 导入进度
+    @GetMapping("/import/progress")
+    public BaseResponse<GraphImportTaskVO> getImportProgress(String taskId) {
+        GraphImportTaskVO graphImportTaskVO = graphImportService.getProgress(taskId);
+        if (graphImportTaskVO == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "导入任务不存在");
+        }
+        return ResultUtils.success(graphImportTaskVO);
+    }
+
+    // 图谱可视化快照：节点和关系一次返回，节点用整数编号、关系用编号对表示，可按度数采样
+    @PostMapping("/view")
+    public BaseResponse<GraphViewVO> getGraphView(@RequestBody GraphViewRequest graphViewRequest) {
+        if (graphViewRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        GraphViewVO graphView = graphService.getGraphView(graphViewRequest.isIncludeProperties(), graphViewRequest.isLod(),
+                graphViewRequest.getMaxNodes());
+        return ResultUtils.success(graphView);
+    }
+
+    // 图谱可视化快照（GET），图谱版本未变化时按 If-None-Match 返回 304，不访问数据库
+    @GetMapping("/view")
+    public BaseResponse<GraphViewVO> getGraphViewIfModified(GraphViewRequest graphViewRequest, WebRequest webRequest) {
+        String resource = "view-" + graphViewRequest.isIncludeProperties() + "-" + graphViewRequest.isLod()
+                + "-" + graphViewRequest.getMaxNodes();
+        if (webRequest.checkNotModified(graphChangeLogManager.currentETag(resource))) {
+            return null;
+        }
+        GraphViewVO graphView = graphService.getGraphView(graphViewRequest.isIncludeProperties(), graphViewRequest.isLod(),
+                graphViewRequest.getMaxNodes());
+        return ResultUtils.success(graphView);
+    }
+
+    // 增量变更：返回 since 版本之后的变更，变更日志已截断、服务重启或其间有批量更新节点属性（如分析得分写回）时返回需要全量同步
+    @GetMapping("/changes")
+    public BaseResponse<GraphChangesVO> getChanges(Long since, String epoch, Integer limit) {
+        if (since == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "版本号为空");
+        }
+        int pageSize = limit == null ? graphConfig.getMaxPageSize() : limit;
+        if (pageSize <= 0 || pageSize > graphConfig.getMaxPageSize()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "页面大小需在 1 到 " + graphConfig.getMaxPageSize() + " 之间");
+        }
+        return ResultUtils.success(graphChangeLogManager.getChanges(since, epoch, pageSize));
+    }
+
+    // 订阅图谱变更推送（SSE），重连时根据 Last-Event-ID 补发遗漏的变更；批量更新节点属性以 resync 事件通知
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return graphEventStreamManager.subscribe(lastEventId);
+    }
+
+    // 变更推送统计
+    @GetMapping("/stream/stats")
+    public BaseResponse<GraphStreamStatsVO> getStreamStats() {
+        return ResultUtils.success(graphEventStreamManager.getStats());
+    }
+
+    // 提交中心性分析：PageRank、度中心性及可选的介数中心性，可写回节点属性，结果通过 lastRun 查询
+    @PostMapping("/analytics/centrality")
+    public BaseResponse<GraphAnalyticsRunVO> runCentrality(@RequestBody GraphAnalyticsRequest graphAnalyticsRequest) {
+        return ResultUtils.success(graphAnalyticsService.runCentrality(graphAnalyticsRequest));
+    }
+
+    // 最近一次中心性分析的状态、结果及运行统计
+    @GetMapping("/analytics/lastRun")
+    public BaseResponse<GraphAnalyticsRunVO> getLastAnalyticsRun() {
+        GraphAnalyticsRunVO graphAnalyticsRunVO = graphAnalyticsService.getLastRun();
+        if (graphAnalyticsRunVO == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "尚未运行过分析");
+        }
+        return ResultUtils.success(graphAnalyticsRunVO);
+    }
+
+    // 计算连通分量与社区（按图谱版本缓存，版本未变化时直接返回）
+    @PostMapping("/analytics/communities")
+    public BaseResponse<GraphCommunityStatsVO> computeCommunities() {
+        return ResultUtils.success(graphAnalyticsService.computeCommunities());
+    }
+
+    // 连通分量与社区统计
+    @GetMapping("/analytics/communities/stats")
+    public BaseResponse<GraphCommunityStatsVO> getCommunityStats() {
+        GraphCommunityStatsVO graphCommunityStatsVO = graphAnalyticsService.getCommunityStats();
+        if (graphCommunityStatsVO == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "尚未计算过连通分量与社区");
+        }
+        return ResultUtils.success(graphCommunityStatsVO);
+    }
+
+    // 查询节点所属的连通分量与社区
+    @GetMapping("/analytics/community")
+    public BaseResponse<NodeCommunityVO> getNodeCommunity(String name) {
+        NodeCommunityVO nodeCommunityVO = graphAnalyticsService.getNodeCommunity(name);
+        if (nodeCommunityVO == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "节点不存在");
+        }
+        return ResultUtils.success(nodeCommunityVO);
+    }
+
+    // 内存快照统计
+    @GetMapping("/snapshot/stats")
+    public BaseResponse<GraphSnapshotStatsVO> getSnapshotStats() {
+        return ResultUtils.success(graphSnapshotManager.getStats());
+    }
+
+    // 立即重建内存快照
+    @PostMapping("/snapshot/refresh")
+    public BaseResponse<GraphSnapshotStatsVO> refreshSnapshot() {
+        if (!graphSnapshotManager.getStats().isEnabled()) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "图谱快照未开启");
+        }
+        graphSnapshotManager.refresh();
+        return ResultUtils.success(graphSnapshotManager.getStats());
+    }
+
+    // 基于内存快照的邻域查询
+    @PostMapping("/snapshot/neighborhood")
+    public BaseResponse<SubgraphVO> getSnapshotNeighborhood(@RequestBody NodeNeighborhoodRequest nodeNeighborhoodRequest) {
+        if (nodeNeighborhoodRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        SubgraphVO subgraph = graphSnapshotManager.getNeighborhood(nodeNeighborhoodRequest.getName(), nodeNeighborhoodRequest.getDepth(),
+                nodeNeighborhoodRequest.getFanOut(), nodeNeighborhoodRequest.getRelationshipTypes());
+        if (subgraph == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "起始节点不存在");
+        }
+        return ResultUtils.success(subgraph);
+    }
+
+    // 基于内存快照判断两节点之间是否存在路径
+    @PostMapping("/snapshot/reachable")
+    public BaseResponse<SnapshotReachableVO> snapshotReachable(@RequestBody PathQueryRequest pathQueryRequest) {
+        if (pathQueryRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        SnapshotReachableVO snapshotReachableVO = graphSnapshotManager.reachable(pathQueryRequest.getFromNode(),
+                pathQueryRequest.getToNode(), pathQueryRequest.getMaxDepth());
+        return ResultUtils.success(snapshotReachableVO);
+    }
+
+    // 流式获取全部节点（NDJSON，每行一个节点；中途出错时最后一行为 BaseResponse 格式的错误）
+    @PostMapping("/getAllNodes/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllNodes(@RequestBody NodeGetAllRequest nodeGetAllRequest,
+                                                                HttpServletRequest request) {
+        setStreamingTimeout(request, "stream-all-nodes");
+        boolean isIncludeProperties = nodeGetAllRequest.isIncludeProperties();
+        StreamingResponseBody body = outputStream -> this.<NodeVO>writeLines(outputStream, "流式获取全部节点",
+                consumer -> graphService.streamAllNodes(isIncludeProperties, consumer));
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    // 流式获取全部关系（NDJSON，每行一条关系；中途出错时最后一行为 BaseResponse 格式的错误）
+    @PostMapping("/getAllRelationships/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllRelationships(@RequestBody RelationshipGetAllRequest relationshipGetAllRequest,
+                                                                        HttpServletRequest request) {
+        setStreamingTimeout(request, "stream-all-relationships");
+        boolean isIncludeProperties = relationshipGetAllRequest.isIncludeProperties();
+        StreamingResponseBody body = outputStream -> this.<RelationshipVO>writeLines(outputStream, "流式获取全部关系",
+                consumer -> graphService.streamAllRelationships(isIncludeProperties, consumer));
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    // 异步查询节点（等待数据库期间释放请求线程）
+    @PostMapping("/async/findNode")
+    public CompletableFuture<BaseResponse<NodeVO>> findNodeAsync(@RequestBody NodeQueryRequest nodeQueryRequest) {
+        if (nodeQueryRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        return graphAsyncService.findNode(nodeQueryRequest.getName()).thenApply(ResultUtils::success);
+    }
+
+    // 异步创建节点（开启组提交时随所在事务提交后返回）
+    @PostMapping("/async/createNode")
+    public CompletableFuture<BaseResponse<String>> createNodeAsync(@RequestBody NodeCreateRequest nodeCreateRequest) {
+        if (nodeCreateRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        return graphService.submitCreateNode(nodeCreateRequest.getName(), nodeCreateRequest.getProperties())
+                .thenApply(ResultUtils::success);
+    }
+
+    // 异步更新节点
+    @PutMapping("/async/updateNode")
+    public CompletableFuture<BaseResponse<String>> updateNodeAsync(@RequestBody NodeUpdateRequest nodeUpdateRequest) {
+        if (nodeUpdateRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        return graphService.submitUpdateNode(nodeUpdateRequest.getName(), nodeUpdateRequest.getProperties())
+                .thenApply(ResultUtils::success);
+    }
+
+    // 异步删除节点
+    @DeleteMapping("/async/deleteNode")
+    public CompletableFuture<BaseResponse<String>> deleteNodeAsync(@RequestBody NodeDeleteRequest nodeDeleteRequest) {
+        if (nodeDeleteRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        return graphService.submitDeleteNode(nodeDeleteRequest.getName()).thenApply(ResultUtils::success);
+    }
+
+    // 异步创建关系
+    @PostMapping("/async/createRelationship")
+    public CompletableFuture<BaseResponse<String>> createRelationshipAsync(@RequestBody RelationshipCreateRequest relationshipCreateRequest) {
+        if (relationshipCreateRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        return graphService.submitCreateRelationship(relationshipCreateRequest.getName(), relationshipCreateRequest.getProperties())
+                .thenApply(ResultUtils::success);
+    }
+
+    // 异步获取全部节点
+    @PostMapping("/async/getAllNodes")
+    public DeferredResult<BaseResponse<List<NodeVO>>> getAllNodesAsync(@RequestBody NodeGetAllRequest nodeGetAllRequest) {
+        return toCancellableResult(graphAsyncService.getAllNodes(nodeGetAllRequest.isIncludeProperties()), "get-all-nodes");
+    }
+
+    // 异步获取全部关系
+    @PostMapping("/async/getAllRelationships")
+    public DeferredResult<BaseResponse<List<RelationshipVO>>> getAllRelationshipsAsync(@RequestBody RelationshipGetAllRequest relationshipGetAllRequest) {
+        return toCancellableResult(graphAsyncService.getAllRelationships(relationshipGetAllRequest.isIncludeProperties()), "get-all-relationships");
+    }
+
+    /**
+     * 包装异步查询结果，请求超时或连接出错（如客户端断开）时取消查询，由服务层关闭会话终止服务端查询。
+     * 请求超时比查询的事务超时多留 ASYNC_TIMEOUT_GRACE_MILLIS，正常情况下先由数据库超时返回具体提示；
+     * 查询不设超时时请求也不设超时
+     * @param future 异步查询
+     * @param operation 操作名，用于获取事务超时时间
+     * @param <T> 结果类型
+     * @return
+     */
+    private <T> DeferredResult<BaseResponse<T>> toCancellableResult(CompletableFuture<T> future, String operation) {
+        long queryTimeoutMillis = graphConfig.resolveQueryTimeoutMillis(operation, graphConfig.getQueryTimeoutMillis());
+        DeferredResult<BaseResponse<T>> deferredResult = queryTimeoutMillis > 0
+                ? new DeferredResult<>(queryTimeoutMillis + ASYNC_TIMEOUT_GRACE_MILLIS) : new DeferredResult<>();
+        deferredResult.onTimeout(() -> {
+            future.cancel(true);
+            deferredResult.setErrorResult(new BusinessException(ErrorCode.OPERATION_ERROR, "请求超时，请稍后重试"));
+        });
+        deferredResult.onError(error -> future.cancel(true));
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                deferredResult.setResult(ResultUtils.success(value));
+            } else if (!future.isCancelled()) {
+                deferredResult.setErrorResult(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        });
+        return deferredResult;
+    }
+
+    /**
+     * 流式响应的异步超时设为查询事务超时之后，替换较短的全局异步超时；未配置事务超时时仍使用全局超时
+     * @param request 请求
+     * @param operation 操作名
+     */
+    private void setStreamingTimeout(HttpServletRequest request, String operation) {
+        long queryTimeoutMillis = graphConfig.resolveQueryTimeoutMillis(operation, graphConfig.getQueryTimeoutMillis());
+        if (queryTimeoutMillis > 0) {
+            request.setAttribute(AsyncRequestConfig.ASYNC_TIMEOUT_ATTRIBUTE, queryTimeoutMillis + ASYNC_TIMEOUT_GRACE_MILLIS);
+        }
+    }
+
+    /**
+     * 以 NDJSON 格式写出流式查询的全部记录。响应头已发出，不能再改状态码：
+     * 客户端断开时只记录日志；查询中途失败时写出一行错误（code / message）后结束
+     * @param outputStream 响应输出流
+     * @param action 操作名称，用于日志
+     * @param stream 以逐条写出的回调执行流式查询，返回记录数
+     */
+    private <T> void writeLines(OutputStream outputStream, String action, Function<Consumer<T>, Long> stream) {
+        try {
+            long count = stream.apply(value -> writeLine(outputStream, value));
+            log.info("{}，count: {}", action, count);
+        } catch (UncheckedIOException e) {
+            // 客户端已断开，服务层已回滚事务并记录日志，无需再写出
+        } catch (BusinessException e) {
+            log.warn("{}中途失败: {}", action, e.getMessage());
+            try {
+                writeLine(outputStream, ResultUtils.error(e.getCode(), e.getMessage()));
+            } catch (UncheckedIOException ignored) {
+                log.info("{}时客户端断开", action);
+            }
+        }
+    }
+
+    /**
+     * 以 NDJSON 格式写出一行
+     * @param outputStream 响应输出流
+     * @param value 待写出的对象
+     */
+    private void writeLine(OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.scy.mytemplate.event;
+
+import com.scy.mytemplate.model.enums.GraphChangeTypeEnum;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 图谱变更事件，由 GraphServiceImpl 在写事务提交后发布
+ * 节点变更：name 为节点名称；关系变更：name 为关系类型，fromNode / toNode 为端点名称；
+ * 删除某类型的全部关系时 name 为关系类型，端点为空；
+ * 批量更新节点属性（如分析得分写回）只发布一条汇总变更，name 为空，properties 中为写入的属性名及节点数；
+ * 增量同步的客户端无法应用这类变更，变更日志与推送对其返回需要全量同步。
+ */
+@Getter
+public class GraphChangeEvent extends ApplicationEvent {
+
+    private final GraphChangeTypeEnum changeType;
+
+    private final String name;
+
+    private final String fromNode;
+
+    private final String toNode;
+
+    /**
+     * 创建/更新时写入的属性，删除时为空
+     */
+    private final Map<String, Object> properties;
+
+    private GraphChangeEvent(Object source, GraphChangeTypeEnum changeType, String name, String fromNode, String toNode,
+                             Map<String, Object> properties) {
+        super(source);
+        this.changeType = changeType;
+        this.name = name;
+        this.fromNode = fromNode;
+        this.toNode = toNode;
+        this.properties = properties;
+    }
+
+    public static GraphChangeEvent nodeCreated(Object source, String name, Map<String, Object> properties) {
+        return new GraphChangeEvent(source, GraphChangeTypeEnum.NODE_CREATED, name, null, null, properties);
+    }
+
+    public static GraphChangeEvent nodeUpdated(Object source, String name, Map<String, Object> properties) {
+        return new GraphChangeEvent(source, GraphChangeTypeEnum.NODE_UPDATED, name, null, null, properties);
+    }
+
+    public static GraphChangeEvent nodeDeleted(Object source, String name) {
+        return new GraphChangeEvent(source, GraphChangeTypeEnum.NODE_DELETED, name, null, null, null);
+    }
+
+    public static GraphChangeEvent relationshipCreated(Object source, String name, String fromNode, String toNode,
+                                                       Map<String, Object> properties) {
+        return new GraphChangeEvent(source, GraphChangeTypeEnum.RELATIONSHIP_CREATED, name, fromNode, toNode, properties);
+    }
+
+    public static GraphChangeEvent relationshipUpdated(Object source, String name, String fromNode, String toNode,
+                                                       Map<String, Object> properties) {
+        return new GraphChangeEvent(source, GraphChangeTypeEnum.RELATIONSHIP_UPDATED, name, fromNode, toNode, properties);
+    }
+
+    public static GraphChangeEvent relationshipDeleted(Object source, String name, String fromNode, String toNode) {
+        return new GraphChangeEvent(source, GraphChangeTypeEnum.RELATIONSHIP_DELETED, name, fromNode, toNode, null);
+    }
+
+    public static GraphChangeEvent relationshipTypeDeleted(Object source, String name) {
+        return new GraphChangeEvent(source, GraphChangeTypeEnum.RELATIONSHIP_TYPE_DELETED, name, null, null, null);
+    }
+
+    public static GraphChangeEvent nodesBulkUpdated(Object source, List<String> keys, long count) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("keys", keys);
+        properties.put("count", count);
+        return new GraphChangeEvent(source, GraphChangeTypeEnum.NODES_BULK_UPDATED, null, null, null, properties);
+    }
+}
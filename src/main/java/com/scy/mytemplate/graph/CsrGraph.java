@@ -0,0 +1,265 @@
+package com.scy.mytemplate.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压缩稀疏行（CSR）格式的只读图
+ * 节点使用 0..nodeCount-1 的连续编号，出边和入边各存一份：
+ * 节点 v 的出边为 outTargets[outOffsets[v] .. outOffsets[v + 1])，入边同理；
+ * 关系类型驻留为整数编号，与 relationshipTypes 下标对应。
+ */
+public final class CsrGraph {
+
+    private final String[] names;
+
+    private final Map<String, Integer> nameToId;
+
+    private final String[] relationshipTypes;
+
+    private final int[] outOffsets;
+
+    private final int[] outTargets;
+
+    private final int[] outTypes;
+
+    private final int[] inOffsets;
+
+    private final int[] inTargets;
+
+    private final int[] inTypes;
+
+    private CsrGraph(String[] names, Map<String, Integer> nameToId, String[] relationshipTypes,
+                     int[] outOffsets, int[] outTargets, int[] outTypes,
+                     int[] inOffsets, int[] inTargets, int[] inTypes) {
+        this.names = names;
+        this.nameToId = nameToId;
+        this.relationshipTypes = relationshipTypes;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.outTypes = outTypes;
+        this.inOffsets = inOffsets;
+        this.inTargets = inTargets;
+        this.inTypes = inTypes;
+    }
+
+    public int nodeCount() {
+        return names.length;
+    }
+
+    public int relationshipCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * 根据节点名称获取编号
+     *
+     * @param name 节点名称
+     * @return 不存在返回 -1
+     */
+    public int idOf(String name) {
+        Integer id = nameToId.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * 根据关系类型获取编号
+     *
+     * @param relationshipType 关系类型
+     * @return 不存在返回 -1
+     */
+    public int typeIdOf(String relationshipType) {
+        for (int i = 0; i < relationshipTypes.length; i++) {
+            if (relationshipTypes[i].equals(relationshipType)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String typeOf(int typeId) {
+        return relationshipTypes[typeId];
+    }
+
+    public int relationshipTypeCount() {
+        return relationshipTypes.length;
+    }
+
+    public int outStart(int id) {
+        return outOffsets[id];
+    }
+
+    public int outEnd(int id) {
+        return outOffsets[id + 1];
+    }
+
+    public int outTarget(int index) {
+        return outTargets[index];
+    }
+
+    public int outType(int index) {
+        return outTypes[index];
+    }
+
+    public int inStart(int id) {
+        return inOffsets[id];
+    }
+
+    public int inEnd(int id) {
+        return inOffsets[id + 1];
+    }
+
+    public int inTarget(int index) {
+        return inTargets[index];
+    }
+
+    public int inType(int index) {
+        return inTypes[index];
+    }
+
+    public int outDegree(int id) {
+        return outOffsets[id + 1] - outOffsets[id];
+    }
+
+    public int inDegree(int id) {
+        return inOffsets[id + 1] - inOffsets[id];
+    }
+
+    /**
+     * 估算图结构占用的内存（字节），只计算数组与名称字典，不含对象头等常数开销
+     *
+     * @return
+     */
+    public long estimatedBytes() {
+        long arrays = 4L * (outOffsets.length + outTargets.length + outTypes.length
+                + inOffsets.length + inTargets.length + inTypes.length);
+        long dictionary = 0;
+        for (String name : names) {
+            // 字符串按 Latin-1 紧凑存储估算，另加数组引用与哈希表条目
+            dictionary += name.length() + 40 + 48;
+        }
+        return arrays + dictionary;
+    }
+
+    /**
+     * 估算每条关系占用的内存（字节），只计算出边/入边数组
+     *
+     * @return
+     */
+    public double bytesPerRelationship() {
+        if (outTargets.length == 0) {
+            return 0;
+        }
+        return 4.0 * (outTargets.length + outTypes.length + inTargets.length + inTypes.length) / outTargets.length;
+    }
+
+    /**
+     * CSR 图构建器，先逐条添加节点和关系，最后一次性按起点计数排序生成数组
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> nameToId = new HashMap<>();
+
+        private String[] names = new String[16];
+
+        private int nodeCount;
+
+        private final Map<String, Integer> typeToId = new HashMap<>();
+
+        private int[] sources = new int[16];
+
+        private int[] targets = new int[16];
+
+        private int[] types = new int[16];
+
+        private int relationshipCount;
+
+        /**
+         * 添加节点，重复添加返回已有编号
+         *
+         * @param name 节点名称
+         * @return 节点编号
+         */
+        public int addNode(String name) {
+            Integer id = nameToId.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (nodeCount == names.length) {
+                names = Arrays.copyOf(names, nodeCount * 2);
+            }
+            names[nodeCount] = name;
+            nameToId.put(name, nodeCount);
+            return nodeCount++;
+        }
+
+        /**
+         * 添加有向关系，端点不存在时忽略
+         *
+         * @param fromNode 起始节点名称
+         * @param toNode 结束节点名称
+         * @param relationshipType 关系类型
+         */
+        public void addRelationship(String fromNode, String toNode, String relationshipType) {
+            Integer source = nameToId.get(fromNode);
+            Integer target = nameToId.get(toNode);
+            if (source == null || target == null) {
+                return;
+            }
+            if (relationshipCount == sources.length) {
+                sources = Arrays.copyOf(sources, relationshipCount * 2);
+                targets = Arrays.copyOf(targets, relationshipCount * 2);
+                types = Arrays.copyOf(types, relationshipCount * 2);
+            }
+            Integer typeId = typeToId.get(relationshipType);
+            if (typeId == null) {
+                typeId = typeToId.size();
+                typeToId.put(relationshipType, typeId);
+            }
+            sources[relationshipCount] = source;
+            targets[relationshipCount] = target;
+            types[relationshipCount] = typeId;
+            relationshipCount++;
+        }
+
+        public CsrGraph build() {
+            String[] relationshipTypes = new String[typeToId.size()];
+            for (Map.Entry<String, Integer> entry : typeToId.entrySet()) {
+                relationshipTypes[entry.getValue()] = entry.getKey();
+            }
+            int[] outOffsets = new int[nodeCount + 1];
+            int[] outTargets = new int[relationshipCount];
+            int[] outTypes = new int[relationshipCount];
+            fill(sources, targets, outOffsets, outTargets, outTypes);
+            int[] inOffsets = new int[nodeCount + 1];
+            int[] inTargets = new int[relationshipCount];
+            int[] inTypes = new int[relationshipCount];
+            fill(targets, sources, inOffsets, inTargets, inTypes);
+            return new CsrGraph(Arrays.copyOf(names, nodeCount), new HashMap<>(nameToId), relationshipTypes,
+                    outOffsets, outTargets, outTypes, inOffsets, inTargets, inTypes);
+        }
+
+        /**
+         * 按 keys 计数排序，生成 offsets 并把 values / types 写入对应区间
+         */
+        private void fill(int[] keys, int[] values, int[] offsets, int[] sortedValues, int[] sortedTypes) {
+            for (int i = 0; i < relationshipCount; i++) {
+                offsets[keys[i] + 1]++;
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] cursor = Arrays.copyOf(offsets, nodeCount);
+            for (int i = 0; i < relationshipCount; i++) {
+                int position = cursor[keys[i]]++;
+                sortedValues[position] = values[i];
+                sortedTypes[position] = types[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package com.scy.mytemplate.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * 基于 CsrGraph 的图算法，节点区间或源点区间拆分为 fork/join 任务并行计算
+ * 关系按有向边处理，同一对节点之间的多条关系按多条边计算。
+ */
+public final class GraphAlgorithms {
+
+    /**
+     * 节点区间小于该值时不再拆分
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    private GraphAlgorithms() {
+    }
+
+    /**
+     * 度中心性：(入度 + 出度) / (节点数 - 1)
+     *
+     * @param pool 并行计算使用的线程池
+     * @param graph 图
+     * @return 下标为节点编号
+     */
+    public static double[] degreeCentrality(ForkJoinPool pool, CsrGraph graph) {
+        int nodeCount = graph.nodeCount();
+        double[] scores = new double[nodeCount];
+        double scale = nodeCount > 1 ? 1.0 / (nodeCount - 1) : 0;
+        forEach(pool, nodeCount, v -> scores[v] = (graph.inDegree(v) + graph.outDegree(v)) * scale);
+        return scores;
+    }
+
+    /**
+     * PageRank，按入边拉取邻居得分；没有出边的节点把得分平均分给所有节点
+     *
+     * @param pool 并行计算使用的线程池
+     * @param graph 图
+     * @param dampingFactor 阻尼系数
+     * @param maxIterations 最大迭代次数
+     * @param tolerance 两次迭代得分差（L1）小于该值时认为收敛
+     * @return
+     */
+    public static PageRankResult pageRank(ForkJoinPool pool, CsrGraph graph, double dampingFactor, int maxIterations,
+                                          double tolerance) {
+        int nodeCount = graph.nodeCount();
+        PageRankResult result = new PageRankResult();
+        double[] rank = new double[nodeCount];
+        double[] next = new double[nodeCount];
+        if (nodeCount == 0) {
+            result.scores = rank;
+            result.converged = true;
+            return result;
+        }
+        Arrays.fill(rank, 1.0 / nodeCount);
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            double[] current = rank;
+            double[] updated = next;
+            double danglingSum = sum(pool, nodeCount, v -> graph.outDegree(v) == 0 ? current[v] : 0);
+            double base = (1 - dampingFactor) / nodeCount + dampingFactor * danglingSum / nodeCount;
+            double delta = sum(pool, nodeCount, v -> {
+                double incoming = 0;
+                for (int e = graph.inStart(v); e < graph.inEnd(v); e++) {
+                    int u = graph.inTarget(e);
+                    incoming += current[u] / graph.outDegree(u);
+                }
+                updated[v] = base + dampingFactor * incoming;
+                return Math.abs(updated[v] - current[v]);
+            });
+            rank = updated;
+            next = current;
+            result.iterations = iteration;
+            if (delta < tolerance) {
+                result.converged = true;
+                break;
+            }
+        }
+        result.scores = rank;
+        return result;
+    }
+
+    /**
+     * 介数中心性（Brandes 算法，有向、无权），源点按区间并行，每个任务使用独立的工作数组
+     *
+     * @param pool 并行计算使用的线程池
+     * @param graph 图
+     * @param sources 参与计算的源点，为全部节点时结果精确，为抽样时按 节点数 / 源点数 放大
+     * @return 下标为节点编号
+     */
+    public static double[] betweenness(ForkJoinPool pool, CsrGraph graph, int[] sources) {
+        return betweenness(pool, graph, sources, 0);
+    }
+
+    /**
+     * 带截止时间的介数中心性，每处理完一个源点检查一次，超过截止时间抛出 CancellationException
+     *
+     * @param pool 并行计算使用的线程池
+     * @param graph 图
+     * @param sources 参与计算的源点
+     * @param deadlineMillis 截止时间（System.currentTimeMillis），0 表示不限制
+     * @return 下标为节点编号
+     */
+    public static double[] betweenness(ForkJoinPool pool, CsrGraph graph, int[] sources, long deadlineMillis) {
+        int nodeCount = graph.nodeCount();
+        if (sources.length == 0) {
+            return new double[nodeCount];
+        }
+        int leafSize = Math.max(1, sources.length / (pool.getParallelism() * 4));
+        double[] scores = pool.invoke(new BetweennessTask(graph, sources, 0, sources.length, leafSize, deadlineMillis));
+        double scale = (double) nodeCount / sources.length;
+        if (scale != 1) {
+            forEach(pool, nodeCount, v -> scores[v] *= scale);
+        }
+        return scores;
+    }
+
+    /**
+     * 弱连通分量：并行并查集，按有向边合并两端，根节点只通过 CAS 挂到编号更小的根下
+     *
+     * @param pool 并行计算使用的线程池
+     * @param graph 图
+     * @return 下标为节点编号，值为连续的分量编号（按分量中最小节点编号排序）
+     */
+    public static int[] weaklyConnectedComponents(ForkJoinPool pool, CsrGraph graph) {
+        int nodeCount = graph.nodeCount();
+        AtomicIntegerArray parent = new AtomicIntegerArray(nodeCount);
+        forEach(pool, nodeCount, v -> parent.set(v, v));
+        forEach(pool, nodeCount, u -> {
+            for (int e = graph.outStart(u); e < graph.outEnd(u); e++) {
+                union(parent, u, graph.outTarget(e));
+            }
+        });
+        int[] roots = new int[nodeCount];
+        forEach(pool, nodeCount, v -> roots[v] = find(parent, v));
+        return relabel(roots);
+    }
+
+    /**
+     * 标签传播社区发现（不区分方向）：每轮同步更新为邻居及自身标签中出现最多的标签，
+     * 并列时取最小的标签（自身也计一票，避免同步更新时相邻节点来回交换标签），直到没有变化或达到最大迭代次数
+     *
+     * @param pool 并行计算使用的线程池
+     * @param graph 图
+     * @param maxIterations 最大迭代次数
+     * @return
+     */
+    public static LabelPropagationResult labelPropagation(ForkJoinPool pool, CsrGraph graph, int maxIterations) {
+        int nodeCount = graph.nodeCount();
+        int[] labels = new int[nodeCount];
+        int[] next = new int[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            labels[v] = v;
+        }
+        LabelPropagationResult result = new LabelPropagationResult();
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            int changed = pool.invoke(new LabelPropagationTask(graph, labels, next, 0, nodeCount));
+            int[] tmp = labels;
+            labels = next;
+            next = tmp;
+            result.iterations = iteration;
+            if (changed == 0) {
+                result.converged = true;
+                break;
+            }
+        }
+        result.labels = relabel(labels);
+        return result;
+    }
+
+    /**
+     * 把任意标签重新编号为 0..k-1，按标签首次出现的节点编号排序
+     */
+    private static int[] relabel(int[] labels) {
+        int[] mapping = new int[labels.length];
+        Arrays.fill(mapping, -1);
+        int[] result = new int[labels.length];
+        int count = 0;
+        for (int v = 0; v < labels.length; v++) {
+            int label = labels[v];
+            if (mapping[label] < 0) {
+                mapping[label] = count++;
+            }
+            result[v] = mapping[label];
+        }
+        return result;
+    }
+
+    private static int find(AtomicIntegerArray parent, int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = parent.get(p);
+            // 路径减半，失败说明其他线程已修改，不影响正确性
+            if (p != grandparent) {
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = p;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            if (rootA == rootB) {
+                return;
+            }
+            int high = Math.max(rootA, rootB);
+            int low = Math.min(rootA, rootB);
+            if (parent.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 并行执行 body(0 .. n-1)
+     */
+    private static void forEach(ForkJoinPool pool, int n, IntConsumer body) {
+        pool.invoke(new RangeAction(0, n, body));
+    }
+
+    /**
+     * 并行求 f(0 .. n-1) 之和
+     */
+    private static double sum(ForkJoinPool pool, int n, IntToDoubleFunction f) {
+        return pool.invoke(new RangeSum(0, n, f));
+    }
+
+    /**
+     * PageRank 结果
+     */
+    public static class PageRankResult {
+
+        private double[] scores;
+
+        private int iterations;
+
+        private boolean converged;
+
+        public double[] getScores() {
+            return scores;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public boolean isConverged() {
+            return converged;
+        }
+    }
+
+    /**
+     * 标签传播结果
+     */
+    public static class LabelPropagationResult {
+
+        private int[] labels;
+
+        private int iterations;
+
+        private boolean converged;
+
+        /**
+         * 下标为节点编号，值为连续的社区编号
+         */
+        public int[] getLabels() {
+            return labels;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public boolean isConverged() {
+            return converged;
+        }
+    }
+
+    private static class RangeAction extends RecursiveAction {
+
+        private final int start;
+
+        private final int end;
+
+        private final IntConsumer body;
+
+        private RangeAction(int start, int end, IntConsumer body) {
+            this.start = start;
+            this.end = end;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= SEQUENTIAL_THRESHOLD) {
+                for (int i = start; i < end; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new RangeAction(start, middle, body), new RangeAction(middle, end, body));
+        }
+    }
+
+    private static class RangeSum extends RecursiveTask<Double> {
+
+        private final int start;
+
+        private final int end;
+
+        private final IntToDoubleFunction f;
+
+        private RangeSum(int start, int end, IntToDoubleFunction f) {
+            this.start = start;
+            this.end = end;
+            this.f = f;
+        }
+
+        @Override
+        protected Double compute() {
+            if (end - start <= SEQUENTIAL_THRESHOLD) {
+                double total = 0;
+                for (int i = start; i < end; i++) {
+                    total += f.applyAsDouble(i);
+                }
+                return total;
+            }
+            int middle = (start + end) >>> 1;
+            RangeSum right = new RangeSum(middle, end, f);
+            right.fork();
+            double left = new RangeSum(start, middle, f).compute();
+            return left + right.join();
+        }
+    }
+
+    /**
+     * 一轮标签传播，返回标签变化的节点数；叶子任务复用一个邻居标签缓冲
+     */
+    private static class LabelPropagationTask extends RecursiveTask<Integer> {
+
+        private final CsrGraph graph;
+
+        private final int[] labels;
+
+        private final int[] next;
+
+        private final int start;
+
+        private final int end;
+
+        private LabelPropagationTask(CsrGraph graph, int[] labels, int[] next, int start, int end) {
+            this.graph = graph;
+            this.labels = labels;
+            this.next = next;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (end - start > SEQUENTIAL_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                LabelPropagationTask right = new LabelPropagationTask(graph, labels, next, middle, end);
+                right.fork();
+                int left = new LabelPropagationTask(graph, labels, next, start, middle).compute();
+                return left + right.join();
+            }
+            int changed = 0;
+            int[] buffer = new int[16];
+            for (int v = start; v < end; v++) {
+                int degree = graph.outDegree(v) + graph.inDegree(v);
+                if (degree == 0) {
+                    next[v] = labels[v];
+                    continue;
+                }
+                if (buffer.length < degree + 1) {
+                    buffer = new int[Math.max(degree + 1, buffer.length * 2)];
+                }
+                int size = 0;
+                buffer[size++] = labels[v];
+                for (int e = graph.outStart(v); e < graph.outEnd(v); e++) {
+                    buffer[size++] = labels[graph.outTarget(e)];
+                }
+                for (int e = graph.inStart(v); e < graph.inEnd(v); e++) {
+                    buffer[size++] = labels[graph.inTarget(e)];
+                }
+                Arrays.sort(buffer, 0, size);
+                // 排序后按段计数，段按标签升序，严格大于时才替换即得到最小的并列标签
+                int label = buffer[0];
+                int bestCount = 0;
+                for (int i = 0; i < size; ) {
+                    int j = i;
+                    while (j < size && buffer[j] == buffer[i]) {
+                        j++;
+                    }
+                    if (j - i > bestCount) {
+                        label = buffer[i];
+                        bestCount = j - i;
+                    }
+                    i = j;
+                }
+                next[v] = label;
+                if (label != labels[v]) {
+                    changed++;
+                }
+            }
+            return changed;
+        }
+    }
+
+    private static class BetweennessTask extends RecursiveTask<double[]> {
+
+        private final CsrGraph graph;
+
+        private final int[] sources;
+
+        private final int start;
+
+        private final int end;
+
+        private final int leafSize;
+
+        private final long deadlineMillis;
+
+        private BetweennessTask(CsrGraph graph, int[] sources, int start, int end, int leafSize, long deadlineMillis) {
+            this.graph = graph;
+            this.sources = sources;
+            this.start = start;
+            this.end = end;
+            this.leafSize = leafSize;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (end - start <= leafSize) {
+                return computeLeaf();
+            }
+            int middle = (start + end) >>> 1;
+            BetweennessTask right = new BetweennessTask(graph, sources, middle, end, leafSize, deadlineMillis);
+            right.fork();
+            double[] left = new BetweennessTask(graph, sources, start, middle, leafSize, deadlineMillis).compute();
+            double[] rightScores = right.join();
+            for (int i = 0; i < left.length; i++) {
+                left[i] += rightScores[i];
+            }
+            return left;
+        }
+
+        private double[] computeLeaf() {
+            int nodeCount = graph.nodeCount();
+            double[] scores = new double[nodeCount];
+            int[] distance = new int[nodeCount];
+            double[] sigma = new double[nodeCount];
+            double[] delta = new double[nodeCount];
+            // BFS 访问顺序，逆序即为依赖累加顺序
+            int[] order = new int[nodeCount];
+            Arrays.fill(distance, -1);
+            for (int i = start; i < end; i++) {
+                if (deadlineMillis > 0 && System.currentTimeMillis() > deadlineMillis) {
+                    throw new CancellationException("介数中心性计算超过截止时间");
+                }
+                int source = sources[i];
+                int head = 0;
+                int tail = 0;
+                order[tail++] = source;
+                distance[source] = 0;
+                sigma[source] = 1;
+                while (head < tail) {
+                    int v = order[head++];
+                    for (int e = graph.outStart(v); e < graph.outEnd(v); e++) {
+                        int w = graph.outTarget(e);
+                        if (distance[w] < 0) {
+                            distance[w] = distance[v] + 1;
+                            order[tail++] = w;
+                        }
+                        if (distance[w] == distance[v] + 1) {
+                            sigma[w] += sigma[v];
+                        }
+                    }
+                }
+                // 前驱即入边中距离少一的节点，不单独保存前驱列表
+                for (int k = tail - 1; k > 0; k--) {
+                    int w = order[k];
+                    for (int e = graph.inStart(w); e < graph.inEnd(w); e++) {
+                        int v = graph.inTarget(e);
+                        if (distance[v] >= 0 && distance[v] == distance[w] - 1) {
+                            delta[v] += sigma[v] / sigma[w] * (1 + delta[w]);
+                        }
+                    }
+                    scores[w] += delta[w];
+                }
+                // 只重置本轮访问过的节点
+                for (int k = 0; k < tail; k++) {
+                    int v = order[k];
+                    distance[v] = -1;
+                    sigma[v] = 0;
+                    delta[v] = 0;
+                }
+            }
+            return scores;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.scy.mytemplate.graph;
+
+/**
+ * 图谱二进制快照格式（.amsg）
+ * 文件头为 4 字节魔数 AMSG 和 1 字节版本号，之后是若干条记录：1 字节类型 + varint 长度 + 内容。
+ * <ul>
+ *     <li>STRING：UTF-8 字符串，按出现顺序编号进入字典，用于属性键和关系类型</li>
+ *     <li>NODE：varint 节点编号、名称、varint 属性个数、属性（varint 键编号 + 值）</li>
+ *     <li>RELATIONSHIP：varint 类型编号、varint 起始节点编号、varint 结束节点编号、属性</li>
+ *     <li>END：varint 节点数、varint 关系数</li>
+ *     <li>ERROR：UTF-8 错误信息，导出中途失败时代替 END 结束文件</li>
+ * </ul>
+ * 全部节点记录在关系记录之前；字典记录在首次引用前写出，读写都可以单遍流式完成。
+ * 没有 END 记录的文件视为不完整。
+ */
+public final class GraphBinaryFormat {
+
+    public static final String FILE_SUFFIX = "amsg";
+
+    public static final byte[] MAGIC = {'A', 'M', 'S', 'G'};
+
+    public static final byte VERSION = 1;
+
+    public static final byte TAG_STRING = 1;
+
+    public static final byte TAG_NODE = 2;
+
+    public static final byte TAG_RELATIONSHIP = 3;
+
+    public static final byte TAG_END = 4;
+
+    public static final byte TAG_ERROR = 5;
+
+    public static final byte VALUE_NULL = 0;
+
+    public static final byte VALUE_STRING = 1;
+
+    public static final byte VALUE_LONG = 2;
+
+    public static final byte VALUE_DOUBLE = 3;
+
+    public static final byte VALUE_TRUE = 4;
+
+    public static final byte VALUE_FALSE = 5;
+
+    public static final byte VALUE_LIST = 6;
+
+    private GraphBinaryFormat() {
+    }
+}
@@ -0,0 +1,217 @@
+package com.scy.mytemplate.graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 图谱二进制快照读取器，格式见 GraphBinaryFormat
+ * 以拉取方式逐条读取节点和关系记录，字典记录在内部消化；关系端点按已读取的节点编号还原为名称。
+ */
+public class GraphBinaryReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private final List<String> nodeNames = new ArrayList<>();
+
+    private boolean end;
+
+    private String name;
+
+    private String fromNode;
+
+    private String toNode;
+
+    private Map<String, Object> properties;
+
+    public GraphBinaryReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.flip();
+        ensure(GraphBinaryFormat.MAGIC.length + 1);
+        for (byte magic : GraphBinaryFormat.MAGIC) {
+            if (buffer.get() != magic) {
+                throw new IOException("不是图谱二进制快照文件");
+            }
+        }
+        byte version = buffer.get();
+        if (version != GraphBinaryFormat.VERSION) {
+            throw new IOException("不支持的快照版本：" + version);
+        }
+    }
+
+    /**
+     * 读取下一条节点或关系记录
+     *
+     * @return TAG_NODE / TAG_RELATIONSHIP，读取结束返回 -1
+     */
+    public int next() throws IOException {
+        while (!end) {
+            ensure(1);
+            byte tag = buffer.get();
+            int length = (int) readVarint();
+            ensure(length);
+            int recordEnd = buffer.position() + length;
+            switch (tag) {
+                case GraphBinaryFormat.TAG_STRING:
+                    dictionary.add(readUtf8(length));
+                    break;
+                case GraphBinaryFormat.TAG_NODE:
+                    int nodeId = (int) readVarint();
+                    if (nodeId != nodeNames.size()) {
+                        throw new IOException("节点编号不连续：" + nodeId);
+                    }
+                    name = readString();
+                    fromNode = null;
+                    toNode = null;
+                    properties = readProperties();
+                    nodeNames.add(name);
+                    return GraphBinaryFormat.TAG_NODE;
+                case GraphBinaryFormat.TAG_RELATIONSHIP:
+                    name = lookup(dictionary, readVarint());
+                    fromNode = lookup(nodeNames, readVarint());
+                    toNode = lookup(nodeNames, readVarint());
+                    properties = readProperties();
+                    return GraphBinaryFormat.TAG_RELATIONSHIP;
+                case GraphBinaryFormat.TAG_END:
+                    end = true;
+                    break;
+                case GraphBinaryFormat.TAG_ERROR:
+                    throw new IOException("快照导出时中途失败：" + readUtf8(length));
+                default:
+                    // 未知记录按长度跳过，便于向后兼容
+                    break;
+            }
+            buffer.position(recordEnd);
+        }
+        return -1;
+    }
+
+    /**
+     * 节点名称或关系类型
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getFromNode() {
+        return fromNode;
+    }
+
+    public String getToNode() {
+        return toNode;
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Map<String, Object> readProperties() throws IOException {
+        int count = (int) readVarint();
+        Map<String, Object> result = new HashMap<>(Math.max(4, count * 2));
+        for (int i = 0; i < count; i++) {
+            String key = lookup(dictionary, readVarint());
+            result.put(key, readValue());
+        }
+        return result;
+    }
+
+    private Object readValue() throws IOException {
+        byte type = buffer.get();
+        switch (type) {
+            case GraphBinaryFormat.VALUE_NULL:
+                return null;
+            case GraphBinaryFormat.VALUE_STRING:
+                return readString();
+            case GraphBinaryFormat.VALUE_LONG:
+                long zigzag = readVarint();
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            case GraphBinaryFormat.VALUE_DOUBLE:
+                return buffer.getDouble();
+            case GraphBinaryFormat.VALUE_TRUE:
+                return true;
+            case GraphBinaryFormat.VALUE_FALSE:
+                return false;
+            case GraphBinaryFormat.VALUE_LIST:
+                int size = (int) readVarint();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue());
+                }
+                return list;
+            default:
+                throw new IOException("未知的属性值类型：" + type);
+        }
+    }
+
+    private String readString() throws IOException {
+        return readUtf8((int) readVarint());
+    }
+
+    private String readUtf8(int length) {
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * 读取 varint，记录内容已整体在缓冲中，只有读取记录长度时需要补充数据
+     */
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            ensure(1);
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("varint 格式错误");
+    }
+
+    private static String lookup(List<String> values, long id) throws IOException {
+        if (id < 0 || id >= values.size()) {
+            throw new IOException("引用的编号不存在：" + id);
+        }
+        return values.get((int) id);
+    }
+
+    /**
+     * 确保缓冲中至少有 bytes 个未读字节，不足时从通道补充，单条记录超过缓冲大小时扩容
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (bytes > buffer.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(bytes);
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("文件不完整");
+            }
+        }
+        buffer.flip();
+    }
+}
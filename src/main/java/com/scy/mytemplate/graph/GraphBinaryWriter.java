@@ -0,0 +1,274 @@
+package com.scy.mytemplate.graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 图谱二进制快照写入器，格式见 GraphBinaryFormat
+ * 先写全部节点再写关系；关系端点按节点名称换算为节点编号，端点未写出的关系会被跳过。
+ */
+public class GraphBinaryWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * 当前记录内容，写完后整体加上类型和长度前缀
+     */
+    private byte[] record = new byte[256];
+
+    private int recordLength;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private final Map<String, Integer> nodeIds = new HashMap<>();
+
+    private long relationshipCount;
+
+    private boolean closed;
+
+    public GraphBinaryWriter(WritableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.put(GraphBinaryFormat.MAGIC);
+        buffer.put(GraphBinaryFormat.VERSION);
+    }
+
+    /**
+     * 写入节点
+     *
+     * @param name 节点名称
+     * @param properties 节点属性（不含 name）
+     * @return 名称重复时不写入，返回 false
+     */
+    public boolean writeNode(String name, Map<String, Object> properties) throws IOException {
+        if (nodeIds.containsKey(name)) {
+            return false;
+        }
+        int nodeId = nodeIds.size();
+        int[] keyIds = defineKeys(properties);
+        recordLength = 0;
+        putVarint(nodeId);
+        putString(name);
+        putProperties(properties, keyIds);
+        flushRecord(GraphBinaryFormat.TAG_NODE);
+        nodeIds.put(name, nodeId);
+        return true;
+    }
+
+    /**
+     * 写入关系
+     *
+     * @param relationshipType 关系类型
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @param properties 关系属性（不含 fromNode / toNode）
+     * @return 端点未写出时不写入，返回 false
+     */
+    public boolean writeRelationship(String relationshipType, String fromNode, String toNode,
+                                     Map<String, Object> properties) throws IOException {
+        Integer fromId = nodeIds.get(fromNode);
+        Integer toId = nodeIds.get(toNode);
+        if (fromId == null || toId == null) {
+            return false;
+        }
+        int typeId = define(relationshipType);
+        int[] keyIds = defineKeys(properties);
+        recordLength = 0;
+        putVarint(typeId);
+        putVarint(fromId);
+        putVarint(toId);
+        putProperties(properties, keyIds);
+        flushRecord(GraphBinaryFormat.TAG_RELATIONSHIP);
+        relationshipCount++;
+        return true;
+    }
+
+    public long getNodeCount() {
+        return nodeIds.size();
+    }
+
+    public long getRelationshipCount() {
+        return relationshipCount;
+    }
+
+    /**
+     * 写入结束记录并刷出缓冲，不关闭通道
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        recordLength = 0;
+        putVarint(nodeIds.size());
+        putVarint(relationshipCount);
+        flushRecord(GraphBinaryFormat.TAG_END);
+        drain();
+    }
+
+    /**
+     * 以错误记录结束文件并刷出缓冲，不关闭通道；之后不再写入 END 记录，读取时报错而不是当作完整快照
+     *
+     * @param message 错误信息
+     */
+    public void abort(String message) throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        recordLength = 0;
+        putBytes(String.valueOf(message).getBytes(StandardCharsets.UTF_8));
+        flushRecord(GraphBinaryFormat.TAG_ERROR);
+        drain();
+    }
+
+    /**
+     * 为属性键分配字典编号，新键先写出 STRING 记录
+     */
+    private int[] defineKeys(Map<String, Object> properties) throws IOException {
+        if (properties == null) {
+            return new int[0];
+        }
+        int[] keyIds = new int[properties.size()];
+        int i = 0;
+        for (String key : properties.keySet()) {
+            keyIds[i++] = define(key);
+        }
+        return keyIds;
+    }
+
+    private int define(String value) throws IOException {
+        Integer id = dictionary.get(value);
+        if (id != null) {
+            return id;
+        }
+        id = dictionary.size();
+        dictionary.put(value, id);
+        recordLength = 0;
+        putBytes(value.getBytes(StandardCharsets.UTF_8));
+        flushRecord(GraphBinaryFormat.TAG_STRING);
+        return id;
+    }
+
+    private void putProperties(Map<String, Object> properties, int[] keyIds) {
+        if (properties == null) {
+            putVarint(0);
+            return;
+        }
+        putVarint(properties.size());
+        int i = 0;
+        for (Object value : properties.values()) {
+            putVarint(keyIds[i++]);
+            putValue(value);
+        }
+    }
+
+    private void putValue(Object value) {
+        if (value == null) {
+            putByte(GraphBinaryFormat.VALUE_NULL);
+        } else if (value instanceof String) {
+            putByte(GraphBinaryFormat.VALUE_STRING);
+            putString((String) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            putByte(GraphBinaryFormat.VALUE_DOUBLE);
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                putByte((byte) (bits >>> shift));
+            }
+        } else if (value instanceof Number) {
+            putByte(GraphBinaryFormat.VALUE_LONG);
+            long longValue = ((Number) value).longValue();
+            // zigzag 编码，绝对值小的负数也只占少量字节
+            putVarint((longValue << 1) ^ (longValue >> 63));
+        } else if (value instanceof Boolean) {
+            putByte((Boolean) value ? GraphBinaryFormat.VALUE_TRUE : GraphBinaryFormat.VALUE_FALSE);
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            putByte(GraphBinaryFormat.VALUE_LIST);
+            putVarint(collection.size());
+            for (Object element : collection) {
+                putValue(element);
+            }
+        } else {
+            // 当前记录尚未写入缓冲，调用方可以改用 abort 结束文件
+            throw new IllegalArgumentException("不支持的属性值类型：" + value.getClass().getSimpleName());
+        }
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarint(bytes.length);
+        putBytes(bytes);
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            putByte((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        putByte((byte) value);
+    }
+
+    private void putByte(byte value) {
+        ensureRecordCapacity(1);
+        record[recordLength++] = value;
+    }
+
+    private void putBytes(byte[] bytes) {
+        ensureRecordCapacity(bytes.length);
+        System.arraycopy(bytes, 0, record, recordLength, bytes.length);
+        recordLength += bytes.length;
+    }
+
+    private void ensureRecordCapacity(int extra) {
+        if (recordLength + extra > record.length) {
+            record = Arrays.copyOf(record, Math.max(record.length * 2, recordLength + extra));
+        }
+    }
+
+    /**
+     * 把当前记录加上类型和长度前缀写入缓冲，缓冲不足时先刷出到通道
+     */
+    private void flushRecord(byte tag) throws IOException {
+        ensureBuffer(11);
+        buffer.put(tag);
+        int length = recordLength;
+        while ((length & ~0x7F) != 0) {
+            buffer.put((byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        buffer.put((byte) length);
+        int offset = 0;
+        while (offset < recordLength) {
+            ensureBuffer(1);
+            int count = Math.min(buffer.remaining(), recordLength - offset);
+            buffer.put(record, offset, count);
+            offset += count;
+        }
+    }
+
+    private void ensureBuffer(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
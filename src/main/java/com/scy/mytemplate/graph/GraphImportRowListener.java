@@ -0,0 +1,155 @@
+package com.scy.mytemplate.graph;
+
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.event.AnalysisEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 图谱导入行监听器，逐行读取 xlsx / csv，不加载整张表；二进制快照导入也复用其分批和断点跳过逻辑
+ * 每个工作表首行为表头，name 列必填；同时填写了 fromNode 和 toNode 的行为关系行（name 为关系类型），其余为节点行，
+ * 其他非空列作为属性。一次读取只处理一种行，按行序编号，跳过断点之前的行及断点之后已写入的行，其余按批交给 batchConsumer。
+ * 每批覆盖一段连续的行序区间，区间内被跳过的行也算作该批完成。
+ */
+public class GraphImportRowListener extends AnalysisEventListener<Map<Integer, String>> {
+
+    private final boolean relationshipPass;
+
+    private final long skipRows;
+
+    /**
+     * 断点之后已写入成功的行序号，不再提交
+     */
+    private final Set<Long> writtenRows;
+
+    private final int batchSize;
+
+    private final AtomicLong readRows;
+
+    private final BatchConsumer batchConsumer;
+
+    private Map<Integer, String> headMap = new HashMap<>();
+
+    /**
+     * 当前种类行的序号（从 0 开始）
+     */
+    private long rowIndex;
+
+    /**
+     * 当前批次区间的起点，即上一批区间的终点
+     */
+    private long batchStart;
+
+    private List<Map<String, Object>> batch = new ArrayList<>();
+
+    private List<Long> batchRowIndexes = new ArrayList<>();
+
+    public GraphImportRowListener(boolean relationshipPass, long skipRows, Set<Long> writtenRows, int batchSize,
+                                  AtomicLong readRows, BatchConsumer batchConsumer) {
+        this.relationshipPass = relationshipPass;
+        this.skipRows = skipRows;
+        this.writtenRows = writtenRows;
+        this.batchStart = skipRows;
+        this.batchSize = batchSize;
+        this.readRows = readRows;
+        this.batchConsumer = batchConsumer;
+    }
+
+    @Override
+    public void invokeHeadMap(Map<Integer, String> headMap, AnalysisContext context) {
+        // 每个工作表各自的表头
+        this.headMap = new HashMap<>(headMap);
+    }
+
+    @Override
+    public void invoke(Map<Integer, String> data, AnalysisContext context) {
+        Map<String, Object> row = new HashMap<>();
+        for (Map.Entry<Integer, String> entry : data.entrySet()) {
+            String head = headMap.get(entry.getKey());
+            String value = entry.getValue();
+            if (head != null && !head.trim().isEmpty() && value != null && !value.isEmpty()) {
+                row.put(head.trim(), value);
+            }
+        }
+        if (!row.isEmpty()) {
+            // 表格没有记录类型，同时有 fromNode / toNode 列的行视为关系
+            accept(row, isRelationshipRow(row));
+        }
+    }
+
+    /**
+     * 接收一行已解析的数据，二进制快照导入时直接调用
+     *
+     * @param row 列名（属性名）到值的映射
+     * @param isRelationship 是否为关系行；二进制快照按记录类型给出，节点属性中的 fromNode / toNode 不影响判断
+     */
+    public void accept(Map<String, Object> row, boolean isRelationship) {
+        if (isRelationship != relationshipPass) {
+            return;
+        }
+        readRows.incrementAndGet();
+        long index = rowIndex++;
+        if (index < skipRows || writtenRows.contains(index)) {
+            return;
+        }
+        batch.add(row);
+        batchRowIndexes.add(index);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+        // doReadAll 时每个工作表结束都会回调，批次可以跨表累积，读取结束后由调用方 flush
+    }
+
+    /**
+     * 提交剩余的不足一批的行；末尾只有跳过的行时提交空批次，使其区间也能完成
+     */
+    public void flush() {
+        if (batch.isEmpty() && batchStart >= rowIndex) {
+            return;
+        }
+        List<Map<String, Object>> rows = batch;
+        long[] rowIndexes = batchRowIndexes.stream().mapToLong(Long::longValue).toArray();
+        batch = new ArrayList<>();
+        batchRowIndexes = new ArrayList<>();
+        long start = batchStart;
+        batchStart = rowIndex;
+        batchConsumer.accept(rows, rowIndexes, start, rowIndex);
+    }
+
+    /**
+     * 本次读取到的该种类行总数（含跳过的行）
+     *
+     * @return
+     */
+    public long getRowCount() {
+        return rowIndex;
+    }
+
+    /**
+     * 批次处理
+     */
+    @FunctionalInterface
+    public interface BatchConsumer {
+
+        /**
+         * @param rows 本批行
+         * @param rowIndexes 本批各行的行序号
+         * @param start 本批区间起点（含）
+         * @param end 本批区间终点（不含）
+         */
+        void accept(List<Map<String, Object>> rows, long[] rowIndexes, long start, long end);
+    }
+
+    private static boolean isRelationshipRow(Map<String, Object> row) {
+        return row.containsKey("fromNode") && row.containsKey("toNode");
+    }
+}
@@ -0,0 +1,141 @@
+package com.scy.mytemplate.graph;
+
+import com.scy.mytemplate.model.enums.GraphChangeTypeEnum;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 组提交队列中的一条写入
+ * 同一节点的连续写入会合并到一条上：创建后更新合并为创建，更新后更新合并属性（后写覆盖），
+ * 创建或更新后删除合并为删除；被合并写入的 future 随合并后写入的提交结果一起完成。
+ */
+@Getter
+public class GraphMutation {
+
+    /**
+     * 写入类型，仅支持创建/更新/删除节点和创建关系
+     */
+    private final GraphChangeTypeEnum changeType;
+
+    /**
+     * 节点名称或关系类型
+     */
+    private final String name;
+
+    private final String fromNode;
+
+    private final String toNode;
+
+    private final Map<String, Object> properties;
+
+    private final CompletableFuture<String> future = new CompletableFuture<>();
+
+    /**
+     * 合并到创建上的后续更新属性，创建失败（节点已存在）时单独作为更新执行
+     */
+    private Map<String, Object> mergedUpdate;
+
+    /**
+     * 合并进来的更新写入的 future
+     */
+    private final List<CompletableFuture<String>> updateFutures = new ArrayList<>();
+
+    /**
+     * 合并进删除的创建写入的 future，节点原本存在时创建失败，否则成功
+     */
+    private final List<CompletableFuture<String>> createFutures = new ArrayList<>();
+
+    /**
+     * 执行结果：创建是否新建了节点、更新/删除是否匹配到节点、关系端点是否都存在
+     */
+    private boolean matched;
+
+    /**
+     * 执行结果：创建关系时两端点之间是否已有同类型关系
+     */
+    private boolean existed;
+
+    private GraphMutation(GraphChangeTypeEnum changeType, String name, String fromNode, String toNode,
+                          Map<String, Object> properties) {
+        this.changeType = changeType;
+        this.name = name;
+        this.fromNode = fromNode;
+        this.toNode = toNode;
+        this.properties = properties;
+    }
+
+    public static GraphMutation createNode(String name, Map<String, Object> properties) {
+        return new GraphMutation(GraphChangeTypeEnum.NODE_CREATED, name, null, null, new HashMap<>(properties));
+    }
+
+    public static GraphMutation updateNode(String name, Map<String, Object> properties) {
+        return new GraphMutation(GraphChangeTypeEnum.NODE_UPDATED, name, null, null, new HashMap<>(properties));
+    }
+
+    public static GraphMutation deleteNode(String name) {
+        return new GraphMutation(GraphChangeTypeEnum.NODE_DELETED, name, null, null, new HashMap<>());
+    }
+
+    public static GraphMutation createRelationship(String name, String fromNode, String toNode, Map<String, Object> properties) {
+        return new GraphMutation(GraphChangeTypeEnum.RELATIONSHIP_CREATED, name, fromNode, toNode, new HashMap<>(properties));
+    }
+
+    /**
+     * 把同一节点的后续更新合并到本写入（创建或更新）
+     *
+     * @param update 后续更新
+     */
+    public void mergeUpdate(GraphMutation update) {
+        if (changeType == GraphChangeTypeEnum.NODE_CREATED) {
+            if (mergedUpdate == null) {
+                mergedUpdate = new HashMap<>();
+            }
+            mergedUpdate.putAll(update.properties);
+        } else {
+            properties.putAll(update.properties);
+        }
+        updateFutures.add(update.future);
+        updateFutures.addAll(update.updateFutures);
+    }
+
+    /**
+     * 把同一节点之前的创建或更新合并到本写入（删除）
+     *
+     * @param previous 之前的创建或更新
+     */
+    public void mergePrevious(GraphMutation previous) {
+        if (previous.changeType == GraphChangeTypeEnum.NODE_CREATED) {
+            createFutures.add(previous.future);
+        } else {
+            updateFutures.add(previous.future);
+        }
+        updateFutures.addAll(previous.updateFutures);
+    }
+
+    /**
+     * 创建时实际写入的属性（含合并的更新）
+     *
+     * @return
+     */
+    public Map<String, Object> getCreateProperties() {
+        if (mergedUpdate == null) {
+            return properties;
+        }
+        Map<String, Object> merged = new HashMap<>(properties);
+        merged.putAll(mergedUpdate);
+        return merged;
+    }
+
+    public void setMatched(boolean matched) {
+        this.matched = matched;
+    }
+
+    public void setExisted(boolean existed) {
+        this.existed = existed;
+    }
+}
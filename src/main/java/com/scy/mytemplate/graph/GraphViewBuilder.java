@@ -0,0 +1,172 @@
+package com.scy.mytemplate.graph;
+
+import com.scy.mytemplate.model.vo.GraphViewVO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * 图谱可视化快照构建器
+ * 节点按添加顺序编号，关系以整数数组保存；构建时可按度数采样：
+ * 只保留度数最高的 maxNodes 个节点，连向被折叠节点的关系计入保留端点的 hiddenDegrees。
+ */
+public class GraphViewBuilder {
+
+    private final boolean includeProperties;
+
+    private final Map<String, Integer> nameToId = new HashMap<>();
+
+    private final List<String> names = new ArrayList<>();
+
+    private final List<Map<String, Object>> properties = new ArrayList<>();
+
+    private final Map<String, Integer> typeToId = new HashMap<>();
+
+    private final List<String> types = new ArrayList<>();
+
+    private int[] edges = new int[32];
+
+    private int[] edgeTypes = new int[16];
+
+    private int relationshipCount;
+
+    public GraphViewBuilder(boolean includeProperties) {
+        this.includeProperties = includeProperties;
+    }
+
+    /**
+     * 添加节点，重复添加忽略
+     *
+     * @param name 节点名称
+     * @param nodeProperties 节点属性（不含 name）
+     */
+    public void addNode(String name, Map<String, Object> nodeProperties) {
+        if (nameToId.containsKey(name)) {
+            return;
+        }
+        nameToId.put(name, names.size());
+        names.add(name);
+        if (includeProperties) {
+            properties.add(nodeProperties);
+        }
+    }
+
+    /**
+     * 添加有向关系，端点不存在时忽略
+     *
+     * @param relationshipType 关系类型
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     */
+    public void addRelationship(String relationshipType, String fromNode, String toNode) {
+        Integer source = nameToId.get(fromNode);
+        Integer target = nameToId.get(toNode);
+        if (source == null || target == null) {
+            return;
+        }
+        if (relationshipCount == edgeTypes.length) {
+            edges = Arrays.copyOf(edges, relationshipCount * 4);
+            edgeTypes = Arrays.copyOf(edgeTypes, relationshipCount * 2);
+        }
+        Integer typeId = typeToId.get(relationshipType);
+        if (typeId == null) {
+            typeId = types.size();
+            typeToId.put(relationshipType, typeId);
+            types.add(relationshipType);
+        }
+        edges[relationshipCount * 2] = source;
+        edges[relationshipCount * 2 + 1] = target;
+        edgeTypes[relationshipCount] = typeId;
+        relationshipCount++;
+    }
+
+    /**
+     * 构建完整快照
+     *
+     * @return
+     */
+    public GraphViewVO build() {
+        GraphViewVO graphViewVO = newView();
+        graphViewVO.setNames(names);
+        graphViewVO.setProperties(includeProperties ? properties : null);
+        graphViewVO.setTypes(types);
+        graphViewVO.setEdges(Arrays.copyOf(edges, relationshipCount * 2));
+        graphViewVO.setEdgeTypes(Arrays.copyOf(edgeTypes, relationshipCount));
+        return graphViewVO;
+    }
+
+    /**
+     * 构建快照，节点数超过 maxNodes 时按度数采样
+     *
+     * @param maxNodes 最多保留的节点数
+     * @return
+     */
+    public GraphViewVO build(int maxNodes) {
+        int nodeCount = names.size();
+        if (nodeCount <= maxNodes) {
+            return build();
+        }
+        // 1. 计算度数，保留度数最高的节点（度数相同按编号），保留节点按原顺序重新编号
+        int[] degrees = new int[nodeCount];
+        for (int i = 0; i < relationshipCount * 2; i++) {
+            degrees[edges[i]]++;
+        }
+        int[] keptIds = IntStream.range(0, nodeCount).boxed()
+                .sorted(Comparator.comparingInt((Integer id) -> -degrees[id]).thenComparingInt(id -> id))
+                .limit(maxNodes)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        int[] newIds = new int[nodeCount];
+        Arrays.fill(newIds, -1);
+        List<String> keptNames = new ArrayList<>(maxNodes);
+        List<Map<String, Object>> keptProperties = includeProperties ? new ArrayList<>(maxNodes) : null;
+        for (int id : keptIds) {
+            newIds[id] = keptNames.size();
+            keptNames.add(names.get(id));
+            if (includeProperties) {
+                keptProperties.add(properties.get(id));
+            }
+        }
+        // 2. 两端都保留的关系原样保留，其余关系折叠到保留的一端
+        int[] keptEdges = new int[relationshipCount * 2];
+        int[] keptEdgeTypes = new int[relationshipCount];
+        int[] hiddenDegrees = new int[maxNodes];
+        int keptCount = 0;
+        for (int i = 0; i < relationshipCount; i++) {
+            int source = newIds[edges[i * 2]];
+            int target = newIds[edges[i * 2 + 1]];
+            if (source >= 0 && target >= 0) {
+                keptEdges[keptCount * 2] = source;
+                keptEdges[keptCount * 2 + 1] = target;
+                keptEdgeTypes[keptCount] = edgeTypes[i];
+                keptCount++;
+            } else if (source >= 0) {
+                hiddenDegrees[source]++;
+            } else if (target >= 0) {
+                hiddenDegrees[target]++;
+            }
+        }
+        GraphViewVO graphViewVO = newView();
+        graphViewVO.setNames(keptNames);
+        graphViewVO.setProperties(keptProperties);
+        graphViewVO.setTypes(types);
+        graphViewVO.setEdges(Arrays.copyOf(keptEdges, keptCount * 2));
+        graphViewVO.setEdgeTypes(Arrays.copyOf(keptEdgeTypes, keptCount));
+        graphViewVO.setSampled(true);
+        graphViewVO.setHiddenDegrees(hiddenDegrees);
+        return graphViewVO;
+    }
+
+    private GraphViewVO newView() {
+        GraphViewVO graphViewVO = new GraphViewVO();
+        graphViewVO.setTotalNodes(names.size());
+        graphViewVO.setTotalRelationships(relationshipCount);
+        return graphViewVO;
+    }
+}
@@ -0,0 +1,409 @@
+package com.scy.mytemplate.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CsrGraph 之上的增量覆盖层，记录快照构建后新增/删除的节点和关系，遍历时与底层 CSR 合并
+ * 新增节点编号从底层节点数开始顺延，删除的节点只做标记；覆盖层变更累积较多时通过 compact() 合并为新的 CsrGraph。
+ * 非线程安全，由调用方用读写锁保护：修改持有写锁，遍历持有读锁，遍历不复制覆盖层、不分配对象。
+ */
+public final class OverlayGraph {
+
+    /**
+     * 遍历关系的回调
+     */
+    @FunctionalInterface
+    public interface EdgeVisitor {
+        /**
+         * @param neighbor 邻居节点编号
+         * @param type 关系类型编号
+         * @return false 表示停止遍历
+         */
+        boolean visit(int neighbor, int type);
+    }
+
+    private final CsrGraph base;
+
+    private final List<String> addedNames;
+
+    private final Map<String, Integer> addedNameToId;
+
+    private final BitSet deletedNodes;
+
+    private final List<String> addedTypes;
+
+    private final Map<String, Integer> addedTypeToId;
+
+    /**
+     * 新增关系，节点编号 -> [邻居编号, 关系类型编号] 列表，出边和入边各存一份
+     */
+    private final Map<Integer, List<int[]>> addedOut;
+
+    private final Map<Integer, List<int[]>> addedIn;
+
+    /**
+     * 删除的底层关系，节点编号 -> 升序排列的 (邻居编号, 关系类型编号) 键，出边和入边各存一份。
+     * 按端点删除关系时删除全部平行关系，因此只需记录键；数组只整体替换、不原地修改，副本可以共享
+     */
+    private final Map<Integer, long[]> deletedOut;
+
+    private final Map<Integer, long[]> deletedIn;
+
+    private int changeCount;
+
+    public OverlayGraph(CsrGraph base) {
+        this.base = base;
+        this.addedNames = new ArrayList<>();
+        this.addedNameToId = new HashMap<>();
+        this.deletedNodes = new BitSet();
+        this.addedTypes = new ArrayList<>();
+        this.addedTypeToId = new HashMap<>();
+        this.addedOut = new HashMap<>();
+        this.addedIn = new HashMap<>();
+        this.deletedOut = new HashMap<>();
+        this.deletedIn = new HashMap<>();
+    }
+
+    private OverlayGraph(OverlayGraph other) {
+        this.base = other.base;
+        this.addedNames = new ArrayList<>(other.addedNames);
+        this.addedNameToId = new HashMap<>(other.addedNameToId);
+        this.deletedNodes = (BitSet) other.deletedNodes.clone();
+        this.addedTypes = new ArrayList<>(other.addedTypes);
+        this.addedTypeToId = new HashMap<>(other.addedTypeToId);
+        this.addedOut = copyAdded(other.addedOut);
+        this.addedIn = copyAdded(other.addedIn);
+        this.deletedOut = new HashMap<>(other.deletedOut);
+        this.deletedIn = new HashMap<>(other.deletedIn);
+        this.changeCount = other.changeCount;
+    }
+
+    /**
+     * 复制一份副本（用于在锁外合并），代价与覆盖层大小成正比，与底层 CSR 无关
+     *
+     * @return
+     */
+    public OverlayGraph copy() {
+        return new OverlayGraph(this);
+    }
+
+    public CsrGraph base() {
+        return base;
+    }
+
+    /**
+     * 已应用的变更数
+     *
+     * @return
+     */
+    public int changeCount() {
+        return changeCount;
+    }
+
+    /**
+     * 节点编号上限（含已删除节点），用于分配按编号索引的数组
+     *
+     * @return
+     */
+    public int nodeCapacity() {
+        return base.nodeCount() + addedNames.size();
+    }
+
+    /**
+     * 根据节点名称获取编号
+     *
+     * @param name 节点名称
+     * @return 不存在或已删除返回 -1
+     */
+    public int idOf(String name) {
+        Integer id = addedNameToId.get(name);
+        if (id != null) {
+            return id;
+        }
+        int baseId = base.idOf(name);
+        return baseId >= 0 && !deletedNodes.get(baseId) ? baseId : -1;
+    }
+
+    public String nameOf(int id) {
+        return id < base.nodeCount() ? base.nameOf(id) : addedNames.get(id - base.nodeCount());
+    }
+
+    public boolean isDeleted(int id) {
+        return deletedNodes.get(id);
+    }
+
+    /**
+     * 根据关系类型获取编号
+     *
+     * @param relationshipType 关系类型
+     * @return 不存在返回 -1
+     */
+    public int typeIdOf(String relationshipType) {
+        int typeId = base.typeIdOf(relationshipType);
+        if (typeId >= 0) {
+            return typeId;
+        }
+        Integer addedTypeId = addedTypeToId.get(relationshipType);
+        return addedTypeId == null ? -1 : addedTypeId;
+    }
+
+    public String typeOf(int typeId) {
+        return typeId < base.relationshipTypeCount() ? base.typeOf(typeId) : addedTypes.get(typeId - base.relationshipTypeCount());
+    }
+
+    public int relationshipTypeCount() {
+        return base.relationshipTypeCount() + addedTypes.size();
+    }
+
+    /**
+     * 添加节点
+     *
+     * @param name 节点名称
+     * @return 节点已存在返回 false
+     */
+    public boolean addNode(String name) {
+        if (idOf(name) >= 0) {
+            return false;
+        }
+        int id = nodeCapacity();
+        addedNames.add(name);
+        addedNameToId.put(name, id);
+        changeCount++;
+        return true;
+    }
+
+    /**
+     * 删除节点，节点上的关系在遍历时一并跳过
+     *
+     * @param name 节点名称
+     * @return 节点不存在返回 false
+     */
+    public boolean deleteNode(String name) {
+        int id = idOf(name);
+        if (id < 0) {
+            return false;
+        }
+        deletedNodes.set(id);
+        addedNameToId.remove(name);
+        changeCount++;
+        return true;
+    }
+
+    /**
+     * 添加有向关系，端点不存在时忽略
+     *
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @param relationshipType 关系类型
+     * @return 是否添加
+     */
+    public boolean addRelationship(String fromNode, String toNode, String relationshipType) {
+        int source = idOf(fromNode);
+        int target = idOf(toNode);
+        if (source < 0 || target < 0) {
+            return false;
+        }
+        int typeId = typeIdOf(relationshipType);
+        if (typeId < 0) {
+            typeId = relationshipTypeCount();
+            addedTypes.add(relationshipType);
+            addedTypeToId.put(relationshipType, typeId);
+        }
+        addedOut.computeIfAbsent(source, key -> new ArrayList<>()).add(new int[]{target, typeId});
+        addedIn.computeIfAbsent(target, key -> new ArrayList<>()).add(new int[]{source, typeId});
+        changeCount++;
+        return true;
+    }
+
+    /**
+     * 删除两节点之间指定类型的全部有向关系，与按端点删除关系的语句一致
+     *
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @param relationshipType 关系类型
+     * @return 删除的关系数
+     */
+    public int deleteRelationship(String fromNode, String toNode, String relationshipType) {
+        int source = idOf(fromNode);
+        int target = idOf(toNode);
+        int typeId = typeIdOf(relationshipType);
+        if (source < 0 || target < 0 || typeId < 0) {
+            return 0;
+        }
+        int count = 0;
+        while (removeAdded(addedOut, source, target, typeId)) {
+            removeAdded(addedIn, target, source, typeId);
+            count++;
+        }
+        long key = edgeKey(target, typeId);
+        int baseCount = containsKey(deletedOut.get(source), key) ? 0 : countBase(source, target, typeId);
+        if (baseCount > 0) {
+            addKey(deletedOut, source, key);
+            addKey(deletedIn, target, edgeKey(source, typeId));
+            count += baseCount;
+        }
+        if (count > 0) {
+            changeCount++;
+        }
+        return count;
+    }
+
+    /**
+     * 是否存在至少一条指定的有向关系
+     *
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @param relationshipType 关系类型
+     * @return
+     */
+    public boolean hasRelationship(String fromNode, String toNode, String relationshipType) {
+        int source = idOf(fromNode);
+        int target = idOf(toNode);
+        int typeId = typeIdOf(relationshipType);
+        if (source < 0 || target < 0 || typeId < 0) {
+            return false;
+        }
+        boolean[] found = {false};
+        forEachEdge(source, true, (neighbor, type) -> {
+            found[0] = neighbor == target && type == typeId;
+            return !found[0];
+        });
+        return found[0];
+    }
+
+    /**
+     * 遍历节点的出边或入边，跳过已删除的关系和端点
+     *
+     * @param id 节点编号
+     * @param out true 为出边，false 为入边
+     * @param visitor 回调
+     */
+    public void forEachEdge(int id, boolean out, EdgeVisitor visitor) {
+        if (deletedNodes.get(id)) {
+            return;
+        }
+        if (id < base.nodeCount()) {
+            Map<Integer, long[]> deletedEdges = out ? deletedOut : deletedIn;
+            // 删除记录的 (邻居, 类型) 的全部平行关系都跳过
+            long[] deleted = deletedEdges.isEmpty() ? null : deletedEdges.get(id);
+            int end = out ? base.outEnd(id) : base.inEnd(id);
+            for (int e = out ? base.outStart(id) : base.inStart(id); e < end; e++) {
+                int neighbor = out ? base.outTarget(e) : base.inTarget(e);
+                int type = out ? base.outType(e) : base.inType(e);
+                if (deletedNodes.get(neighbor) || containsKey(deleted, edgeKey(neighbor, type))) {
+                    continue;
+                }
+                if (!visitor.visit(neighbor, type)) {
+                    return;
+                }
+            }
+        }
+        List<int[]> added = (out ? addedOut : addedIn).get(id);
+        if (added != null) {
+            for (int[] edge : added) {
+                if (!deletedNodes.get(edge[0]) && !visitor.visit(edge[0], edge[1])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 合并底层 CSR 与覆盖层生成新的 CsrGraph，节点重新连续编号；没有变更时直接返回底层 CSR
+     *
+     * @return
+     */
+    public CsrGraph compact() {
+        if (changeCount == 0) {
+            return base;
+        }
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        int capacity = nodeCapacity();
+        for (int id = 0; id < capacity; id++) {
+            if (!deletedNodes.get(id)) {
+                builder.addNode(nameOf(id));
+            }
+        }
+        for (int id = 0; id < capacity; id++) {
+            String fromNode = nameOf(id);
+            forEachEdge(id, true, (neighbor, type) -> {
+                builder.addRelationship(fromNode, nameOf(neighbor), typeOf(type));
+                return true;
+            });
+        }
+        return builder.build();
+    }
+
+    private int countBase(int source, int target, int typeId) {
+        if (source >= base.nodeCount() || target >= base.nodeCount()) {
+            return 0;
+        }
+        int count = 0;
+        for (int e = base.outStart(source); e < base.outEnd(source); e++) {
+            if (base.outTarget(e) == target && base.outType(e) == typeId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean removeAdded(Map<Integer, List<int[]>> added, int id, int neighbor, int typeId) {
+        List<int[]> edges = added.get(id);
+        if (edges == null) {
+            return false;
+        }
+        for (int i = 0; i < edges.size(); i++) {
+            int[] edge = edges.get(i);
+            if (edge[0] == neighbor && edge[1] == typeId) {
+                edges.remove(i);
+                if (edges.isEmpty()) {
+                    added.remove(id);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long edgeKey(int neighbor, int typeId) {
+        return ((long) neighbor << 32) | (typeId & 0xFFFFFFFFL);
+    }
+
+    private static Map<Integer, List<int[]>> copyAdded(Map<Integer, List<int[]>> added) {
+        Map<Integer, List<int[]>> copy = new HashMap<>(added.size() * 2);
+        for (Map.Entry<Integer, List<int[]>> entry : added.entrySet()) {
+            copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static boolean containsKey(long[] keys, long key) {
+        return keys != null && Arrays.binarySearch(keys, key) >= 0;
+    }
+
+    /**
+     * 按升序插入键，生成新数组替换原数组
+     */
+    private static void addKey(Map<Integer, long[]> deleted, int id, long key) {
+        long[] keys = deleted.get(id);
+        if (keys == null) {
+            deleted.put(id, new long[]{key});
+            return;
+        }
+        int index = Arrays.binarySearch(keys, key);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        long[] next = new long[keys.length + 1];
+        System.arraycopy(keys, 0, next, 0, index);
+        next[index] = key;
+        System.arraycopy(keys, index, next, index + 1, keys.length - index);
+        deleted.put(id, next);
+    }
+}
@@ -0,0 +1,129 @@
+package com.scy.mytemplate.manager;
+
+import cn.hutool.core.util.IdUtil;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.vo.GraphChangeVO;
+import com.scy.mytemplate.model.vo.GraphChangesVO;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 图谱版本号及变更日志
+ * 每个 GraphChangeEvent 使版本号加一并追加一条变更记录；日志只保留最近 graph.change-log-capacity 条，
+ * 客户端请求的版本早于日志中最早的记录时返回需要全量同步。版本号只在进程内递增，重启后 epoch 变化。
+ * 批量更新节点属性只记录汇总信息，客户端无法增量应用，请求范围内有这类变更时同样返回需要全量同步。
+ * 写入方在 GraphWriteLockManager 的节点写锁内提交并发布事件，同一节点的版本号顺序与提交顺序一致。
+ */
+@Component
+public class GraphChangeLogManager {
+
+    private final String epoch = IdUtil.simpleUUID();
+
+    private final int capacity;
+
+    private final ArrayDeque<GraphChangeVO> changes;
+
+    private long version;
+
+    /**
+     * 最近一次无法增量应用的变更的版本号
+     */
+    private long resyncVersion;
+
+    public GraphChangeLogManager(GraphConfig graphConfig) {
+        this.capacity = Math.max(1, graphConfig.getChangeLogCapacity());
+        this.changes = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * 记录图谱变更
+     *
+     * @param event 图谱变更事件
+     */
+    @EventListener
+    public synchronized void onGraphChange(GraphChangeEvent event) {
+        GraphChangeVO graphChangeVO = new GraphChangeVO();
+        graphChangeVO.setVersion(++version);
+        graphChangeVO.setChangeType(event.getChangeType().getValue());
+        graphChangeVO.setName(event.getName());
+        graphChangeVO.setFromNode(event.getFromNode());
+        graphChangeVO.setToNode(event.getToNode());
+        graphChangeVO.setProperties(event.getProperties());
+        graphChangeVO.setTimestamp(event.getTimestamp());
+        if (changes.size() == capacity) {
+            changes.pollFirst();
+        }
+        changes.addLast(graphChangeVO);
+        if (event.getChangeType().isResyncRequired()) {
+            resyncVersion = version;
+        }
+    }
+
+    /**
+     * 当前图谱版本号
+     *
+     * @return
+     */
+    public synchronized long currentVersion() {
+        return version;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 根据当前版本号生成强 ETag，需在查询数据库之前获取：
+     * 查询期间发生的写入只会使下次请求的 ETag 变化，不会让客户端缓存过期数据
+     *
+     * @param resource 资源标识（包含影响结果的参数）
+     * @return
+     */
+    public String currentETag(String resource) {
+        return "\"" + epoch + "-" + currentVersion() + "-" + resource + "\"";
+    }
+
+    /**
+     * 获取指定版本之后的变更
+     *
+     * @param since 客户端已同步到的版本号
+     * @param clientEpoch 客户端记录的 epoch，为空时不校验
+     * @param limit 最多返回的变更数
+     * @return
+     */
+    public synchronized GraphChangesVO getChanges(long since, String clientEpoch, int limit) {
+        if (since < 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "版本号不能为负数");
+        }
+        GraphChangesVO graphChangesVO = new GraphChangesVO();
+        graphChangesVO.setEpoch(epoch);
+        graphChangesVO.setVersion(version);
+        List<GraphChangeVO> result = new ArrayList<>();
+        graphChangesVO.setChanges(result);
+        // 日志中最早记录之前的版本、以及跨过批量更新的版本已无法增量同步
+        long oldestVersion = changes.isEmpty() ? version + 1 : changes.peekFirst().getVersion();
+        boolean epochChanged = clientEpoch != null && !clientEpoch.isEmpty() && !clientEpoch.equals(epoch);
+        if (epochChanged || since > version || since < oldestVersion - 1 || since < resyncVersion) {
+            graphChangesVO.setResyncRequired(true);
+            return graphChangesVO;
+        }
+        // 版本号连续，直接跳过 since 之前的记录
+        Iterator<GraphChangeVO> iterator = changes.iterator();
+        for (long skip = since - oldestVersion + 1; skip > 0; skip--) {
+            iterator.next();
+        }
+        while (iterator.hasNext() && result.size() < limit) {
+            result.add(iterator.next());
+        }
+        graphChangesVO.setHasMore(iterator.hasNext());
+        return graphChangesVO;
+    }
+}
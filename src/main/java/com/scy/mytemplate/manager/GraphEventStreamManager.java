@@ -0,0 +1,365 @@
+package com.scy.mytemplate.manager;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.vo.GraphChangeVO;
+import com.scy.mytemplate.model.vo.GraphChangesVO;
+import com.scy.mytemplate.model.vo.GraphStreamStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 图谱变更推送（SSE）
+ * 后台线程按时间窗口从变更日志取出新变更，合并为一批后放入每个订阅者的有界缓冲，由发送线程池逐个订阅者发送；
+ * 缓冲已满的慢订阅者直接断开，客户端可带 Last-Event-ID 重连，从变更日志补发断开期间的变更。
+ * 事件：ready（订阅成功，data 为当前版本号）、changes（data 为变更列表）、
+ * resync（需要全量同步，data 为当前版本号；变更超出日志容量或出现批量更新节点属性时发送，不推送批量更新本身）；
+ * 事件 id 为 "epoch:版本号"。
+ */
+@Component
+@Slf4j
+public class GraphEventStreamManager {
+
+    private static final String EVENT_READY = "ready";
+
+    private static final String EVENT_CHANGES = "changes";
+
+    private static final String EVENT_RESYNC = "resync";
+
+    @Resource
+    private GraphConfig graphConfig;
+
+    @Resource
+    private GraphChangeLogManager graphChangeLogManager;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 保护 cursor 以及订阅时的补发，保证订阅者收到的变更不重不漏
+     */
+    private final Object lock = new Object();
+
+    /**
+     * 已分发到订阅者缓冲的版本号
+     */
+    private long cursor;
+
+    private ThreadPoolExecutor sendExecutor;
+
+    private Thread flushThread;
+
+    private volatile boolean running;
+
+    private final LongAdder sentBatchCount = new LongAdder();
+
+    private final LongAdder droppedSubscriberCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        cursor = graphChangeLogManager.currentVersion();
+        int threads = Math.max(1, graphConfig.getStreamSendThreads());
+        // 每个订阅者同时最多有一个发送任务，队列长度不会超过订阅数
+        sendExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                ThreadFactoryBuilder.create().setNamePrefix("graph-stream-sender-").setDaemon(true).build());
+        running = true;
+        flushThread = new Thread(this::flushLoop, "graph-stream-flush");
+        flushThread.setDaemon(true);
+        flushThread.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        flushThread.interrupt();
+        sendExecutor.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * 订阅图谱变更
+     *
+     * @param lastEventId 重连时浏览器带上的最后一个事件 id，为空表示新订阅
+     * @return
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= graphConfig.getStreamMaxSubscribers()) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "订阅数已达上限");
+        }
+        SseEmitter emitter = new SseEmitter(graphConfig.getStreamTimeoutMillis());
+        Subscriber subscriber = new Subscriber(emitter, Math.max(1, graphConfig.getStreamBufferBatches()));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (lock) {
+            List<StreamMessage> backlog = lastEventId == null || lastEventId.isEmpty() ? null : loadBacklog(lastEventId);
+            if (backlog == null || backlog.isEmpty()) {
+                subscriber.buffer.offer(new StreamMessage(EVENT_READY, eventId(cursor), cursor));
+            } else if (backlog.size() > subscriber.capacity) {
+                subscriber.buffer.offer(new StreamMessage(EVENT_RESYNC, eventId(cursor), cursor));
+            } else {
+                subscriber.buffer.addAll(backlog);
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * 获取推送统计
+     *
+     * @return
+     */
+    public GraphStreamStatsVO getStats() {
+        GraphStreamStatsVO graphStreamStatsVO = new GraphStreamStatsVO();
+        graphStreamStatsVO.setSubscriberCount(subscribers.size());
+        graphStreamStatsVO.setMaxSubscribers(graphConfig.getStreamMaxSubscribers());
+        synchronized (lock) {
+            graphStreamStatsVO.setVersion(cursor);
+        }
+        graphStreamStatsVO.setSentBatchCount(sentBatchCount.sum());
+        graphStreamStatsVO.setDroppedSubscriberCount(droppedSubscriberCount.sum());
+        return graphStreamStatsVO;
+    }
+
+    /**
+     * 按时间窗口分发新变更，空闲超过心跳间隔时发送心跳以便及时发现断开的连接
+     */
+    private void flushLoop() {
+        long lastSentAt = System.currentTimeMillis();
+        while (running) {
+            try {
+                Thread.sleep(Math.max(1, graphConfig.getStreamBatchMillis()));
+                // 推进 cursor 与分发在同一把锁内完成，否则期间加入的订阅者会从补发和分发中各收到一次同一批变更
+                synchronized (lock) {
+                    List<StreamMessage> messages = collect();
+                    long now = System.currentTimeMillis();
+                    if (messages.isEmpty() && now - lastSentAt >= graphConfig.getStreamHeartbeatMillis()) {
+                        messages = Collections.singletonList(StreamMessage.HEARTBEAT);
+                    }
+                    if (!messages.isEmpty()) {
+                        lastSentAt = now;
+                        dispatch(messages);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("分发图谱变更失败", e);
+            }
+        }
+    }
+
+    /**
+     * 从变更日志取出 cursor 之后的变更，每批最多 graph.max-page-size 条
+     */
+    private List<StreamMessage> collect() {
+        List<StreamMessage> messages = new ArrayList<>();
+        while (true) {
+            GraphChangesVO graphChangesVO = graphChangeLogManager.getChanges(cursor, null, graphConfig.getMaxPageSize());
+            if (graphChangesVO.isResyncRequired()) {
+                // 两次分发之间的变更超过了日志容量，或其中有无法增量应用的批量更新
+                cursor = graphChangesVO.getVersion();
+                messages.clear();
+                messages.add(new StreamMessage(EVENT_RESYNC, eventId(cursor), cursor));
+                return messages;
+            }
+            List<GraphChangeVO> changes = graphChangesVO.getChanges();
+            if (changes.isEmpty()) {
+                return messages;
+            }
+            cursor = changes.get(changes.size() - 1).getVersion();
+            messages.add(new StreamMessage(EVENT_CHANGES, eventId(cursor), changes));
+            if (!graphChangesVO.isHasMore()) {
+                return messages;
+            }
+        }
+    }
+
+    /**
+     * 补发重连前遗漏的变更（截止到 cursor，之后的变更由分发线程推送）
+     *
+     * @return 无法解析的 id 返回 null；无法增量补发时只包含一条 resync
+     */
+    private List<StreamMessage> loadBacklog(String lastEventId) {
+        int separator = lastEventId.lastIndexOf(':');
+        long since;
+        try {
+            since = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        String epoch = separator < 0 ? "" : lastEventId.substring(0, separator);
+        List<StreamMessage> backlog = new ArrayList<>();
+        if (!graphChangeLogManager.getEpoch().equals(epoch) || since > cursor) {
+            backlog.add(new StreamMessage(EVENT_RESYNC, eventId(cursor), cursor));
+            return backlog;
+        }
+        while (since < cursor) {
+            GraphChangesVO graphChangesVO = graphChangeLogManager.getChanges(since, epoch, graphConfig.getMaxPageSize());
+            if (graphChangesVO.isResyncRequired()) {
+                backlog.clear();
+                backlog.add(new StreamMessage(EVENT_RESYNC, eventId(cursor), cursor));
+                return backlog;
+            }
+            List<GraphChangeVO> changes = new ArrayList<>();
+            for (GraphChangeVO change : graphChangesVO.getChanges()) {
+                if (change.getVersion() <= cursor) {
+                    changes.add(change);
+                }
+            }
+            if (changes.isEmpty()) {
+                break;
+            }
+            since = changes.get(changes.size() - 1).getVersion();
+            backlog.add(new StreamMessage(EVENT_CHANGES, eventId(since), changes));
+        }
+        return backlog;
+    }
+
+    /**
+     * 放入各订阅者缓冲，缓冲放不下的订阅者断开
+     */
+    private void dispatch(List<StreamMessage> messages) {
+        for (Subscriber subscriber : subscribers) {
+            boolean accepted = true;
+            for (StreamMessage message : messages) {
+                if (!subscriber.buffer.offer(message)) {
+                    accepted = false;
+                    break;
+                }
+            }
+            if (accepted) {
+                schedule(subscriber);
+            } else {
+                log.warn("订阅者消费过慢，断开连接，缓冲批次数: {}", subscriber.capacity);
+                drop(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.closed.get() || !subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> send(subscriber));
+        } catch (Exception e) {
+            subscriber.scheduled.set(false);
+            drop(subscriber);
+        }
+    }
+
+    /**
+     * 发送订阅者缓冲中的全部消息，同一订阅者同一时刻只有一个发送任务
+     */
+    private void send(Subscriber subscriber) {
+        try {
+            StreamMessage message;
+            while (!subscriber.closed.get() && (message = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(message.toEvent());
+                if (message != StreamMessage.HEARTBEAT) {
+                    sentBatchCount.increment();
+                }
+            }
+        } catch (Exception e) {
+            log.info("推送图谱变更失败，断开订阅: {}", e.getMessage());
+            drop(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (!subscriber.buffer.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.remove(subscriber);
+        subscriber.buffer.clear();
+        droppedSubscriberCount.increment();
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception e) {
+            log.debug("关闭订阅失败", e);
+        }
+    }
+
+    private String eventId(long version) {
+        return graphChangeLogManager.getEpoch() + ":" + version;
+    }
+
+    private static class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final int capacity;
+
+        private final BlockingQueue<StreamMessage> buffer;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.capacity = capacity;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    /**
+     * 待发送的消息，发送时再构造 SSE 事件（事件构造器不能在多个连接间共享）
+     */
+    private static class StreamMessage {
+
+        private static final StreamMessage HEARTBEAT = new StreamMessage(null, null, null);
+
+        private final String name;
+
+        private final String id;
+
+        private final Object data;
+
+        private StreamMessage(String name, String id, Object data) {
+            this.name = name;
+            this.id = id;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).id(id).data(data instanceof Long ? Map.of("version", data) : data);
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.graph.GraphMutation;
+import com.scy.mytemplate.model.enums.GraphChangeTypeEnum;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import com.scy.mytemplate.model.vo.GroupCommitStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.exceptions.ClientException;
+import org.neo4j.driver.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.exceptions.SessionExpiredException;
+import org.neo4j.driver.exceptions.TransientException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 写入组提交管理：单条写入进入有界队列，后台线程按时间窗口或条数取出一批，
+ * 合并同一节点的连续写入后在一个事务中按原顺序执行，提交成功后再完成各写入的 future。
+ * 事务失败时拆分重试，只让出错的写入失败。
+ */
+@Component
+@Slf4j
+public class GraphGroupCommitManager {
+
+    @Resource
+    private Driver driver;
+
+    @Resource
+    private GraphConfig graphConfig;
+
+    @Resource
+    private GraphStatementManager graphStatementManager;
+
+    @Resource
+    private NodeCacheManager nodeCacheManager;
+
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
+    @Resource
+    private GraphWriteLockManager graphWriteLockManager;
+
+    private BlockingQueue<GraphMutation> queue;
+
+    private Thread flushThread;
+
+    private volatile boolean running;
+
+    private final LongAdder submittedCount = new LongAdder();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private final LongAdder commitCount = new LongAdder();
+
+    private final LongAdder failedCommitCount = new LongAdder();
+
+    private final LongAdder committedOperationCount = new LongAdder();
+
+    /**
+     * 关闭时等待后台线程提交剩余写入的时间
+     */
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+
+    private static final String CONSTRAINT_VALIDATION_FAILED = "Neo.ClientError.Schema.ConstraintValidationFailed";
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, graphConfig.getGroupCommitQueueCapacity()));
+        if (!graphConfig.isGroupCommitEnabled()) {
+            return;
+        }
+        running = true;
+        flushThread = new Thread(this::flushLoop, "graph-group-commit");
+        flushThread.setDaemon(true);
+        flushThread.start();
+    }
+
+    /**
+     * 停止接收写入，等待后台线程提交已在队列中的写入，仍未提交的写入以失败结束
+     */
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        if (flushThread != null) {
+            flushThread.interrupt();
+            try {
+                flushThread.join(SHUTDOWN_WAIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<GraphMutation> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        BusinessException exception = new BusinessException(ErrorCode.OPERATION_ERROR, "服务正在关闭，写入未执行");
+        for (GraphMutation mutation : remaining) {
+            failAll(mutation, exception);
+        }
+        if (!remaining.isEmpty()) {
+            log.warn("组提交关闭时仍有 {} 条写入未执行", remaining.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * 提交一条写入，队列满时拒绝
+     *
+     * @param mutation 写入
+     * @return 写入随事务提交后完成的 future，完成值为节点名称或关系类型
+     */
+    public CompletableFuture<String> submit(GraphMutation mutation) {
+        if (!running) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "写入组提交未开启");
+        }
+        if (!queue.offer(mutation)) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "写入队列已满，请稍后重试");
+        }
+        submittedCount.increment();
+        return mutation.getFuture();
+    }
+
+    /**
+     * 获取组提交统计
+     *
+     * @return
+     */
+    public GroupCommitStatsVO getStats() {
+        GroupCommitStatsVO groupCommitStatsVO = new GroupCommitStatsVO();
+        groupCommitStatsVO.setEnabled(running);
+        groupCommitStatsVO.setQueueSize(queue.size());
+        groupCommitStatsVO.setQueueCapacity(Math.max(1, graphConfig.getGroupCommitQueueCapacity()));
+        groupCommitStatsVO.setSubmittedCount(submittedCount.sum());
+        groupCommitStatsVO.setCoalescedCount(coalescedCount.sum());
+        long commits = commitCount.sum();
+        groupCommitStatsVO.setCommitCount(commits);
+        groupCommitStatsVO.setFailedCommitCount(failedCommitCount.sum());
+        groupCommitStatsVO.setAverageBatchSize(commits == 0 ? 0 : (double) committedOperationCount.sum() / commits);
+        return groupCommitStatsVO;
+    }
+
+    /**
+     * 等待窗口内第一条写入，再在时间窗口内继续收集，直到达到条数上限或窗口结束
+     */
+    private void flushLoop() {
+        int maxOperations = Math.max(1, graphConfig.getGroupCommitMaxOperations());
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, graphConfig.getGroupCommitIntervalMillis()));
+        while (running || !queue.isEmpty()) {
+            List<GraphMutation> batch = new ArrayList<>();
+            try {
+                GraphMutation first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + intervalNanos;
+                while (batch.size() < maxOperations) {
+                    queue.drainTo(batch, maxOperations - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxOperations || remaining <= 0) {
+                        break;
+                    }
+                    GraphMutation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // 关闭时提交已取出的写入，剩余写入在下一轮循环中继续提交
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    flush(batch);
+                } catch (Throwable e) {
+                    // 任何异常都不能结束后台线程，否则之后的写入永远得不到结果；本批尚未完成的写入以失败结束
+                    log.error("组提交处理失败，写入数: {}", batch.size(), e);
+                    BusinessException exception = new BusinessException(ErrorCode.SYSTEM_ERROR, "写入失败，系统错误");
+                    for (GraphMutation mutation : batch) {
+                        failAll(mutation, exception);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 合并并在一个事务中执行一批写入；提交与事件发布在涉及节点的写锁内完成，与直接写入的事件顺序保持一致
+     *
+     * @param batch 按提交顺序排列的写入
+     */
+    private void flush(List<GraphMutation> batch) {
+        List<GraphMutation> operations = coalesce(batch);
+        coalescedCount.add(batch.size() - operations.size());
+        Set<String> names = new HashSet<>();
+        for (GraphMutation operation : operations) {
+            if (operation.getChangeType() == GraphChangeTypeEnum.RELATIONSHIP_CREATED) {
+                names.add(operation.getFromNode());
+                names.add(operation.getToNode());
+            } else {
+                names.add(operation.getName());
+            }
+        }
+        graphWriteLockManager.withLocks(names, () -> {
+            commit(operations);
+            return null;
+        });
+    }
+
+    /**
+     * 在一个事务中执行一组写入。死锁等临时错误由驱动按指数退避重试；
+     * 其他错误（如并发创建同名节点违反唯一约束）时把写入按顺序对半拆开分别提交，直到定位出失败的单条写入，其余写入不受影响
+     *
+     * @param operations 合并后按顺序排列的写入
+     */
+    private void commit(List<GraphMutation> operations) {
+        try (Session session = driver.session()) {
+            session.writeTransaction(tx -> {
+                // 重试时重新执行，先清除上一次的结果
+                operations.forEach(operation -> {
+                    operation.setMatched(false);
+                    operation.setExisted(false);
+                });
+                // 连续的同类写入合为一条 UNWIND 语句；同一节点或同一对端点在一段内重复出现时另起一段，
+                // 保证执行顺序，后一段能看到前一段新建的关系
+                int from = 0;
+                while (from < operations.size()) {
+                    int to = from + 1;
+                    Set<List<String>> keys = new HashSet<>();
+                    keys.add(segmentKey(operations.get(from)));
+                    while (to < operations.size() && sameSegment(operations.get(from), operations.get(to), keys)) {
+                        to++;
+                    }
+                    execute(tx, operations.subList(from, to));
+                    from = to;
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            failedCommitCount.increment();
+            if (e instanceof ServiceUnavailableException || e instanceof SessionExpiredException
+                    || e instanceof TransientException) {
+                // 重试后仍是连接或临时错误，拆分也无法成功，整组失败
+                log.error("组提交失败，写入数: {}", operations.size(), e);
+                BusinessException exception = new BusinessException(ErrorCode.SYSTEM_ERROR, "写入失败，数据库暂时不可用");
+                operations.forEach(operation -> failAll(operation, exception));
+                return;
+            }
+            if (operations.size() > 1) {
+                log.warn("组提交失败，拆分后重新提交，写入数: {}", operations.size(), e);
+                int middle = operations.size() / 2;
+                commit(new ArrayList<>(operations.subList(0, middle)));
+                commit(new ArrayList<>(operations.subList(middle, operations.size())));
+                return;
+            }
+            GraphMutation operation = operations.get(0);
+            log.error("组提交写入失败，写入: {} {}", operation.getChangeType().getValue(), operation.getName(), e);
+            failAll(operation, toCommitException(operation, e));
+            return;
+        }
+        commitCount.increment();
+        committedOperationCount.add(operations.size());
+        for (GraphMutation operation : operations) {
+            try {
+                complete(operation);
+            } catch (RuntimeException e) {
+                // 写入已提交，事件监听等后续处理失败；尚未完成的 future 以失败结束，不影响其他写入
+                log.error("组提交完成处理失败，写入: {}", operation.getName(), e);
+                failAll(operation, new BusinessException(ErrorCode.SYSTEM_ERROR, "写入已提交，后续处理失败"));
+            }
+        }
+    }
+
+    /**
+     * 单条写入失败时的业务异常：违反唯一约束（并发创建同名节点）视为节点已存在
+     *
+     * @param operation 写入
+     * @param e 数据库异常
+     * @return
+     */
+    private BusinessException toCommitException(GraphMutation operation, Exception e) {
+        if (e instanceof ClientException && CONSTRAINT_VALIDATION_FAILED.equals(((ClientException) e).code())
+                && operation.getChangeType() == GraphChangeTypeEnum.NODE_CREATED) {
+            return new BusinessException(ErrorCode.PARAMS_ERROR, "节点已存在");
+        }
+        return new BusinessException(ErrorCode.SYSTEM_ERROR, "写入失败，数据库错误");
+    }
+
+    /**
+     * 合并同一节点的连续写入；关系写入会固定其两个端点，之后的节点写入不再向前合并
+     *
+     * @param batch 按提交顺序排列的写入
+     * @return 合并后的写入
+     */
+    private List<GraphMutation> coalesce(List<GraphMutation> batch) {
+        List<GraphMutation> operations = new ArrayList<>();
+        Set<GraphMutation> removed = new HashSet<>();
+        Map<String, GraphMutation> lastNodeOperations = new HashMap<>();
+        for (GraphMutation mutation : batch) {
+            GraphChangeTypeEnum changeType = mutation.getChangeType();
+            if (changeType == GraphChangeTypeEnum.RELATIONSHIP_CREATED) {
+                lastNodeOperations.remove(mutation.getFromNode());
+                lastNodeOperations.remove(mutation.getToNode());
+                operations.add(mutation);
+                continue;
+            }
+            GraphMutation previous = lastNodeOperations.get(mutation.getName());
+            boolean previousWritable = previous != null && previous.getChangeType() != GraphChangeTypeEnum.NODE_DELETED;
+            if (changeType == GraphChangeTypeEnum.NODE_UPDATED && previousWritable) {
+                previous.mergeUpdate(mutation);
+                continue;
+            }
+            if (changeType == GraphChangeTypeEnum.NODE_DELETED && previousWritable) {
+                mutation.mergePrevious(previous);
+                removed.add(previous);
+            }
+            operations.add(mutation);
+            lastNodeOperations.put(mutation.getName(), mutation);
+        }
+        if (!removed.isEmpty()) {
+            operations.removeIf(removed::contains);
+        }
+        return operations;
+    }
+
+    private boolean sameSegment(GraphMutation first, GraphMutation next, Set<List<String>> keys) {
+        if (first.getChangeType() != next.getChangeType()) {
+            return false;
+        }
+        if (first.getChangeType() == GraphChangeTypeEnum.RELATIONSHIP_CREATED && !first.getName().equals(next.getName())) {
+            return false;
+        }
+        return keys.add(segmentKey(next));
+    }
+
+    private List<String> segmentKey(GraphMutation mutation) {
+        if (mutation.getChangeType() == GraphChangeTypeEnum.RELATIONSHIP_CREATED) {
+            return List.of(mutation.getFromNode(), mutation.getToNode());
+        }
+        return List.of(mutation.getName());
+    }
+
+    /**
+     * 执行一段同类写入，结果记录到各写入的 matched 上
+     *
+     * @param tx 事务
+     * @param segment 同类写入
+     */
+    private void execute(Transaction tx, List<GraphMutation> segment) {
+        GraphChangeTypeEnum changeType = segment.get(0).getChangeType();
+        Map<String, GraphMutation> byName = new HashMap<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < segment.size(); i++) {
+            GraphMutation mutation = segment.get(i);
+            byName.put(mutation.getName(), mutation);
+            Map<String, Object> row = new HashMap<>();
+            row.put("index", i);
+            row.put("name", mutation.getName());
+            row.put("fromNode", mutation.getFromNode());
+            row.put("toNode", mutation.getToNode());
+            row.put("properties", changeType == GraphChangeTypeEnum.NODE_CREATED
+                    ? mutation.getCreateProperties() : mutation.getProperties());
+            rows.add(row);
+        }
+        Result result;
+        switch (changeType) {
+            case NODE_CREATED:
+                result = graphStatementManager.run(tx, GraphStatementEnum.CREATE_NODES, Map.of("rows", rows));
+                List<Map<String, Object>> updateRows = new ArrayList<>();
+                while (result.hasNext()) {
+                    Record record = result.next();
+                    GraphMutation mutation = byName.get(record.get("name").asString());
+                    mutation.setMatched(record.get("created").asBoolean());
+                    // 节点已存在时创建失败，合并进来的更新仍作用于已有节点
+                    if (!mutation.isMatched() && mutation.getMergedUpdate() != null) {
+                        updateRows.add(Map.of("name", mutation.getName(), "properties", mutation.getMergedUpdate()));
+                    }
+                }
+                if (!updateRows.isEmpty()) {
+                    graphStatementManager.run(tx, GraphStatementEnum.UPDATE_NODES, Map.of("rows", updateRows)).consume();
+                }
+                break;
+            case NODE_UPDATED:
+                result = graphStatementManager.run(tx, GraphStatementEnum.UPDATE_NODES, Map.of("rows", rows));
+                while (result.hasNext()) {
+                    byName.get(result.next().get("name").asString()).setMatched(true);
+                }
+                break;
+            case NODE_DELETED:
+                result = graphStatementManager.run(tx, GraphStatementEnum.DELETE_NODES, Map.of("names", new ArrayList<>(byName.keySet())));
+                while (result.hasNext()) {
+                    byName.get(result.next().get("name").asString()).setMatched(true);
+                }
+                break;
+            default:
+                result = graphStatementManager.run(tx, GraphStatementEnum.CREATE_RELATIONSHIPS, segment.get(0).getName(), Map.of("rows", rows));
+                while (result.hasNext()) {
+                    Record record = result.next();
+                    GraphMutation mutation = segment.get(record.get("index").asInt());
+                    mutation.setMatched(record.get("fromExists").asBoolean() && record.get("toExists").asBoolean());
+                    mutation.setExisted(record.get("existed").asBoolean());
+                }
+                break;
+        }
+    }
+
+    /**
+     * 事务提交后按执行结果完成 future，并清除缓存、发布变更事件
+     *
+     * @param operation 合并后的写入
+     */
+    private void complete(GraphMutation operation) {
+        String name = operation.getName();
+        boolean matched = operation.isMatched();
+        switch (operation.getChangeType()) {
+            case NODE_CREATED:
+                nodeCacheManager.invalidate(name);
+                if (matched) {
+                    operation.getFuture().complete(name);
+                    eventPublisher.publishEvent(GraphChangeEvent.nodeCreated(this, name, operation.getCreateProperties()));
+                } else {
+                    operation.getFuture().completeExceptionally(new BusinessException(ErrorCode.PARAMS_ERROR, "节点已存在"));
+                    if (operation.getMergedUpdate() != null) {
+                        eventPublisher.publishEvent(GraphChangeEvent.nodeUpdated(this, name, operation.getMergedUpdate()));
+                    }
+                }
+                operation.getUpdateFutures().forEach(future -> future.complete(name));
+                break;
+            case NODE_UPDATED:
+                nodeCacheManager.invalidate(name);
+                if (matched) {
+                    operation.getFuture().complete(name);
+                    operation.getUpdateFutures().forEach(future -> future.complete(name));
+                    eventPublisher.publishEvent(GraphChangeEvent.nodeUpdated(this, name, operation.getProperties()));
+                } else {
+                    failAll(operation, new BusinessException(ErrorCode.PARAMS_ERROR, "节点不存在"));
+                }
+                break;
+            case NODE_DELETED:
+                nodeCacheManager.invalidate(name);
+                if (!operation.getCreateFutures().isEmpty()) {
+                    // 删除前有创建：节点原本存在则创建失败，否则创建和删除相互抵消，都视为成功
+                    operation.getCreateFutures().forEach(future -> {
+                        if (matched) {
+                            future.completeExceptionally(new BusinessException(ErrorCode.PARAMS_ERROR, "节点已存在"));
+                        } else {
+                            future.complete(name);
+                        }
+                    });
+                    operation.getUpdateFutures().forEach(future -> future.complete(name));
+                    operation.getFuture().complete(name);
+                } else if (matched) {
+                    operation.getUpdateFutures().forEach(future -> future.complete(name));
+                    operation.getFuture().complete(name);
+                } else {
+                    failAll(operation, new BusinessException(ErrorCode.PARAMS_ERROR, "节点不存在"));
+                }
+                if (matched) {
+                    eventPublisher.publishEvent(GraphChangeEvent.nodeDeleted(this, name));
+                }
+                break;
+            default:
+                if (matched && operation.isExisted()) {
+                    operation.getFuture().completeExceptionally(new BusinessException(ErrorCode.PARAMS_ERROR, "关系已存在，无法创建"));
+                } else if (matched) {
+                    operation.getFuture().complete(name);
+                    eventPublisher.publishEvent(GraphChangeEvent.relationshipCreated(this, name,
+                            operation.getFromNode(), operation.getToNode(), operation.getProperties()));
+                } else {
+                    operation.getFuture().completeExceptionally(new BusinessException(ErrorCode.PARAMS_ERROR, "From OR To 节点不存在"));
+                }
+                break;
+        }
+    }
+
+    private void failAll(GraphMutation operation, BusinessException exception) {
+        operation.getFuture().completeExceptionally(exception);
+        operation.getUpdateFutures().forEach(future -> future.completeExceptionally(exception));
+        operation.getCreateFutures().forEach(future -> future.completeExceptionally(exception));
+    }
+}
@@ -0,0 +1,111 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import com.scy.mytemplate.model.vo.IndexStatusVO;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 图谱 Schema 管理：启动时幂等创建 :AMSNet(name) 唯一约束。
+ * 按端点查找关系的语句都从两端节点的名称唯一约束索引出发，不需要关系属性索引
+ */
+@Component
+@Slf4j
+public class GraphSchemaManager implements CommandLineRunner {
+
+    @Resource
+    private Driver driver;
+
+    @Resource
+    private GraphConfig graphConfig;
+
+    @Resource
+    private GraphStatementManager graphStatementManager;
+
+    /**
+     * 节点名称唯一约束是否存在；存在时创建节点可直接依赖约束判重
+     */
+    private volatile boolean nameConstraintOnline;
+
+    @Override
+    public void run(String... args) {
+        if (!graphConfig.isSchemaBootstrapEnabled()) {
+            return;
+        }
+        // 数据库不可用或已有重复数据时只记录日志，不影响应用启动
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+            graphStatementManager.run(tx, GraphStatementEnum.CREATE_NAME_CONSTRAINT, Map.of());
+            tx.commit();
+        } catch (Exception e) {
+            log.error("创建节点名称唯一约束失败", e);
+        }
+        refreshNameConstraint();
+        log.info("图谱 Schema 初始化完成，节点名称唯一约束: {}", nameConstraintOnline);
+    }
+
+    /**
+     * 节点名称唯一约束是否存在
+     *
+     * @return
+     */
+    public boolean isNameConstraintOnline() {
+        return nameConstraintOnline;
+    }
+
+    /**
+     * 重新检查节点名称唯一约束是否存在
+     */
+    public void refreshNameConstraint() {
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.SHOW_NAME_CONSTRAINT, Map.of());
+            nameConstraintOnline = result.single().get("count").asLong() > 0;
+        } catch (Exception e) {
+            log.error("查询节点名称唯一约束失败", e);
+            nameConstraintOnline = false;
+        }
+    }
+
+    /**
+     * 查询全部索引及其状态
+     *
+     * @return
+     */
+    public List<IndexStatusVO> listIndexes() {
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.SHOW_INDEXES, Map.of());
+            List<IndexStatusVO> indexStatusVOs = new ArrayList<>();
+            while (result.hasNext()) {
+                Record record = result.next();
+                IndexStatusVO indexStatusVO = new IndexStatusVO();
+                indexStatusVO.setName(record.get("name").asString());
+                indexStatusVO.setType(record.get("type").asString());
+                indexStatusVO.setEntityType(record.get("entityType").asString());
+                indexStatusVO.setLabelsOrTypes(record.get("labelsOrTypes").isNull()
+                        ? null : record.get("labelsOrTypes").asList(value -> value.asString()));
+                indexStatusVO.setProperties(record.get("properties").isNull()
+                        ? null : record.get("properties").asList(value -> value.asString()));
+                indexStatusVO.setState(record.get("state").asString());
+                indexStatusVO.setPopulationPercent(record.get("populationPercent").asDouble(0));
+                indexStatusVOs.add(indexStatusVO);
+            }
+            return indexStatusVOs;
+        } catch (Exception e) {
+            log.error("查询索引状态失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询索引状态失败，数据库错误");
+        }
+    }
+}
@@ -0,0 +1,629 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.graph.CsrGraph;
+import com.scy.mytemplate.graph.OverlayGraph;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import com.scy.mytemplate.model.vo.GraphSnapshotStatsVO;
+import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.RelationshipVO;
+import com.scy.mytemplate.model.vo.SnapshotReachableVO;
+import com.scy.mytemplate.model.vo.SubgraphVO;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Transaction;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 内存邻接快照管理：把 :AMSNet 节点及其关系加载为 CSR 结构，在进程内提供只读遍历
+ * 写路径发布的 GraphChangeEvent 中，节点和关系的创建/删除增量应用到 CSR 之上的覆盖层，纯属性变更不影响邻接结构直接忽略；
+ * 覆盖层累积到 snapshot-compact-changes 条变更后在内存中合并为新的 CSR。
+ * 读请求在读锁下直接遍历覆盖层，写入方只把事件入队，不等待读请求。
+ * 无法增量应用的变更（如删除某类型的全部关系）才标记快照过期，由定时任务从数据库全量重建。
+ */
+@Component
+@Slf4j
+public class GraphSnapshotManager {
+
+    @Resource
+    private Driver driver;
+
+    @Resource
+    private GraphConfig graphConfig;
+
+    @Resource
+    private GraphStatementManager graphStatementManager;
+
+    /**
+     * 队列中积压的事件数超过该值时，由发布方尝试（不等待）应用
+     */
+    private static final int MAX_QUEUED_EVENTS = 1024;
+
+    /**
+     * 保护 overlay / pendingEvents：读请求持有读锁直接遍历覆盖层，应用事件、交换快照持有写锁
+     */
+    private final ReentrantReadWriteLock overlayLock = new ReentrantReadWriteLock();
+
+    private OverlayGraph overlay;
+
+    /**
+     * 已发布、尚未应用到覆盖层的事件。发布方只入队，不等待进行中的读请求；
+     * 读请求和定时任务在写锁下按发布顺序应用
+     */
+    private final Queue<GraphChangeEvent> queuedEvents = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queuedCount = new AtomicInteger();
+
+    /**
+     * 全量重建或合并期间到达的事件，交换快照后重放到新的覆盖层上
+     */
+    private List<GraphChangeEvent> pendingEvents;
+
+    /**
+     * 快照是否过期（存在无法增量应用的写入），初始为 true 以便首次定时任务完成加载
+     */
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    private volatile long buildMillis;
+
+    private volatile Date builtAt;
+
+    /**
+     * 图谱写入后把增量加入队列，积压较多且无读请求时顺带应用
+     *
+     * @param event 图谱变更事件
+     */
+    @EventListener
+    public void onGraphChange(GraphChangeEvent event) {
+        if (!graphConfig.isSnapshotEnabled()) {
+            return;
+        }
+        queuedEvents.add(event);
+        if (queuedCount.incrementAndGet() >= MAX_QUEUED_EVENTS && overlayLock.writeLock().tryLock()) {
+            try {
+                applyQueuedEvents();
+            } finally {
+                overlayLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 快照过期时定时全量重建，覆盖层变更过多时在内存中合并
+     */
+    @Scheduled(fixedDelayString = "${graph.snapshot-refresh-millis:5000}")
+    public void refreshIfStale() {
+        if (!graphConfig.isSnapshotEnabled()) {
+            return;
+        }
+        try {
+            if (stale.get()) {
+                refresh();
+            } else if (read(graph -> graph == null ? 0 : graph.changeCount()) >= graphConfig.getSnapshotCompactChanges()) {
+                compact();
+            }
+        } catch (Exception e) {
+            log.error("重建图谱快照失败", e);
+        }
+    }
+
+    /**
+     * 从数据库全量加载并替换快照
+     */
+    public synchronized void refresh() {
+        // 先清除标记，加载期间无法增量应用的写入会重新标记，下一轮再次重建
+        stale.set(false);
+        overlayLock.writeLock().lock();
+        try {
+            applyQueuedEvents();
+            pendingEvents = new ArrayList<>();
+        } finally {
+            overlayLock.writeLock().unlock();
+        }
+        long start = System.currentTimeMillis();
+        CsrGraph csrGraph;
+        try {
+            csrGraph = load();
+        } catch (BusinessException e) {
+            overlayLock.writeLock().lock();
+            try {
+                pendingEvents = null;
+            } finally {
+                overlayLock.writeLock().unlock();
+            }
+            stale.set(true);
+            throw e;
+        }
+        // 加载期间的写入可能已被读到，按幂等方式重放
+        swap(csrGraph, true);
+        buildMillis = System.currentTimeMillis() - start;
+        builtAt = new Date();
+        log.info("图谱快照构建完成，节点数: {}，关系数: {}，估算内存: {} bytes，耗时: {} ms",
+                csrGraph.nodeCount(), csrGraph.relationshipCount(), csrGraph.estimatedBytes(), buildMillis);
+    }
+
+    /**
+     * 把覆盖层合并进新的 CSR，不访问数据库。只在开始时复制一次覆盖层，合并在锁外进行
+     */
+    public synchronized void compact() {
+        OverlayGraph frozen;
+        overlayLock.writeLock().lock();
+        try {
+            applyQueuedEvents();
+            if (overlay == null || overlay.changeCount() == 0) {
+                return;
+            }
+            frozen = overlay.copy();
+            pendingEvents = new ArrayList<>();
+        } finally {
+            overlayLock.writeLock().unlock();
+        }
+        long start = System.currentTimeMillis();
+        CsrGraph csrGraph = frozen.compact();
+        // 合并基于复制时的覆盖层，之后到达的写入按原样重放
+        swap(csrGraph, false);
+        buildMillis = System.currentTimeMillis() - start;
+        builtAt = new Date();
+        log.info("图谱快照合并完成，合并变更数: {}，节点数: {}，关系数: {}，耗时: {} ms",
+                frozen.changeCount(), csrGraph.nodeCount(), csrGraph.relationshipCount(), buildMillis);
+    }
+
+    /**
+     * 获取最新的图结构：快照开启且未过期时使用快照（有增量时复制覆盖层后在锁外合并一份，不替换快照），否则从数据库加载一份
+     *
+     * @return
+     */
+    public CsrGraph getCurrentOrLoad() {
+        if (graphConfig.isSnapshotEnabled() && !stale.get()) {
+            OverlayGraph view = read(graph -> graph == null ? null : graph.copy());
+            if (view != null) {
+                return view.compact();
+            }
+        }
+        return load();
+    }
+
+    /**
+     * 从数据库全量加载 CSR 图
+     *
+     * @return
+     */
+    public CsrGraph load() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        SessionConfig sessionConfig = SessionConfig.builder().withFetchSize(graphConfig.getStreamFetchSize()).build();
+        try (Session session = driver.session(sessionConfig); Transaction tx = session.beginTransaction()) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.SNAPSHOT_NODES, Map.of());
+            while (result.hasNext()) {
+                builder.addNode(result.next().get("name").asString());
+            }
+            result = graphStatementManager.run(tx, GraphStatementEnum.SNAPSHOT_RELATIONSHIPS, Map.of());
+            while (result.hasNext()) {
+                Record record = result.next();
+                builder.addRelationship(record.get("fromNode").asString(), record.get("toNode").asString(),
+                        record.get("name").asString());
+            }
+        } catch (Exception e) {
+            log.error("加载图谱快照失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加载图谱快照失败，数据库错误");
+        }
+        return builder.build();
+    }
+
+    /**
+     * 基于快照的邻域查询（不区分方向），节点和关系只包含名称及端点。
+     * 与数据库查询一致，只有通向本跳之前未访问节点的关系占用扇出额度，指向已访问节点的关系不受扇出限制
+     *
+     * @param name 起始节点名称
+     * @param depth 跳数
+     * @param fanOut 每跳每个节点最多扩展的新邻居数
+     * @param relationshipTypes 关系类型过滤，为空表示不过滤
+     * @return 起始节点不存在返回 null
+     */
+    public SubgraphVO getNeighborhood(String name, int depth, int fanOut, List<String> relationshipTypes) {
+        if (name == null || name.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        if (depth <= 0 || depth > graphConfig.getMaxNeighborhoodDepth()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "跳数需在 1 到 " + graphConfig.getMaxNeighborhoodDepth() + " 之间");
+        }
+        if (fanOut <= 0 || fanOut > graphConfig.getMaxNeighborhoodFanOut()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "扇出需在 1 到 " + graphConfig.getMaxNeighborhoodFanOut() + " 之间");
+        }
+        return read(graph -> {
+            checkLoaded(graph);
+            int start = graph.idOf(name);
+            if (start < 0) {
+                return null;
+            }
+            NeighborhoodWalk walk = new NeighborhoodWalk(graph, toTypeFilter(graph, relationshipTypes), fanOut, start);
+            for (int hop = 0; hop < depth && walk.frontierSize > 0 && !walk.truncated; hop++) {
+                walk.nextHop(hop);
+            }
+            SubgraphVO subgraphVO = new SubgraphVO();
+            subgraphVO.setNodes(walk.nodeVOs);
+            subgraphVO.setRelationships(walk.relationshipVOs);
+            subgraphVO.setTruncated(walk.truncated);
+            subgraphVO.setRelationshipsTruncated(walk.relationshipsTruncated);
+            subgraphVO.setStale(stale.get());
+            return subgraphVO;
+        });
+    }
+
+    /**
+     * 基于快照判断两节点之间是否存在长度不超过 maxDepth 的路径（不区分方向）
+     *
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @param maxDepth 路径最大长度
+     * @return
+     */
+    public SnapshotReachableVO reachable(String fromNode, String toNode, int maxDepth) {
+        if (fromNode == null || toNode == null || fromNode.isEmpty() || toNode.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点名称为空");
+        }
+        if (fromNode.equals(toNode)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "起始节点和结束节点不能相同");
+        }
+        if (maxDepth <= 0 || maxDepth > graphConfig.getMaxPathDepth()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "路径长度需在 1 到 " + graphConfig.getMaxPathDepth() + " 之间");
+        }
+        return read(graph -> {
+            checkLoaded(graph);
+            int source = graph.idOf(fromNode);
+            if (source < 0) {
+                throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "起始节点不存在");
+            }
+            int target = graph.idOf(toNode);
+            if (target < 0) {
+                throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "结束节点不存在");
+            }
+            SnapshotReachableVO snapshotReachableVO = new SnapshotReachableVO();
+            snapshotReachableVO.setStale(stale.get());
+            // 按层 BFS，队列用数组实现，layerEnd 标记当前层的结束位置
+            boolean[] visited = new boolean[graph.nodeCapacity()];
+            int[] queue = new int[graph.nodeCapacity()];
+            int[] tail = {0};
+            boolean[] found = {false};
+            int head = 0;
+            queue[tail[0]++] = source;
+            visited[source] = true;
+            OverlayGraph.EdgeVisitor visitor = (neighbor, type) -> {
+                if (neighbor == target) {
+                    found[0] = true;
+                    return false;
+                }
+                if (!visited[neighbor]) {
+                    visited[neighbor] = true;
+                    queue[tail[0]++] = neighbor;
+                }
+                return true;
+            };
+            for (int hop = 0; hop < maxDepth && head < tail[0] && !found[0]; hop++) {
+                int layerEnd = tail[0];
+                while (head < layerEnd && !found[0]) {
+                    int current = queue[head++];
+                    graph.forEachEdge(current, true, visitor);
+                    if (!found[0]) {
+                        graph.forEachEdge(current, false, visitor);
+                    }
+                }
+            }
+            snapshotReachableVO.setReachable(found[0]);
+            return snapshotReachableVO;
+        });
+    }
+
+    /**
+     * 获取快照统计
+     *
+     * @return
+     */
+    public GraphSnapshotStatsVO getStats() {
+        return read(graph -> {
+            CsrGraph csrGraph = graph == null ? null : graph.base();
+            GraphSnapshotStatsVO graphSnapshotStatsVO = new GraphSnapshotStatsVO();
+            graphSnapshotStatsVO.setEnabled(graphConfig.isSnapshotEnabled());
+            graphSnapshotStatsVO.setLoaded(csrGraph != null);
+            graphSnapshotStatsVO.setStale(stale.get());
+            if (csrGraph != null) {
+                graphSnapshotStatsVO.setNodeCount(csrGraph.nodeCount());
+                graphSnapshotStatsVO.setRelationshipCount(csrGraph.relationshipCount());
+                graphSnapshotStatsVO.setRelationshipTypeCount(csrGraph.relationshipTypeCount());
+                graphSnapshotStatsVO.setEstimatedBytes(csrGraph.estimatedBytes());
+                graphSnapshotStatsVO.setBytesPerRelationship(csrGraph.bytesPerRelationship());
+                graphSnapshotStatsVO.setBuildMillis(buildMillis);
+                graphSnapshotStatsVO.setBuiltAt(builtAt);
+                graphSnapshotStatsVO.setOverlayChanges(graph.changeCount());
+            }
+            return graphSnapshotStatsVO;
+        });
+    }
+
+    /**
+     * 持有读锁访问当前快照（含覆盖层），不复制；队列中有未应用的事件时先在写锁下应用再降级为读锁，
+     * 保证读到请求开始前已发布的全部写入
+     *
+     * @param reader 读操作，未加载时参数为 null；不能在其中修改或保留覆盖层
+     * @return
+     */
+    private <T> T read(Function<OverlayGraph, T> reader) {
+        if (!queuedEvents.isEmpty()) {
+            overlayLock.writeLock().lock();
+            try {
+                applyQueuedEvents();
+                overlayLock.readLock().lock();
+            } finally {
+                overlayLock.writeLock().unlock();
+            }
+        } else {
+            overlayLock.readLock().lock();
+        }
+        try {
+            return reader.apply(overlay);
+        } finally {
+            overlayLock.readLock().unlock();
+        }
+    }
+
+    private void checkLoaded(OverlayGraph graph) {
+        if (!graphConfig.isSnapshotEnabled()) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "图谱快照未开启");
+        }
+        if (graph == null) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "图谱快照尚未加载");
+        }
+    }
+
+    /**
+     * 按发布顺序应用队列中的事件，调用方持有写锁
+     */
+    private void applyQueuedEvents() {
+        GraphChangeEvent event;
+        while ((event = queuedEvents.poll()) != null) {
+            queuedCount.decrementAndGet();
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+            if (overlay != null && !apply(overlay, event, false)) {
+                stale.set(true);
+            }
+        }
+    }
+
+    /**
+     * 以新的 CSR 为底层替换覆盖层，并重放交换前到达的事件
+     *
+     * @param csrGraph 新的 CSR
+     * @param idempotent 是否按幂等方式重放（事件可能已包含在 CSR 中）
+     */
+    private void swap(CsrGraph csrGraph, boolean idempotent) {
+        overlayLock.writeLock().lock();
+        try {
+            applyQueuedEvents();
+            OverlayGraph next = new OverlayGraph(csrGraph);
+            for (GraphChangeEvent event : pendingEvents) {
+                if (!apply(next, event, idempotent)) {
+                    stale.set(true);
+                }
+            }
+            pendingEvents = null;
+            overlay = next;
+        } finally {
+            overlayLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 把一个变更事件应用到覆盖层
+     *
+     * @param target 覆盖层
+     * @param event 变更事件
+     * @param idempotent 为 true 时已存在的关系不再重复添加
+     * @return 无法增量应用、需要全量重建时返回 false
+     */
+    private boolean apply(OverlayGraph target, GraphChangeEvent event, boolean idempotent) {
+        switch (event.getChangeType()) {
+            case NODE_CREATED:
+                target.addNode(event.getName());
+                return true;
+            case NODE_DELETED:
+                target.deleteNode(event.getName());
+                return true;
+            case RELATIONSHIP_CREATED:
+                if (event.getFromNode() == null || event.getToNode() == null) {
+                    return false;
+                }
+                if (idempotent && target.hasRelationship(event.getFromNode(), event.getToNode(), event.getName())) {
+                    return true;
+                }
+                return target.addRelationship(event.getFromNode(), event.getToNode(), event.getName()) || idempotent;
+            case RELATIONSHIP_DELETED:
+                if (event.getFromNode() == null || event.getToNode() == null) {
+                    return false;
+                }
+                target.deleteRelationship(event.getFromNode(), event.getToNode(), event.getName());
+                return true;
+            case NODE_UPDATED:
+            case NODES_BULK_UPDATED:
+            case RELATIONSHIP_UPDATED:
+                // 纯属性变更，不影响邻接结构
+                return true;
+            case RELATIONSHIP_TYPE_DELETED:
+                // 覆盖层不按类型索引底层关系，交给全量重建
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private boolean[] toTypeFilter(OverlayGraph graph, List<String> relationshipTypes) {
+        if (relationshipTypes == null || relationshipTypes.isEmpty()) {
+            return null;
+        }
+        boolean[] allowedTypes = new boolean[graph.relationshipTypeCount()];
+        for (String relationshipType : relationshipTypes) {
+            int typeId = graph.typeIdOf(relationshipType);
+            if (typeId >= 0) {
+                allowedTypes[typeId] = true;
+            }
+        }
+        return allowedTypes;
+    }
+
+    private NodeVO toNodeVO(OverlayGraph graph, int id) {
+        NodeVO nodeVO = new NodeVO();
+        nodeVO.setName(graph.nameOf(id));
+        nodeVO.setProperties(new HashMap<>());
+        return nodeVO;
+    }
+
+    private RelationshipVO toRelationshipVO(OverlayGraph graph, int type, int source, int target) {
+        RelationshipVO relationshipVO = new RelationshipVO();
+        relationshipVO.setName(graph.typeOf(type));
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("fromNode", graph.nameOf(source));
+        properties.put("toNode", graph.nameOf(target));
+        relationshipVO.setProperties(properties);
+        return relationshipVO;
+    }
+    /**
+     * 邻域遍历状态，逐跳扩展 frontier；关系在遍历邻接时直接加入结果，不收集中间数组
+     */
+    private class NeighborhoodWalk implements OverlayGraph.EdgeVisitor {
+
+        private final OverlayGraph graph;
+
+        private final boolean[] allowedTypes;
+
+        private final int fanOut;
+
+        private final int maxNodes = graphConfig.getMaxNeighborhoodNodes();
+
+        private final int maxRelationships = graphConfig.getMaxNeighborhoodRelationships();
+
+        /**
+         * 节点所在跳数，-1 表示未访问，用于关系去重
+         */
+        private final int[] levels;
+
+        private final List<NodeVO> nodeVOs = new ArrayList<>();
+
+        private final List<RelationshipVO> relationshipVOs = new ArrayList<>();
+
+        private boolean truncated;
+
+        private boolean relationshipsTruncated;
+
+        private int[] frontier;
+
+        private int frontierSize;
+
+        private int[] next;
+
+        private int nextSize;
+
+        private int hop;
+
+        private int current;
+
+        private boolean out;
+
+        /**
+         * 当前节点本跳已占用的扇出额度，出边和入边共用
+         */
+        private int expanded;
+
+        NeighborhoodWalk(OverlayGraph graph, boolean[] allowedTypes, int fanOut, int start) {
+            this.graph = graph;
+            this.allowedTypes = allowedTypes;
+            this.fanOut = fanOut;
+            this.levels = new int[graph.nodeCapacity()];
+            Arrays.fill(levels, -1);
+            levels[start] = 0;
+            nodeVOs.add(toNodeVO(graph, start));
+            frontier = new int[]{start};
+            frontierSize = 1;
+        }
+
+        void nextHop(int hop) {
+            this.hop = hop;
+            next = new int[16];
+            nextSize = 0;
+            for (int i = 0; i < frontierSize && !truncated; i++) {
+                current = frontier[i];
+                expanded = 0;
+                out = true;
+                graph.forEachEdge(current, true, this);
+                if (!truncated) {
+                    out = false;
+                    graph.forEachEdge(current, false, this);
+                }
+            }
+            frontier = next;
+            frontierSize = nextSize;
+        }
+
+        @Override
+        public boolean visit(int neighbor, int type) {
+            if (allowedTypes != null && (type >= allowedTypes.length || !allowedTypes[type])) {
+                return true;
+            }
+            int level = levels[neighbor];
+            // 本跳之前未访问的节点占用扇出额度；额度用完后继续查找指向已访问节点的关系
+            boolean isNewNeighbor = level < 0 || level == hop + 1;
+            if (isNewNeighbor && expanded >= fanOut) {
+                return true;
+            }
+            // 指向上一跳的关系已在上一跳加入；同一跳节点之间的关系只在出边方向加入一次
+            if (!isNewNeighbor && !(level == hop && out)) {
+                return true;
+            }
+            if (relationshipVOs.size() >= maxRelationships) {
+                truncated = true;
+                relationshipsTruncated = true;
+                return false;
+            }
+            if (level < 0) {
+                if (nodeVOs.size() >= maxNodes) {
+                    truncated = true;
+                    return false;
+                }
+                levels[neighbor] = hop + 1;
+                nodeVOs.add(toNodeVO(graph, neighbor));
+                if (nextSize == next.length) {
+                    next = Arrays.copyOf(next, nextSize * 2);
+                }
+                next[nextSize++] = neighbor;
+            }
+            if (isNewNeighbor) {
+                expanded++;
+            }
+            relationshipVOs.add(out ? toRelationshipVO(graph, type, current, neighbor)
+                    : toRelationshipVO(graph, type, neighbor, current));
+            return true;
+        }
+    }
+}
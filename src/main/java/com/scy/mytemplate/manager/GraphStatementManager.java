@@ -0,0 +1,106 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.async.AsyncTransaction;
+import org.neo4j.driver.async.ResultCursor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 图谱语句执行入口，统一按命名语句执行并统计每条语句的执行次数
+ */
+@Component
+public class GraphStatementManager {
+
+    private final Map<GraphStatementEnum, LongAdder> counters = new EnumMap<>(GraphStatementEnum.class);
+
+    public GraphStatementManager() {
+        for (GraphStatementEnum statement : GraphStatementEnum.values()) {
+            counters.put(statement, new LongAdder());
+        }
+    }
+
+    /**
+     * 执行语句
+     *
+     * @param tx 事务
+     * @param statement 语句
+     * @param parameters 参数
+     * @return
+     */
+    public Result run(Transaction tx, GraphStatementEnum statement, Map<String, Object> parameters) {
+        counters.get(statement).increment();
+        return tx.run(statement.getCypher(), parameters);
+    }
+
+    /**
+     * 执行带关系类型占位的语句
+     *
+     * @param tx 事务
+     * @param statement 语句
+     * @param relationshipType 关系类型（未转义）
+     * @param parameters 参数
+     * @return
+     */
+    public Result run(Transaction tx, GraphStatementEnum statement, String relationshipType, Map<String, Object> parameters) {
+        counters.get(statement).increment();
+        return tx.run(String.format(statement.getCypher(), escapeIdentifier(relationshipType)), parameters);
+    }
+
+    /**
+     * 执行带片段占位的语句，片段必须由代码生成，不能包含用户输入
+     *
+     * @param tx 事务
+     * @param statement 语句
+     * @param fragment 填入占位的 Cypher 片段
+     * @param parameters 参数
+     * @return
+     */
+    public Result runWithFragment(Transaction tx, GraphStatementEnum statement, String fragment, Map<String, Object> parameters) {
+        counters.get(statement).increment();
+        return tx.run(String.format(statement.getCypher(), fragment), parameters);
+    }
+
+    /**
+     * 异步执行语句
+     *
+     * @param tx 异步事务
+     * @param statement 语句
+     * @param parameters 参数
+     * @return
+     */
+    public CompletionStage<ResultCursor> runAsync(AsyncTransaction tx, GraphStatementEnum statement, Map<String, Object> parameters) {
+        counters.get(statement).increment();
+        return tx.runAsync(statement.getCypher(), parameters);
+    }
+
+    /**
+     * 各语句的执行次数
+     *
+     * @return 语句名 -> 次数
+     */
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        for (Map.Entry<GraphStatementEnum, LongAdder> entry : counters.entrySet()) {
+            stats.put(entry.getKey().name(), entry.getValue().sum());
+        }
+        return stats;
+    }
+
+    /**
+     * 转义标识符（关系类型等无法参数化的部分），用反引号包裹
+     *
+     * @param identifier 标识符
+     * @return
+     */
+    public static String escapeIdentifier(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+}
@@ -0,0 +1,117 @@
+package com.scy.mytemplate.manager;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 按节点名称的写锁，写入方从执行写事务到发布变更事件全程持有，
+ * 保证同一节点（及其关系）的变更事件顺序、变更日志版本号顺序与提交顺序一致。
+ * 每个名称一把锁，只在有人持有或等待时存在，批量写入只阻塞涉及相同节点的写入；
+ * 关系写入锁住两个端点；多个名称按名称升序加锁，避免死锁。锁可重入。
+ * 按节点加锁的写入共享一把全局读锁；按类型删除全部关系等无法按节点划分的写入持有全局写锁，与其他写入互斥。
+ */
+@Component
+public class GraphWriteLockManager {
+
+    private final ConcurrentHashMap<String, NameLock> locks = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock globalLock = new ReentrantReadWriteLock();
+
+    /**
+     * 持有单个节点的写锁执行
+     *
+     * @param name 节点名称
+     * @param work 写入及事件发布
+     * @return
+     */
+    public <T> T withLock(String name, Supplier<T> work) {
+        return withLocks(List.of(name), work);
+    }
+
+    /**
+     * 持有多个节点的写锁执行
+     *
+     * @param names 节点名称
+     * @param work 写入及事件发布
+     * @return
+     */
+    public <T> T withLocks(Collection<String> names, Supplier<T> work) {
+        TreeSet<String> sortedNames = new TreeSet<>();
+        for (String name : names) {
+            if (name != null) {
+                sortedNames.add(name);
+            }
+        }
+        List<String> acquired = new ArrayList<>(sortedNames.size());
+        globalLock.readLock().lock();
+        try {
+            for (String name : sortedNames) {
+                acquire(name);
+                acquired.add(name);
+            }
+            return work.get();
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                release(acquired.get(i));
+            }
+            globalLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 独占执行，等待进行中的按节点写入完成并阻塞新的写入。
+     * 不能在 withLock / withLocks 内调用（读锁不能升级为写锁）
+     *
+     * @param work 写入及事件发布
+     * @return
+     */
+    public <T> T withAllLocks(Supplier<T> work) {
+        globalLock.writeLock().lock();
+        try {
+            return work.get();
+        } finally {
+            globalLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 当前存在的名称锁个数（有人持有或等待），用于观察
+     *
+     * @return
+     */
+    public int size() {
+        return locks.size();
+    }
+
+    private void acquire(String name) {
+        NameLock lock = locks.compute(name, (key, existing) -> {
+            NameLock nameLock = existing == null ? new NameLock() : existing;
+            nameLock.users++;
+            return nameLock;
+        });
+        lock.lock();
+    }
+
+    private void release(String name) {
+        NameLock lock = locks.get(name);
+        lock.unlock();
+        // 最后一个使用者释放时移除，锁表大小只与并发写入涉及的节点数有关
+        locks.compute(name, (key, existing) -> --existing.users == 0 ? null : existing);
+    }
+
+    /**
+     * 名称锁，users 为持有或等待的次数（含重入），只在 ConcurrentHashMap.compute 内修改
+     */
+    private static class NameLock extends ReentrantLock {
+
+        private int users;
+    }
+}
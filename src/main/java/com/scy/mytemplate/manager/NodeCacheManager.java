@@ -0,0 +1,153 @@
+package com.scy.mytemplate.manager;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.model.vo.CacheStatsVO;
+import com.scy.mytemplate.model.vo.NodeVO;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Optional;
+
+/**
+ * 节点读缓存（按节点名称缓存 NodeVO，包括不存在的查询结果）
+ * 过期时间从写入时计算，命中不续期；失效版本号按名称分段，单个节点失效只影响同段的回填。
+ */
+@Component
+public class NodeCacheManager {
+
+    /**
+     * 失效版本号分段数，须为 2 的幂
+     */
+    private static final int VERSION_STRIPES = 64;
+
+    private final boolean enabled;
+
+    private final LRUCache<String, Optional<NodeVO>> cache;
+
+    /**
+     * 分段失效版本号，段内每次失效递增；查询开始后该段发生过失效则不回填，避免写入过期数据。
+     * versions[i] 及对应段的缓存读写受 locks[i] 保护
+     */
+    private final long[] versions = new long[VERSION_STRIPES];
+
+    private final Object[] locks = new Object[VERSION_STRIPES];
+
+    public NodeCacheManager(GraphConfig graphConfig) {
+        this.enabled = graphConfig.isNodeCacheEnabled();
+        this.cache = CacheUtil.newLRUCache(graphConfig.getNodeCacheCapacity(), graphConfig.getNodeCacheTtlMillis());
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 获取缓存
+     *
+     * @param name 节点名称
+     * @return 未命中返回 null；命中不存在的节点返回 Optional.empty()
+     */
+    public Optional<NodeVO> get(String name) {
+        if (!enabled) {
+            return null;
+        }
+        // 不续期，过期时间从回填时起算
+        Optional<NodeVO> cached = cache.get(name, false);
+        if (cached == null) {
+            return null;
+        }
+        return cached.map(NodeCacheManager::copyOf);
+    }
+
+    /**
+     * 节点所在段的当前失效版本号，查询数据库前获取，回填时传入
+     *
+     * @param name 节点名称
+     * @return
+     */
+    public long currentVersion(String name) {
+        int stripe = stripeOf(name);
+        synchronized (locks[stripe]) {
+            return versions[stripe];
+        }
+    }
+
+    /**
+     * 回填缓存
+     *
+     * @param name 节点名称
+     * @param nodeVO 查询结果，为 null 表示节点不存在
+     * @param version 查询前通过 currentVersion(name) 获取的失效版本号
+     */
+    public void put(String name, NodeVO nodeVO, long version) {
+        if (!enabled) {
+            return;
+        }
+        int stripe = stripeOf(name);
+        synchronized (locks[stripe]) {
+            if (version == versions[stripe]) {
+                cache.put(name, Optional.ofNullable(nodeVO).map(NodeCacheManager::copyOf));
+            }
+        }
+    }
+
+    /**
+     * 使单个节点的缓存失效
+     *
+     * @param name 节点名称
+     */
+    public void invalidate(String name) {
+        int stripe = stripeOf(name);
+        synchronized (locks[stripe]) {
+            versions[stripe]++;
+            cache.remove(name);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            synchronized (locks[i]) {
+                versions[i]++;
+            }
+        }
+        cache.clear();
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @return
+     */
+    public CacheStatsVO getStats() {
+        long hitCount = cache.getHitCount();
+        long missCount = cache.getMissCount();
+        CacheStatsVO cacheStatsVO = new CacheStatsVO();
+        cacheStatsVO.setEnabled(enabled);
+        cacheStatsVO.setSize(cache.size());
+        cacheStatsVO.setCapacity(cache.capacity());
+        cacheStatsVO.setTimeoutMillis(cache.timeout());
+        cacheStatsVO.setHitCount(hitCount);
+        cacheStatsVO.setMissCount(missCount);
+        cacheStatsVO.setHitRate(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        return cacheStatsVO;
+    }
+
+    private static int stripeOf(String name) {
+        int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * 复制节点视图，避免调用方修改缓存中的对象
+     */
+    private static NodeVO copyOf(NodeVO nodeVO) {
+        NodeVO copy = new NodeVO();
+        copy.setName(nodeVO.getName());
+        copy.setProperties(nodeVO.getProperties() == null ? null : new HashMap<>(nodeVO.getProperties()));
+        return copy;
+    }
+}
@@ -0,0 +1,310 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.enums.GraphChangeTypeEnum;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Transaction;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 节点名称前缀索引，用于搜索框自动补全
+ * 名称按 "小写名称 + \0 + 原名称" 作为键排序，前缀匹配不区分大小写；
+ * 主体为排序数组，写入产生的新增/删除先记在增量集合中，查询时与数组归并，增量过多时合并为新数组。
+ * 索引在首次查询时加载，之后由 GraphChangeEvent 维护，并定时全量重建以纠正偏差；
+ * 重建时数据库扫描不持有索引锁，期间的变更先缓冲，替换索引时在短锁内重放。
+ */
+@Component
+@Slf4j
+public class NodeNameIndexManager {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /**
+     * 增量超过该值且超过数组长度的 1/8 时合并
+     */
+    private static final int MIN_COMPACT_THRESHOLD = 1024;
+
+    @Resource
+    private Driver driver;
+
+    @Resource
+    private GraphConfig graphConfig;
+
+    @Resource
+    private GraphStatementManager graphStatementManager;
+
+    /**
+     * 串行化重建，与索引锁（this）分开，扫描数据库期间不阻塞变更与查询
+     */
+    private final Object rebuildLock = new Object();
+
+    /**
+     * 当前索引，合并或重建时整体替换；为空表示尚未加载
+     */
+    private volatile Index index;
+
+    /**
+     * 重建期间到达的节点变更，替换索引后重放；不在重建时为空，受 this 保护
+     */
+    private List<GraphChangeEvent> pendingEvents;
+
+    /**
+     * 维护节点名称
+     *
+     * @param event 图谱变更事件
+     */
+    @EventListener
+    public void onGraphChange(GraphChangeEvent event) {
+        if (!event.getChangeType().isNodeChange()) {
+            return;
+        }
+        synchronized (this) {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+            if (index != null) {
+                apply(event.getChangeType(), event.getName());
+            }
+        }
+    }
+
+    /**
+     * 定时全量重建，纠正遗漏的变更（如其他进程直接写入数据库）
+     */
+    @Scheduled(fixedDelayString = "${graph.suggest-rebuild-millis:600000}")
+    public void rebuildIfLoaded() {
+        if (index == null) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("重建节点名称索引失败", e);
+        }
+    }
+
+    /**
+     * 前缀匹配节点名称，按名称（不区分大小写）升序返回
+     *
+     * @param prefix 前缀
+     * @param limit 最多返回条数
+     * @return
+     */
+    public List<String> suggest(String prefix, int limit) {
+        Index current = index;
+        if (current == null) {
+            synchronized (rebuildLock) {
+                if (index == null) {
+                    rebuild();
+                }
+                current = index;
+            }
+        }
+        String from = prefix.toLowerCase(Locale.ROOT);
+        // 所有以 from 开头的键都小于 from + Character.MAX_VALUE
+        String to = from + Character.MAX_VALUE;
+        int position = lowerBound(current.keys, from);
+        Iterator<String> added = current.added.subSet(from, true, to, false).iterator();
+        String nextAdded = added.hasNext() ? added.next() : null;
+        List<String> result = new ArrayList<>(limit);
+        while (result.size() < limit) {
+            String nextBase = null;
+            while (position < current.keys.length && current.keys[position].compareTo(to) < 0) {
+                if (!current.removed.contains(current.keys[position])) {
+                    nextBase = current.keys[position];
+                    break;
+                }
+                position++;
+            }
+            String key;
+            if (nextBase == null && nextAdded == null) {
+                break;
+            } else if (nextAdded == null || (nextBase != null && nextBase.compareTo(nextAdded) < 0)) {
+                key = nextBase;
+                position++;
+            } else {
+                key = nextAdded;
+                nextAdded = added.hasNext() ? added.next() : null;
+            }
+            result.add(key.substring(key.indexOf(KEY_SEPARATOR) + 1));
+        }
+        return result;
+    }
+
+    /**
+     * 索引中的名称数，尚未加载时为 -1
+     *
+     * @return
+     */
+    public int size() {
+        Index current = index;
+        return current == null ? -1 : current.keys.length + current.addedCount - current.removedCount;
+    }
+
+    /**
+     * 从数据库全量加载名称，替换索引后重放加载期间缓冲的节点变更
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            // 先开始缓冲再扫描：扫描前已提交的变更在数据库中，之后的变更在缓冲中，重放是幂等的
+            synchronized (this) {
+                pendingEvents = new ArrayList<>();
+            }
+            String[] sorted;
+            try {
+                sorted = load();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingEvents = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                index = new Index(sorted);
+                for (GraphChangeEvent event : pendingEvents) {
+                    apply(event.getChangeType(), event.getName());
+                }
+                pendingEvents = null;
+            }
+            log.info("节点名称索引构建完成，名称数: {}，耗时: {} ms", sorted.length, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 扫描数据库中的全部节点名称，返回排序后的键
+     */
+    private String[] load() {
+        List<String> keys = new ArrayList<>();
+        SessionConfig sessionConfig = SessionConfig.builder().withFetchSize(graphConfig.getStreamFetchSize()).build();
+        try (Session session = driver.session(sessionConfig); Transaction tx = session.beginTransaction()) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.SNAPSHOT_NODES, Map.of());
+            while (result.hasNext()) {
+                keys.add(toKey(result.next().get("name").asString()));
+            }
+        } catch (Exception e) {
+            log.error("加载节点名称索引失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加载节点名称索引失败，数据库错误");
+        }
+        String[] sorted = keys.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * 应用一条节点变更，调用方持有锁；重复应用结果不变
+     */
+    private void apply(GraphChangeTypeEnum changeType, String name) {
+        Index current = index;
+        String key = toKey(name);
+        boolean inBase = Arrays.binarySearch(current.keys, key) >= 0;
+        if (changeType == GraphChangeTypeEnum.NODE_CREATED) {
+            if (inBase) {
+                current.removedCount -= current.removed.remove(key) ? 1 : 0;
+            } else {
+                current.addedCount += current.added.add(key) ? 1 : 0;
+            }
+        } else if (changeType == GraphChangeTypeEnum.NODE_DELETED) {
+            if (inBase) {
+                current.removedCount += current.removed.add(key) ? 1 : 0;
+            } else {
+                current.addedCount -= current.added.remove(key) ? 1 : 0;
+            }
+        } else {
+            return;
+        }
+        int deltaSize = current.addedCount + current.removedCount;
+        if (deltaSize > MIN_COMPACT_THRESHOLD && deltaSize > current.keys.length / 8) {
+            index = current.compact();
+        }
+    }
+
+    private static String toKey(String name) {
+        return name.toLowerCase(Locale.ROOT) + KEY_SEPARATOR + name;
+    }
+
+    /**
+     * 第一个不小于 key 的位置
+     */
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 排序数组 + 增量集合，数组不可变，增量集合只在持有锁时修改
+     */
+    private static class Index {
+
+        private final String[] keys;
+
+        private final NavigableSet<String> added = new ConcurrentSkipListSet<>();
+
+        private final Set<String> removed = ConcurrentHashMap.newKeySet();
+
+        /**
+         * 增量集合的大小（跳表的 size() 需要遍历）
+         */
+        private volatile int addedCount;
+
+        private volatile int removedCount;
+
+        private Index(String[] keys) {
+            this.keys = keys;
+        }
+
+        /**
+         * 把增量归并进新的排序数组
+         */
+        private Index compact() {
+            String[] merged = new String[keys.length - removedCount + addedCount];
+            int size = 0;
+            int i = 0;
+            Iterator<String> iterator = added.iterator();
+            String nextAdded = iterator.hasNext() ? iterator.next() : null;
+            while (i < keys.length || nextAdded != null) {
+                if (nextAdded == null || (i < keys.length && keys[i].compareTo(nextAdded) < 0)) {
+                    if (!removed.contains(keys[i])) {
+                        merged[size++] = keys[i];
+                    }
+                    i++;
+                } else {
+                    merged[size++] = nextAdded;
+                    nextAdded = iterator.hasNext() ? iterator.next() : null;
+                }
+            }
+            return new Index(size == merged.length ? merged : Arrays.copyOf(merged, size));
+        }
+    }
+}
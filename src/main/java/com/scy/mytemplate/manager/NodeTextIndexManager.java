@@ -0,0 +1,423 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.enums.GraphChangeTypeEnum;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import com.scy.mytemplate.model.vo.NodeSearchHitVO;
+import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.utils.GraphRecordUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Transaction;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 节点全文索引：对节点名称及字符串属性（含字符串列表）建立倒排索引，按 BM25 打分
+ * 分词：字母数字按连续段切分并转小写；汉字等表意文字按单字和相邻两字建立索引，查询时连续两个以上的表意文字按两字切分。
+ * 索引在首次查询时加载，之后由 GraphChangeEvent 维护（更新按属性合并，与 SET n += 一致），并定时全量重建以纠正偏差；
+ * 加载期间到达的节点变更先缓冲，替换索引后按到达顺序重放。
+ */
+@Component
+@Slf4j
+public class NodeTextIndexManager {
+
+    private static final double BM25_K1 = 1.2;
+
+    private static final double BM25_B = 0.75;
+
+    @Resource
+    private Driver driver;
+
+    @Resource
+    private GraphConfig graphConfig;
+
+    @Resource
+    private GraphStatementManager graphStatementManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded;
+
+    private Map<String, Document> documents = new HashMap<>();
+
+    /**
+     * 词 -> (节点名称 -> 词频)
+     */
+    private Map<String, Map<String, Integer>> postings = new HashMap<>();
+
+    private long totalLength;
+
+    /**
+     * 加载期间到达的节点变更，替换索引后重放；不在加载时为空，受写锁保护
+     */
+    private List<GraphChangeEvent> pendingEvents;
+
+    /**
+     * 维护索引
+     *
+     * @param event 图谱变更事件
+     */
+    @EventListener
+    public void onGraphChange(GraphChangeEvent event) {
+        if (!event.getChangeType().isNodeChange()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+            if (loaded) {
+                apply(event.getChangeType(), event.getName(), event.getProperties());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 定时全量重建，纠正遗漏的变更（如其他进程直接写入数据库）
+     */
+    @Scheduled(fixedDelayString = "${graph.search-rebuild-millis:600000}")
+    public void rebuildIfLoaded() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("重建节点全文索引失败", e);
+        }
+    }
+
+    /**
+     * 全文搜索，匹配词数多的在前，其次按 BM25 得分、名称排序
+     *
+     * @param query 查询文本
+     * @param offset 跳过的条数
+     * @param limit 返回的条数
+     * @param hits 当前页结果（输出）
+     * @return 匹配的节点总数
+     */
+    public long search(String query, long offset, int limit, List<NodeSearchHitVO> hits) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(query, true, terms::add);
+        if (terms.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "查询中没有可搜索的词");
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+            Map<String, Candidate> candidates = new HashMap<>();
+            for (String term : terms) {
+                Map<String, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<String, Integer> entry : posting.entrySet()) {
+                    int termFrequency = entry.getValue();
+                    double norm = 1 - BM25_B + BM25_B * documents.get(entry.getKey()).length / averageLength;
+                    Candidate candidate = candidates.computeIfAbsent(entry.getKey(), Candidate::new);
+                    candidate.matchedTerms++;
+                    candidate.score += idf * termFrequency * (BM25_K1 + 1) / (termFrequency + BM25_K1 * norm);
+                }
+            }
+            List<Candidate> ranked = new ArrayList<>(candidates.values());
+            ranked.sort((a, b) -> {
+                if (a.matchedTerms != b.matchedTerms) {
+                    return b.matchedTerms - a.matchedTerms;
+                }
+                if (a.score != b.score) {
+                    return Double.compare(b.score, a.score);
+                }
+                return a.name.compareTo(b.name);
+            });
+            for (long i = offset; i < ranked.size() && i < offset + limit; i++) {
+                Candidate candidate = ranked.get((int) i);
+                NodeSearchHitVO nodeSearchHitVO = new NodeSearchHitVO();
+                nodeSearchHitVO.setName(candidate.name);
+                nodeSearchHitVO.setScore(candidate.score);
+                nodeSearchHitVO.setMatchedTerms(candidate.matchedTerms);
+                nodeSearchHitVO.setMatchedFields(matchedFields(documents.get(candidate.name), terms));
+                hits.add(nodeSearchHitVO);
+            }
+            return ranked.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从数据库全量加载节点，替换索引后重放加载期间缓冲的节点变更
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        // 先开始缓冲再扫描：扫描前已提交的变更在数据库中，之后的变更在缓冲中，重放按属性合并，结果不变
+        lock.writeLock().lock();
+        try {
+            pendingEvents = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<String, Document> newDocuments = new HashMap<>();
+        Map<String, Map<String, Integer>> newPostings = new HashMap<>();
+        long newTotalLength = 0;
+        SessionConfig sessionConfig = SessionConfig.builder().withFetchSize(graphConfig.getStreamFetchSize()).build();
+        try (Session session = driver.session(sessionConfig); Transaction tx = session.beginTransaction()) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.GET_ALL_NODES, Map.of());
+            while (result.hasNext()) {
+                NodeVO nodeVO = GraphRecordUtils.toNodeVO(result.next(), true);
+                Document document = new Document(nodeVO.getName(), toFields(nodeVO.getProperties()));
+                addPostings(newPostings, document);
+                newDocuments.put(document.name, document);
+                newTotalLength += document.length;
+            }
+        } catch (Exception e) {
+            log.error("加载节点全文索引失败", e);
+            lock.writeLock().lock();
+            try {
+                pendingEvents = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加载节点全文索引失败，数据库错误");
+        }
+        lock.writeLock().lock();
+        try {
+            documents = newDocuments;
+            postings = newPostings;
+            totalLength = newTotalLength;
+            for (GraphChangeEvent event : pendingEvents) {
+                apply(event.getChangeType(), event.getName(), event.getProperties());
+            }
+            pendingEvents = null;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("节点全文索引构建完成，节点数: {}，词数: {}，耗时: {} ms", newDocuments.size(), newPostings.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * 应用一条节点变更，调用方持有写锁；创建覆盖已有文档，更新合并属性，删除移除文档
+     */
+    private void apply(GraphChangeTypeEnum changeType, String name, Map<String, Object> properties) {
+        Document previous = documents.remove(name);
+        if (previous != null) {
+            removePostings(previous);
+            totalLength -= previous.length;
+        }
+        Map<String, String> fields;
+        if (changeType == GraphChangeTypeEnum.NODE_CREATED) {
+            fields = toFields(properties);
+        } else if (changeType == GraphChangeTypeEnum.NODE_UPDATED && previous != null) {
+            fields = new HashMap<>(previous.fields);
+            if (properties != null) {
+                for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                    String value = toText(entry.getValue());
+                    if (value == null) {
+                        fields.remove(entry.getKey());
+                    } else {
+                        fields.put(entry.getKey(), value);
+                    }
+                }
+            }
+        } else {
+            return;
+        }
+        fields.remove("name");
+        Document document = new Document(name, fields);
+        addPostings(postings, document);
+        documents.put(name, document);
+        totalLength += document.length;
+    }
+
+    private void removePostings(Document document) {
+        for (String term : document.termFrequencies.keySet()) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(document.name);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addPostings(Map<String, Map<String, Integer>> target, Document document) {
+        for (Map.Entry<String, Integer> entry : document.termFrequencies.entrySet()) {
+            target.computeIfAbsent(entry.getKey(), key -> new HashMap<>()).put(document.name, entry.getValue());
+        }
+    }
+
+    /**
+     * 命中查询词的字段（名称字段为 name）
+     */
+    private static List<String> matchedFields(Document document, Set<String> terms) {
+        List<String> result = new ArrayList<>();
+        if (containsAny(document.name, terms)) {
+            result.add("name");
+        }
+        for (Map.Entry<String, String> entry : document.fields.entrySet()) {
+            if (containsAny(entry.getValue(), terms)) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    private static boolean containsAny(String value, Set<String> terms) {
+        boolean[] found = new boolean[1];
+        tokenize(value, false, term -> found[0] |= terms.contains(term));
+        return found[0];
+    }
+
+    /**
+     * 取出可搜索的属性：字符串及字符串列表（以空格拼接），不含 name
+     */
+    private static Map<String, String> toFields(Map<String, Object> properties) {
+        Map<String, String> fields = new HashMap<>();
+        if (properties == null) {
+            return fields;
+        }
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            String value = toText(entry.getValue());
+            if (value != null && !"name".equals(entry.getKey())) {
+                fields.put(entry.getKey(), value);
+            }
+        }
+        return fields;
+    }
+
+    private static String toText(Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof List) {
+            StringBuilder text = new StringBuilder();
+            for (Object element : (List<?>) value) {
+                if (element instanceof String) {
+                    text.append(element).append(' ');
+                }
+            }
+            return text.length() == 0 ? null : text.toString();
+        }
+        return null;
+    }
+
+    /**
+     * 分词
+     *
+     * @param text 文本
+     * @param forQuery 查询时连续表意文字只按两字切分，建立索引时单字和两字都输出
+     * @param sink 输出
+     */
+    private static void tokenize(String text, boolean forQuery, Consumer<String> sink) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        int length = lower.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = lower.codePointAt(i);
+            if (Character.isIdeographic(codePoint)) {
+                // 连续的表意文字段
+                List<String> chars = new ArrayList<>();
+                while (i < length && Character.isIdeographic(lower.codePointAt(i))) {
+                    int cp = lower.codePointAt(i);
+                    chars.add(new String(Character.toChars(cp)));
+                    i += Character.charCount(cp);
+                }
+                if (!forQuery || chars.size() == 1) {
+                    chars.forEach(sink);
+                }
+                for (int k = 0; k + 1 < chars.size(); k++) {
+                    sink.accept(chars.get(k) + chars.get(k + 1));
+                }
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(lower.codePointAt(i))
+                        && !Character.isIdeographic(lower.codePointAt(i))) {
+                    i += Character.charCount(lower.codePointAt(i));
+                }
+                sink.accept(lower.substring(start, i));
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+    }
+
+    /**
+     * 索引中的节点文档，名称也参与索引
+     */
+    private static class Document {
+
+        private final String name;
+
+        private final Map<String, String> fields;
+
+        private final Map<String, Integer> termFrequencies = new HashMap<>();
+
+        private final int length;
+
+        private Document(String name, Map<String, String> fields) {
+            this.name = name;
+            this.fields = fields;
+            int count = 0;
+            List<String> terms = new ArrayList<>();
+            tokenize(name, false, terms::add);
+            for (String value : fields.values()) {
+                tokenize(value, false, terms::add);
+            }
+            for (String term : terms) {
+                termFrequencies.merge(term, 1, Integer::sum);
+                count++;
+            }
+            this.length = count;
+        }
+    }
+
+    private static class Candidate {
+
+        private final String name;
+
+        private int matchedTerms;
+
+        private double score;
+
+        private Candidate(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.scy.mytemplate.model.dto.analytics;
+
+import lombok.Data;
+
+/**
+ * 用于封装图谱中心性分析请求的参数对象。
+ */
+@Data
+public class GraphAnalyticsRequest {
+
+    /**
+     * PageRank 阻尼系数，为空时为 0.85
+     */
+    private Double dampingFactor;
+
+    /**
+     * PageRank 最大迭代次数，为空时为 20
+     */
+    private Integer maxIterations;
+
+    /**
+     * PageRank 收敛阈值（两次迭代得分差之和），为空时为 1e-6
+     */
+    private Double tolerance;
+
+    /**
+     * 是否计算介数中心性（代价为 O(源点数 × 关系数)）
+     */
+    private boolean betweenness;
+
+    /**
+     * 介数中心性抽样的源点数，为空时使用 graph.analytics-betweenness-max-sources，不能超过该上限
+     */
+    private Integer betweennessSamples;
+
+    /**
+     * 是否把得分写回节点属性（pageRank / degreeCentrality / betweenness）
+     */
+    private boolean writeBack;
+
+    /**
+     * 结果中每项得分返回的前 topK 个节点，为空时为 10
+     */
+    private Integer topK;
+}
@@ -0,0 +1,15 @@
+package com.scy.mytemplate.model.dto.graphimport;
+
+import lombok.Data;
+
+/**
+ * 用于封装继续导入请求的参数对象。
+ */
+@Data
+public class GraphImportResumeRequest {
+
+    /**
+     * 导入任务 id
+     */
+    private String taskId;
+}
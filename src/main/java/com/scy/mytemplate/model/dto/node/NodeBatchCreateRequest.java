@@ -0,0 +1,18 @@
+package com.scy.mytemplate.model.dto.node;
+
+import com.scy.mytemplate.model.entity.Node;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用于封装批量创建节点请求的参数对象。
+ */
+@Data
+public class NodeBatchCreateRequest {
+
+    /**
+     * 待创建的节点列表，每个节点包含名称和属性。
+     */
+    private List<Node> nodes;
+}
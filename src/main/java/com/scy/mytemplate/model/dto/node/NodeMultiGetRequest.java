@@ -0,0 +1,17 @@
+package com.scy.mytemplate.model.dto.node;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用于封装按名称批量查询节点请求的参数对象。
+ */
+@Data
+public class NodeMultiGetRequest {
+
+    /**
+     * 待查询的节点名称列表，重复的名称只查询一次。
+     */
+    private List<String> names;
+}
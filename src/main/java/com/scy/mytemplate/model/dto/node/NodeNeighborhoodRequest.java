@@ -0,0 +1,33 @@
+package com.scy.mytemplate.model.dto.node;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用于封装节点邻域查询请求的参数对象。
+ * 从起始节点出发按跳数向外扩展，每跳每个节点最多扩展 fanOut 个新邻居（指向已访问节点的关系不计入）。
+ */
+@Data
+public class NodeNeighborhoodRequest {
+
+    /**
+     * 起始节点名称
+     */
+    private String name;
+
+    /**
+     * 扩展跳数
+     */
+    private int depth = 1;
+
+    /**
+     * 每跳每个节点最多扩展的新邻居数
+     */
+    private int fanOut = 50;
+
+    /**
+     * 只沿这些关系类型扩展，为空表示不限
+     */
+    private List<String> relationshipTypes;
+}
@@ -0,0 +1,19 @@
+package com.scy.mytemplate.model.dto.node;
+
+import com.scy.mytemplate.common.CursorPageRequest;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 用于封装节点游标分页请求的参数对象。
+ * 节点按名称升序排列，通过上一页返回的游标获取下一页。
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class NodePageRequest extends CursorPageRequest {
+
+    /**
+     * 是否包含属性
+     */
+    boolean isIncludeProperties;
+}
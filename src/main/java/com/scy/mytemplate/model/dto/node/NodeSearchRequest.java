@@ -0,0 +1,23 @@
+package com.scy.mytemplate.model.dto.node;
+
+import com.scy.mytemplate.common.PageRequest;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 用于封装节点全文搜索请求的参数对象。
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class NodeSearchRequest extends PageRequest {
+
+    /**
+     * 查询文本，匹配节点名称及字符串属性
+     */
+    private String query;
+
+    /**
+     * 是否返回命中节点的属性
+     */
+    private boolean isIncludeProperties;
+}
@@ -0,0 +1,30 @@
+package com.scy.mytemplate.model.dto.path;
+
+import lombok.Data;
+
+/**
+ * 用于封装两节点之间路径查询请求的参数对象。
+ */
+@Data
+public class PathQueryRequest {
+
+    /**
+     * 起始节点名称
+     */
+    private String fromNode;
+
+    /**
+     * 结束节点名称
+     */
+    private String toNode;
+
+    /**
+     * 路径最大长度（跳数）
+     */
+    private int maxDepth = 5;
+
+    /**
+     * 最多返回的路径条数
+     */
+    private int k = 10;
+}
@@ -0,0 +1,17 @@
+package com.scy.mytemplate.model.dto.relationship;
+
+import com.scy.mytemplate.model.entity.Relationship;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用于封装批量创建关系请求的参数对象。
+ */
+@Data
+public class RelationshipBatchCreateRequest {
+    /**
+     * 待创建的关系列表，每条关系的属性中需包含 fromNode 和 toNode。
+     */
+    private List<Relationship> relationships;
+}
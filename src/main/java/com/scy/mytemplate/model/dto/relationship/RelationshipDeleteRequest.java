@@ -22,4 +22,10 @@ public class RelationshipDeleteRequest {
      * 键为属性的名称，值为属性对应的值，可以是各种数据类型（如字符串、数字、布尔值等），具体取决于知识图谱的定义和应用场景。
      */
     private Map<String, Object> properties;
+
+    /**
+     * properties 中未给出端点时，显式声明删除该类型的全部关系；
+     * 不设置时仍按旧接口行为删除该类型的全部关系，但该用法已弃用
+     */
+    private boolean deleteAllOfType;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.scy.mytemplate.model.dto.relationship;
+
+import com.scy.mytemplate.common.CursorPageRequest;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 用于封装关系游标分页请求的参数对象。
+ * 关系按起点名称、再按内部 id 升序排列，通过上一页返回的游标获取下一页。
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class RelationshipPageRequest extends CursorPageRequest {
+
+    /**
+     * 是否包含属性
+     */
+    boolean isIncludeProperties;
+}
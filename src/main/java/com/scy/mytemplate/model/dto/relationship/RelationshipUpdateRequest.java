@@ -16,6 +16,17 @@ public class RelationshipUpdateRequest {
      */
     private String name;
 
+    /**
+     * 待更新关系当前的起始节点名称，与 toNode 一起标识关系；
+     * 为空时沿用旧接口行为（已弃用）：删除该类型的全部关系，再按 properties 中的端点创建一条关系
+     */
+    private String fromNode;
+
+    /**
+     * 待更新关系当前的结束节点名称
+     */
+    private String toNode;
+
     /**
      * 关系的属性集合，以键值对的形式存储。
      * 这些属性用于描述关系的各种特征，例如关系的权重、方向等。
@@ -0,0 +1,25 @@
+package com.scy.mytemplate.model.dto.view;
+
+import lombok.Data;
+
+/**
+ * 用于封装图谱可视化快照请求的参数对象。
+ */
+@Data
+public class GraphViewRequest {
+
+    /**
+     * 是否包含节点属性
+     */
+    boolean isIncludeProperties;
+
+    /**
+     * 是否开启细节层次模式：节点数超过 maxNodes 时只保留度数最高的节点，其余节点折叠
+     */
+    boolean lod;
+
+    /**
+     * 细节层次模式下返回的最大节点数，为空时使用配置 graph.view-max-nodes，不能超过该配置
+     */
+    Integer maxNodes;
+}
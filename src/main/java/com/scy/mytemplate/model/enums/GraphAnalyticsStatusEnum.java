@@ -0,0 +1,28 @@
+package com.scy.mytemplate.model.enums;
+
+/**
+ * 图谱分析任务状态枚举
+ */
+public enum GraphAnalyticsStatusEnum {
+
+    RUNNING("运行中", "running"),
+    SUCCEEDED("已完成", "succeeded"),
+    FAILED("失败", "failed");
+
+    private final String text;
+
+    private final String value;
+
+    GraphAnalyticsStatusEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,69 @@
+package com.scy.mytemplate.model.enums;
+
+/**
+ * 图谱变更类型枚举
+ */
+public enum GraphChangeTypeEnum {
+
+    NODE_CREATED("创建节点", "node_created"),
+    NODE_UPDATED("更新节点", "node_updated"),
+    NODE_DELETED("删除节点", "node_deleted"),
+    RELATIONSHIP_CREATED("创建关系", "relationship_created"),
+    RELATIONSHIP_UPDATED("更新关系", "relationship_updated"),
+    RELATIONSHIP_DELETED("删除关系", "relationship_deleted"),
+    RELATIONSHIP_TYPE_DELETED("删除类型的全部关系", "relationship_type_deleted"),
+    NODES_BULK_UPDATED("批量更新节点属性", "nodes_bulk_updated");
+
+    private final String text;
+
+    private final String value;
+
+    GraphChangeTypeEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据 value 获取枚举
+     *
+     * @param value
+     * @return
+     */
+    public static GraphChangeTypeEnum getEnumByValue(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        for (GraphChangeTypeEnum anEnum : GraphChangeTypeEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 是否为节点变更
+     *
+     * @return
+     */
+    public boolean isNodeChange() {
+        return this == NODE_CREATED || this == NODE_UPDATED || this == NODE_DELETED;
+    }
+
+    /**
+     * 是否无法增量应用：变更只记录汇总信息，客户端需全量同步
+     *
+     * @return
+     */
+    public boolean isResyncRequired() {
+        return this == NODES_BULK_UPDATED;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
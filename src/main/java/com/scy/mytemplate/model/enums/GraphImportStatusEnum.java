@@ -0,0 +1,29 @@
+package com.scy.mytemplate.model.enums;
+
+/**
+ * 图谱文件导入任务状态枚举
+ */
+public enum GraphImportStatusEnum {
+
+    WAITING("等待中", "waiting"),
+    RUNNING("导入中", "running"),
+    SUCCEEDED("已完成", "succeeded"),
+    FAILED("失败", "failed");
+
+    private final String text;
+
+    private final String value;
+
+    GraphImportStatusEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,109 @@
+package com.scy.mytemplate.model.enums;
+
+/**
+ * 图谱 Cypher 语句枚举
+ * 语句文本固定，取值全部通过参数传入，便于 Neo4j 复用执行计划；
+ * 关系类型无法参数化，使用 %s 占位，由调用方传入转义后的类型名。
+ */
+public enum GraphStatementEnum {
+
+    CREATE_NODE("创建节点", "CREATE (n:AMSNet $properties)"),
+    CREATE_NODES("批量创建节点", "UNWIND $rows AS row " +
+            "OPTIONAL MATCH (e:AMSNet {name: row.name}) " +
+            "WITH row, e IS NULL AS created " +
+            "FOREACH (ignored IN CASE WHEN created THEN [1] ELSE [] END | " +
+            "CREATE (n:AMSNet {name: row.name}) SET n += row.properties) " +
+            "RETURN row.name AS name, created"),
+    DELETE_NODE("删除节点", "MATCH (n:AMSNet {name: $name}) DETACH DELETE n"),
+    UPDATE_NODE("更新节点", "MATCH (n:AMSNet {name: $name}) SET n += $properties"),
+    UPDATE_NODES("批量更新节点", "UNWIND $rows AS row " +
+            "MATCH (n:AMSNet {name: row.name}) SET n += row.properties RETURN row.name AS name"),
+    DELETE_NODES("批量删除节点", "UNWIND $names AS name " +
+            "MATCH (n:AMSNet {name: name}) DETACH DELETE n RETURN name"),
+    FIND_NODE("查询节点", "MATCH (n:AMSNet {name: $name}) RETURN n"),
+    FIND_NODES("批量查询节点", "UNWIND $names AS name MATCH (n:AMSNet {name: name}) RETURN n"),
+    CREATE_RELATIONSHIP("创建关系", "OPTIONAL MATCH (a:AMSNet {name: $fromNode}) " +
+            "OPTIONAL MATCH (b:AMSNet {name: $toNode}) " +
+            "OPTIONAL MATCH (a)-[e:%1$s]->(b) " +
+            "WITH a, b, count(e) > 0 AS existed " +
+            "FOREACH (ignored IN CASE WHEN a IS NOT NULL AND b IS NOT NULL AND NOT existed THEN [1] ELSE [] END | " +
+            "CREATE (a)-[r:%1$s]->(b) SET r = $properties) " +
+            "RETURN a IS NOT NULL AS fromExists, b IS NOT NULL AS toExists, existed"),
+    CREATE_RELATIONSHIPS("批量创建关系", "UNWIND $rows AS row " +
+            "OPTIONAL MATCH (a:AMSNet {name: row.fromNode}) " +
+            "WITH row, head(collect(a)) AS a " +
+            "OPTIONAL MATCH (b:AMSNet {name: row.toNode}) " +
+            "WITH row, a, head(collect(b)) AS b " +
+            "OPTIONAL MATCH (a)-[e:%1$s]->(b) " +
+            "WITH row, a, b, count(e) > 0 AS existed " +
+            "FOREACH (ignored IN CASE WHEN a IS NOT NULL AND b IS NOT NULL AND NOT existed THEN [1] ELSE [] END | " +
+            "CREATE (a)-[r:%1$s]->(b) SET r += row.properties) " +
+            "RETURN row.index AS index, a IS NOT NULL AS fromExists, b IS NOT NULL AS toExists, existed"),
+    DELETE_RELATIONSHIP("删除关系", "MATCH ()-[r:%s]-() DELETE r"),
+    FIND_RELATIONSHIP("查询关系", "MATCH ()-[r:%s]-() RETURN r LIMIT 1"),
+    FIND_RELATIONSHIP_BETWEEN("按端点查询关系", "MATCH (a:AMSNet {name: $fromNode})-[r:%s]->(b:AMSNet {name: $toNode}) " +
+            "RETURN type(r) AS name, a.name AS fromNode, b.name AS toNode, properties(r) AS properties LIMIT 1"),
+    UPDATE_RELATIONSHIP_BETWEEN("按端点更新关系", "MATCH (a:AMSNet {name: $fromNode})-[r:%s]->(b:AMSNet {name: $toNode}) " +
+            "SET r = $properties RETURN count(r) AS count"),
+    DELETE_RELATIONSHIP_BETWEEN("按端点删除关系", "MATCH (a:AMSNet {name: $fromNode})-[r:%s]->(b:AMSNet {name: $toNode}) " +
+            "DELETE r RETURN count(r) AS count"),
+    GET_ALL_NODES("获取全部节点", "MATCH (n:AMSNet) RETURN n"),
+    GET_ALL_RELATIONSHIPS("获取全部关系", "MATCH ()-[r]->() RETURN type(r) AS name, r.fromNode AS fromNode, r.toNode AS toNode"),
+    LIST_NODES_PAGE("分页获取节点", "MATCH (n:AMSNet) WHERE n.name > $afterName RETURN n ORDER BY n.name LIMIT $limit"),
+    LIST_RELATIONSHIPS_PAGE("分页获取关系", "MATCH (n:AMSNet) WHERE n.name >= $afterName WITH n ORDER BY n.name " +
+            "CALL { WITH n MATCH (n)-[r]->() WHERE n.name > $afterName OR id(r) > $afterId RETURN r ORDER BY id(r) } " +
+            "RETURN n.name AS anchor, id(r) AS id, type(r) AS name, r.fromNode AS fromNode, r.toNode AS toNode LIMIT $limit"),
+    CREATE_NAME_CONSTRAINT("创建节点名称唯一约束", "CREATE CONSTRAINT amsnet_name_unique IF NOT EXISTS " +
+            "FOR (n:AMSNet) REQUIRE n.name IS UNIQUE"),
+    SHOW_NAME_CONSTRAINT("查询节点名称唯一约束", "SHOW CONSTRAINTS YIELD type, labelsOrTypes, properties " +
+            "WHERE type = 'UNIQUENESS' AND labelsOrTypes = ['AMSNet'] AND properties = ['name'] RETURN count(*) AS count"),
+    SHOW_INDEXES("查询索引状态", "SHOW INDEXES YIELD name, type, entityType, labelsOrTypes, properties, state, populationPercent " +
+            "RETURN name, type, entityType, labelsOrTypes, properties, state, populationPercent"),
+    NEIGHBORHOOD_HOP("邻域单跳扩展", "UNWIND $frontier AS name " +
+            "MATCH (f:AMSNet {name: name}) " +
+            "CALL { " +
+            "WITH f " +
+            "MATCH (f)-[r]-(m:AMSNet) " +
+            "WHERE ($types IS NULL OR type(r) IN $types) AND NOT m.name IN $visited " +
+            "RETURN r, m LIMIT $fanOut " +
+            "UNION ALL " +
+            "WITH f " +
+            "MATCH (f)-[r]-(m:AMSNet) " +
+            "WHERE ($types IS NULL OR type(r) IN $types) AND m.name IN $visited " +
+            "RETURN r, m LIMIT $limit " +
+            "} " +
+            "RETURN id(r) AS id, m.name AS neighbor, type(r) AS name, startNode(r).name AS fromNode, " +
+            "endNode(r).name AS toNode, properties(r) AS properties " +
+            "LIMIT $limit"),
+    FIND_PATHS("最短路径查询", "MATCH (a:AMSNet {name: $fromNode}), (b:AMSNet {name: $toNode}) " +
+            "MATCH p = allShortestPaths((a)-[*..%s]-(b)) " +
+            "RETURN length(p) AS length, [n IN nodes(p) | n.name] AS nodes, " +
+            "[r IN relationships(p) | {name: type(r), fromNode: startNode(r).name, toNode: endNode(r).name, properties: properties(r)}] AS rels " +
+            "LIMIT $limit"),
+    PATH_EXISTS("路径存在性查询", "MATCH (a:AMSNet {name: $fromNode}), (b:AMSNet {name: $toNode}) " +
+            "MATCH p = shortestPath((a)-[*..%s]-(b)) " +
+            "RETURN length(p) AS length LIMIT 1"),
+    SNAPSHOT_NODES("加载快照节点", "MATCH (n:AMSNet) RETURN n.name AS name"),
+    SNAPSHOT_RELATIONSHIPS("加载快照关系", "MATCH (a:AMSNet)-[r]->(b:AMSNet) " +
+            "RETURN a.name AS fromNode, b.name AS toNode, type(r) AS name"),
+    WRITE_NODE_SCORES("写回节点得分", "UNWIND $rows AS row MATCH (n:AMSNet {name: row.name}) SET n += row.scores"),
+    EXPORT_RELATIONSHIPS("导出全部关系", "MATCH (a:AMSNet)-[r]->(b:AMSNet) " +
+            "RETURN type(r) AS name, a.name AS fromNode, b.name AS toNode, properties(r) AS properties");
+
+    private final String text;
+
+    private final String cypher;
+
+    GraphStatementEnum(String text, String cypher) {
+        this.text = text;
+        this.cypher = cypher;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getCypher() {
+        return cypher;
+    }
+}
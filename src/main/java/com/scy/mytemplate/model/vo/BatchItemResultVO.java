@@ -0,0 +1,57 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+/**
+ * 批量操作中单条记录的执行结果
+ */
+@Data
+public class BatchItemResultVO {
+    /**
+     * 记录在请求列表中的下标
+     */
+    private int index;
+
+    /**
+     * 记录标识（节点名称或关系名称）
+     */
+    private String name;
+
+    /**
+     * 是否成功
+     */
+    private boolean success;
+
+    /**
+     * 失败原因，成功时为空
+     */
+    private String message;
+
+    /**
+     * 是否因数据库错误失败（临时错误重试后仍失败），重新提交可能成功；校验类失败为 false
+     */
+    private boolean retryable;
+
+    public static BatchItemResultVO success(int index, String name) {
+        BatchItemResultVO itemResultVO = new BatchItemResultVO();
+        itemResultVO.setIndex(index);
+        itemResultVO.setName(name);
+        itemResultVO.setSuccess(true);
+        return itemResultVO;
+    }
+
+    public static BatchItemResultVO fail(int index, String name, String message) {
+        BatchItemResultVO itemResultVO = new BatchItemResultVO();
+        itemResultVO.setIndex(index);
+        itemResultVO.setName(name);
+        itemResultVO.setSuccess(false);
+        itemResultVO.setMessage(message);
+        return itemResultVO;
+    }
+
+    public static BatchItemResultVO retryableFail(int index, String name, String message) {
+        BatchItemResultVO itemResultVO = fail(index, name, message);
+        itemResultVO.setRetryable(true);
+        return itemResultVO;
+    }
+}
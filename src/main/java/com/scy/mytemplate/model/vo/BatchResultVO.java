@@ -0,0 +1,41 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量操作的汇总结果
+ */
+@Data
+public class BatchResultVO {
+    /**
+     * 请求记录总数
+     */
+    private int total;
+
+    /**
+     * 成功条数
+     */
+    private int successCount;
+
+    /**
+     * 失败条数
+     */
+    private int failCount;
+
+    /**
+     * 失败中因数据库错误导致、可重新提交的条数
+     */
+    private int retryableFailCount;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long costMillis;
+
+    /**
+     * 每条记录的执行结果，顺序与请求列表一致
+     */
+    private List<BatchItemResultVO> items;
+}
@@ -0,0 +1,44 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+/**
+ * 缓存统计视图
+ */
+@Data
+public class CacheStatsVO {
+    /**
+     * 是否开启
+     */
+    private boolean enabled;
+
+    /**
+     * 当前缓存条数
+     */
+    private int size;
+
+    /**
+     * 最大容量
+     */
+    private int capacity;
+
+    /**
+     * 过期时间（毫秒）
+     */
+    private long timeoutMillis;
+
+    /**
+     * 命中次数
+     */
+    private long hitCount;
+
+    /**
+     * 未命中次数
+     */
+    private long missCount;
+
+    /**
+     * 命中率
+     */
+    private double hitRate;
+}
@@ -0,0 +1,28 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ *
+ * @param <T>
+ */
+@Data
+public class CursorPageVO<T> {
+    /**
+     * 当前页记录
+     */
+    private List<T> records;
+
+    /**
+     * 下一页游标，没有更多数据时为空
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,132 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 图谱中心性分析结果及运行统计
+ */
+@Data
+public class GraphAnalyticsRunVO {
+    /**
+     * 任务 id
+     */
+    private String taskId;
+
+    /**
+     * 任务状态：running / succeeded / failed
+     */
+    private String status;
+
+    /**
+     * 失败原因
+     */
+    private String errorMessage;
+
+    /**
+     * 开始时间
+     */
+    private Date startedAt;
+
+    /**
+     * 结束时间
+     */
+    private Date finishedAt;
+
+    /**
+     * 节点数
+     */
+    private int nodeCount;
+
+    /**
+     * 关系数
+     */
+    private int relationshipCount;
+
+    /**
+     * 并行度
+     */
+    private int parallelism;
+
+    /**
+     * PageRank 实际迭代次数
+     */
+    private int pageRankIterations;
+
+    /**
+     * PageRank 是否收敛
+     */
+    private boolean pageRankConverged;
+
+    /**
+     * 介数中心性使用的源点数，未计算时为 0
+     */
+    private int betweennessSources;
+
+    /**
+     * 加载图结构耗时（毫秒）
+     */
+    private long loadMillis;
+
+    /**
+     * 度中心性计算耗时（毫秒）
+     */
+    private long degreeMillis;
+
+    /**
+     * PageRank 计算耗时（毫秒）
+     */
+    private long pageRankMillis;
+
+    /**
+     * 介数中心性计算耗时（毫秒）
+     */
+    private long betweennessMillis;
+
+    /**
+     * 写回耗时（毫秒）
+     */
+    private long writeMillis;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private long totalMillis;
+
+    /**
+     * 图结构估算内存（字节）
+     */
+    private long projectionBytes;
+
+    /**
+     * 算法工作数组估算内存（字节）
+     */
+    private long workingBytes;
+
+    /**
+     * 运行结束时的堆内存占用（字节）
+     */
+    private long heapUsedBytes;
+
+    /**
+     * 写回的节点数
+     */
+    private long writtenCount;
+
+    /**
+     * PageRank 最高的节点
+     */
+    private List<GraphScoreVO> topPageRank;
+
+    /**
+     * 度中心性最高的节点
+     */
+    private List<GraphScoreVO> topDegree;
+
+    /**
+     * 介数中心性最高的节点，未计算时为空
+     */
+    private List<GraphScoreVO> topBetweenness;
+}
@@ -0,0 +1,46 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 图谱变更记录
+ */
+@Data
+public class GraphChangeVO {
+    /**
+     * 变更后的图谱版本号
+     */
+    private long version;
+
+    /**
+     * 变更类型，取值见 GraphChangeTypeEnum；删除节点时与其相连的关系一并删除，不单独记录
+     */
+    private String changeType;
+
+    /**
+     * 节点名称或关系类型
+     */
+    private String name;
+
+    /**
+     * 关系起始节点名称，节点变更时为空
+     */
+    private String fromNode;
+
+    /**
+     * 关系结束节点名称，节点变更时为空；删除关系时端点为空表示删除了该类型的全部关系
+     */
+    private String toNode;
+
+    /**
+     * 创建/更新时写入的属性，删除时为空
+     */
+    private Map<String, Object> properties;
+
+    /**
+     * 变更时间（毫秒时间戳）
+     */
+    private long timestamp;
+}
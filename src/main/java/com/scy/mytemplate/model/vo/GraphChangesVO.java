@@ -0,0 +1,36 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 图谱增量变更结果
+ */
+@Data
+public class GraphChangesVO {
+    /**
+     * 变更日志所属的进程标识，服务重启后变化，变化时客户端需要全量同步
+     */
+    private String epoch;
+
+    /**
+     * 当前图谱版本号
+     */
+    private long version;
+
+    /**
+     * since 之后的变更，按版本号递增
+     */
+    private List<GraphChangeVO> changes;
+
+    /**
+     * 是否还有更多变更，为 true 时以最后一条变更的版本号继续拉取
+     */
+    private boolean hasMore;
+
+    /**
+     * 是否需要全量同步：请求的版本已被截断出变更日志，或属于之前的进程，或之后有批量更新节点属性的变更
+     */
+    private boolean resyncRequired;
+}
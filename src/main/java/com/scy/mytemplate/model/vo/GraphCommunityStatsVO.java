@@ -0,0 +1,86 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 连通分量与社区发现结果统计
+ */
+@Data
+public class GraphCommunityStatsVO {
+    /**
+     * 计算时的图谱版本号
+     */
+    private long version;
+
+    /**
+     * 结果是否落后于当前图谱版本
+     */
+    private boolean stale;
+
+    /**
+     * 计算完成时间
+     */
+    private Date computedAt;
+
+    /**
+     * 节点数
+     */
+    private int nodeCount;
+
+    /**
+     * 关系数
+     */
+    private int relationshipCount;
+
+    /**
+     * 弱连通分量数
+     */
+    private int componentCount;
+
+    /**
+     * 最大分量的节点数
+     */
+    private int largestComponentSize;
+
+    /**
+     * 孤立节点数（没有任何关系的节点）
+     */
+    private int isolatedNodeCount;
+
+    /**
+     * 社区数
+     */
+    private int communityCount;
+
+    /**
+     * 最大社区的节点数
+     */
+    private int largestCommunitySize;
+
+    /**
+     * 标签传播迭代次数
+     */
+    private int labelPropagationIterations;
+
+    /**
+     * 标签传播是否收敛
+     */
+    private boolean labelPropagationConverged;
+
+    /**
+     * 加载图结构耗时（毫秒）
+     */
+    private long loadMillis;
+
+    /**
+     * 连通分量计算耗时（毫秒）
+     */
+    private long componentMillis;
+
+    /**
+     * 标签传播耗时（毫秒）
+     */
+    private long communityMillis;
+}
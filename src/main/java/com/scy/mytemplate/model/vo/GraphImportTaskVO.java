@@ -0,0 +1,92 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 图谱文件导入任务视图，同时作为断点文件的内容
+ */
+@Data
+public class GraphImportTaskVO {
+    /**
+     * 任务 id
+     */
+    private String taskId;
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    /**
+     * 任务状态，见 GraphImportStatusEnum
+     */
+    private String status;
+
+    /**
+     * 当前阶段：node 写入节点，relationship 写入关系
+     */
+    private String phase;
+
+    /**
+     * 本次运行已读取的数据行数
+     */
+    private long readRows;
+
+    /**
+     * 节点写入成功数
+     */
+    private long nodeSuccessCount;
+
+    /**
+     * 节点写入失败数（含已存在）
+     */
+    private long nodeFailCount;
+
+    /**
+     * 关系写入成功数
+     */
+    private long relationshipSuccessCount;
+
+    /**
+     * 关系写入失败数
+     */
+    private long relationshipFailCount;
+
+    /**
+     * 节点断点：前 nodeCheckpoint 个节点行已处理完毕，继续导入时跳过
+     */
+    private long nodeCheckpoint;
+
+    /**
+     * 关系断点：前 relationshipCheckpoint 个关系行已处理完毕，继续导入时跳过
+     */
+    private long relationshipCheckpoint;
+
+    /**
+     * 当前阶段断点之后已写入成功的行序号（批次乱序完成或部分写入失败时），继续导入时跳过，避免重复写入
+     */
+    private List<Long> writtenRows;
+
+    /**
+     * 本次运行每秒写入行数
+     */
+    private double rowsPerSecond;
+
+    /**
+     * 本次运行耗时（毫秒）
+     */
+    private long costMillis;
+
+    /**
+     * 本次运行开始时间
+     */
+    private Date startTime;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+/**
+ * 节点得分
+ */
+@Data
+public class GraphScoreVO {
+    /**
+     * 节点名称
+     */
+    private String name;
+
+    /**
+     * 得分
+     */
+    private double score;
+
+    public GraphScoreVO(String name, double score) {
+        this.name = name;
+        this.score = score;
+    }
+}
@@ -0,0 +1,66 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 内存邻接快照统计视图
+ */
+@Data
+public class GraphSnapshotStatsVO {
+    /**
+     * 是否开启
+     */
+    private boolean enabled;
+
+    /**
+     * 是否已加载
+     */
+    private boolean loaded;
+
+    /**
+     * 是否有无法增量应用、等待全量重建的写入
+     */
+    private boolean stale;
+
+    /**
+     * 覆盖层中尚未合并进 CSR 的变更数
+     */
+    private int overlayChanges;
+
+    /**
+     * 节点数
+     */
+    private int nodeCount;
+
+    /**
+     * 关系数
+     */
+    private int relationshipCount;
+
+    /**
+     * 关系类型数
+     */
+    private int relationshipTypeCount;
+
+    /**
+     * 估算内存占用（字节）
+     */
+    private long estimatedBytes;
+
+    /**
+     * 每条关系的邻接数组占用（字节）
+     */
+    private double bytesPerRelationship;
+
+    /**
+     * 最近一次构建耗时（毫秒）
+     */
+    private long buildMillis;
+
+    /**
+     * 最近一次构建完成时间
+     */
+    private Date builtAt;
+}
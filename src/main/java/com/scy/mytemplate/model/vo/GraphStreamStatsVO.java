@@ -0,0 +1,34 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+/**
+ * 图谱变更推送统计视图
+ */
+@Data
+public class GraphStreamStatsVO {
+    /**
+     * 当前订阅数
+     */
+    private int subscriberCount;
+
+    /**
+     * 最大订阅数
+     */
+    private int maxSubscribers;
+
+    /**
+     * 已推送到的图谱版本号
+     */
+    private long version;
+
+    /**
+     * 推送的批次数（按订阅者累计）
+     */
+    private long sentBatchCount;
+
+    /**
+     * 因缓冲已满或连接异常被断开的订阅数
+     */
+    private long droppedSubscriberCount;
+}
@@ -0,0 +1,58 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 图谱可视化快照（紧凑格式）
+ * 节点编号即 names 下标；第 i 条关系为 edges[2i] -> edges[2i + 1]，类型为 types[edgeTypes[i]]。
+ */
+@Data
+public class GraphViewVO {
+    /**
+     * 节点名称，下标为节点编号
+     */
+    private List<String> names;
+
+    /**
+     * 节点属性，与 names 一一对应，不包含属性时为空
+     */
+    private List<Map<String, Object>> properties;
+
+    /**
+     * 关系类型字典
+     */
+    private List<String> types;
+
+    /**
+     * 关系端点编号对，依次为起始节点、结束节点
+     */
+    private int[] edges;
+
+    /**
+     * 关系类型编号，与关系一一对应
+     */
+    private int[] edgeTypes;
+
+    /**
+     * 图谱中的节点总数
+     */
+    private int totalNodes;
+
+    /**
+     * 图谱中的关系总数
+     */
+    private int totalRelationships;
+
+    /**
+     * 是否经过细节层次采样
+     */
+    private boolean sampled;
+
+    /**
+     * 采样时每个保留节点连向被折叠节点的关系数，未采样时为空
+     */
+    private int[] hiddenDegrees;
+}
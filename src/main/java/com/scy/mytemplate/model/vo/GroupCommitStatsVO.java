@@ -0,0 +1,49 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+/**
+ * 写入组提交统计视图
+ */
+@Data
+public class GroupCommitStatsVO {
+    /**
+     * 是否开启
+     */
+    private boolean enabled;
+
+    /**
+     * 队列中等待提交的写入数
+     */
+    private int queueSize;
+
+    /**
+     * 队列长度
+     */
+    private int queueCapacity;
+
+    /**
+     * 提交到队列的写入数
+     */
+    private long submittedCount;
+
+    /**
+     * 被合并掉的写入数
+     */
+    private long coalescedCount;
+
+    /**
+     * 提交的事务数
+     */
+    private long commitCount;
+
+    /**
+     * 提交失败的事务数
+     */
+    private long failedCommitCount;
+
+    /**
+     * 平均每个事务包含的写入数（合并前）
+     */
+    private double averageBatchSize;
+}
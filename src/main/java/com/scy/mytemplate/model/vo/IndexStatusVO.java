@@ -0,0 +1,46 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 索引状态视图
+ */
+@Data
+public class IndexStatusVO {
+    /**
+     * 索引名称
+     */
+    private String name;
+
+    /**
+     * 索引类型（BTREE、LOOKUP 等）
+     */
+    private String type;
+
+    /**
+     * 实体类型（NODE / RELATIONSHIP）
+     */
+    private String entityType;
+
+    /**
+     * 标签或关系类型
+     */
+    private List<String> labelsOrTypes;
+
+    /**
+     * 属性
+     */
+    private List<String> properties;
+
+    /**
+     * 状态（ONLINE / POPULATING / FAILED）
+     */
+    private String state;
+
+    /**
+     * 填充进度（百分比）
+     */
+    private double populationPercent;
+}
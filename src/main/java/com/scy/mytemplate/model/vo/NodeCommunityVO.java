@@ -0,0 +1,44 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+/**
+ * 节点所属的连通分量与社区
+ */
+@Data
+public class NodeCommunityVO {
+    /**
+     * 节点名称
+     */
+    private String name;
+
+    /**
+     * 弱连通分量编号
+     */
+    private int componentId;
+
+    /**
+     * 所在分量的节点数，为 1 表示孤立节点
+     */
+    private int componentSize;
+
+    /**
+     * 社区编号
+     */
+    private int communityId;
+
+    /**
+     * 所在社区的节点数
+     */
+    private int communitySize;
+
+    /**
+     * 结果对应的图谱版本号
+     */
+    private long version;
+
+    /**
+     * 结果是否落后于当前图谱版本
+     */
+    private boolean stale;
+}
@@ -0,0 +1,27 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按名称批量查询节点的结果
+ */
+@Data
+public class NodeMultiGetVO {
+    /**
+     * 节点名称到节点的映射，按请求顺序排列，只包含存在的节点
+     */
+    private Map<String, NodeVO> nodes;
+
+    /**
+     * 不存在的节点名称
+     */
+    private List<String> missingNames;
+
+    /**
+     * 是否有不存在的节点
+     */
+    private boolean hasMissing;
+}
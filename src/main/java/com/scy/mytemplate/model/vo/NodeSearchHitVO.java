@@ -0,0 +1,38 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 节点全文搜索的一条结果
+ */
+@Data
+public class NodeSearchHitVO {
+
+    /**
+     * 节点名称
+     */
+    private String name;
+
+    /**
+     * BM25 得分
+     */
+    private double score;
+
+    /**
+     * 命中的查询词个数，排序时优先于得分
+     */
+    private int matchedTerms;
+
+    /**
+     * 命中查询词的字段（节点名称为 name）
+     */
+    private List<String> matchedFields;
+
+    /**
+     * 节点属性，仅在请求时返回
+     */
+    private Map<String, Object> properties;
+}
@@ -0,0 +1,26 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 路径视图
+ */
+@Data
+public class PathVO {
+    /**
+     * 路径长度（关系数）
+     */
+    private int length;
+
+    /**
+     * 途经节点名称，按路径顺序
+     */
+    private List<String> nodes;
+
+    /**
+     * 途经关系，按路径顺序，属性中包含 fromNode 和 toNode
+     */
+    private List<RelationshipVO> relationships;
+}
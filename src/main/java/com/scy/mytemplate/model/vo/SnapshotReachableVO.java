@@ -0,0 +1,19 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+/**
+ * 基于内存快照的可达性视图
+ */
+@Data
+public class SnapshotReachableVO {
+    /**
+     * 是否存在长度不超过上限的路径
+     */
+    private boolean reachable;
+
+    /**
+     * 快照是否有尚未应用的写入
+     */
+    private boolean stale;
+}
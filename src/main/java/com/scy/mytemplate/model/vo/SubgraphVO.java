@@ -0,0 +1,36 @@
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 子图视图（节点及节点之间的关系）
+ */
+@Data
+public class SubgraphVO {
+    /**
+     * 节点列表
+     */
+    private List<NodeVO> nodes;
+
+    /**
+     * 关系列表，属性中包含 fromNode 和 toNode
+     */
+    private List<RelationshipVO> relationships;
+
+    /**
+     * 结果是否因超过节点上限或关系上限而被截断
+     */
+    private boolean truncated;
+
+    /**
+     * 关系列表是否因超过关系上限而被截断
+     */
+    private boolean relationshipsTruncated;
+
+    /**
+     * 基于内存快照查询时表示快照是否有尚未应用的写入，直接查询数据库时为空
+     */
+    private Boolean stale;
+}
@@ -0,0 +1,44 @@
+package com.scy.mytemplate.service;
+
+import com.scy.mytemplate.model.dto.analytics.GraphAnalyticsRequest;
+import com.scy.mytemplate.model.vo.GraphAnalyticsRunVO;
+import com.scy.mytemplate.model.vo.GraphCommunityStatsVO;
+import com.scy.mytemplate.model.vo.NodeCommunityVO;
+
+/**
+ * 图谱分析服务：在内存 CSR 图上并行计算中心性（可选写回节点属性）、连通分量与社区
+ */
+public interface GraphAnalyticsService {
+    /**
+     * 提交 PageRank、度中心性及可选的介数中心性（按上限抽样源点）计算，同一时刻只允许一个分析任务
+     * 任务在分析线程上执行并受截止时间限制，完成后通过 getLastRun 获取结果
+     * @param graphAnalyticsRequest 分析参数
+     * @return 运行中的任务（含任务 id）
+     */
+    GraphAnalyticsRunVO runCentrality(GraphAnalyticsRequest graphAnalyticsRequest);
+
+    /**
+     * 获取最近一次分析的状态、结果及运行统计
+     * @return 尚未运行过返回 null
+     */
+    GraphAnalyticsRunVO getLastRun();
+
+    /**
+     * 计算弱连通分量与标签传播社区，结果按图谱版本缓存，版本未变化时直接返回缓存
+     * @return 结果统计
+     */
+    GraphCommunityStatsVO computeCommunities();
+
+    /**
+     * 获取缓存的连通分量与社区统计
+     * @return 尚未计算过返回 null
+     */
+    GraphCommunityStatsVO getCommunityStats();
+
+    /**
+     * 查询节点所属的连通分量与社区，使用缓存结果，尚未计算过时先计算一次
+     * @param name 节点名称
+     * @return 节点不在结果中返回 null
+     */
+    NodeCommunityVO getNodeCommunity(String name);
+}
@@ -0,0 +1,33 @@
+package com.scy.mytemplate.service;
+
+import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.RelationshipVO;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 图谱异步查询服务，基于驱动的 AsyncSession，等待数据库期间不占用请求线程
+ */
+public interface GraphAsyncService {
+    /**
+     * 查询节点（根据节点名称）
+     * @param name 节点名称
+     * @return 节点不存在时结果为 null
+     */
+    CompletableFuture<NodeVO> findNode(String name);
+
+    /**
+     * 获取全部节点
+     * @param isIncludeProperties 是否包含属性
+     * @return
+     */
+    CompletableFuture<List<NodeVO>> getAllNodes(boolean isIncludeProperties);
+
+    /**
+     * 获取全部关系
+     * @param isIncludeProperties 是否包含属性
+     * @return
+     */
+    CompletableFuture<List<RelationshipVO>> getAllRelationships(boolean isIncludeProperties);
+}
@@ -0,0 +1,30 @@
+package com.scy.mytemplate.service;
+
+import com.scy.mytemplate.model.vo.GraphImportTaskVO;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 图谱文件导入服务：从 xlsx / csv 或二进制快照（.amsg）批量导入节点和关系
+ */
+public interface GraphImportService {
+    /**
+     * 保存上传文件并提交导入任务
+     * @param multipartFile xlsx / xls / csv / amsg 文件
+     * @return 任务 id
+     */
+    String importFile(MultipartFile multipartFile);
+
+    /**
+     * 从断点继续失败的导入任务
+     * @param taskId 任务 id
+     * @return 任务 id
+     */
+    String resume(String taskId);
+
+    /**
+     * 查询导入进度
+     * @param taskId 任务 id
+     * @return 任务不存在返回 null
+     */
+    GraphImportTaskVO getProgress(String taskId);
+}
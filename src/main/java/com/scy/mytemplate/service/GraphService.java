@@ -1,10 +1,27 @@
 package com.scy.mytemplate.service;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.scy.mytemplate.model.entity.Node;
+import com.scy.mytemplate.model.entity.Relationship;
+import com.scy.mytemplate.model.vo.BatchResultVO;
+import com.scy.mytemplate.model.vo.CacheStatsVO;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphViewVO;
+import com.scy.mytemplate.model.vo.GroupCommitStatsVO;
+import com.scy.mytemplate.model.vo.IndexStatusVO;
+import com.scy.mytemplate.model.vo.NodeMultiGetVO;
+import com.scy.mytemplate.model.vo.NodeSearchHitVO;
 import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.PathVO;
 import com.scy.mytemplate.model.vo.RelationshipVO;
+import com.scy.mytemplate.model.vo.SubgraphVO;
 
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface GraphService {
     /**
@@ -15,6 +32,13 @@ public interface GraphService {
      */
     String createNode(String name, Map<String, Object> properties);
 
+    /**
+     * 批量创建节点（按配置的批大小分块，每块一个事务，通过 UNWIND 一次写入）
+     * @param nodes 节点列表
+     * @return 每个节点的创建结果
+     */
+    BatchResultVO createNodes(List<Node> nodes);
+
     /**
      * 删除节点（根据节点名称）
      * @param name 节点名称
@@ -30,6 +54,43 @@ public interface GraphService {
      */
     String updateNode(String name, Map<String, Object> newProperties);
 
+    /**
+     * 提交创建节点；开启组提交时进入写入队列，与其他写入合并在一个事务中提交
+     * @param name 节点名称
+     * @param properties 节点属性
+     * @return 事务提交后完成，完成值为节点名称；未开启组提交时直接执行
+     */
+    CompletableFuture<String> submitCreateNode(String name, Map<String, Object> properties);
+
+    /**
+     * 提交更新节点，同 submitCreateNode
+     * @param name 节点名称
+     * @param newProperties 新属性
+     * @return
+     */
+    CompletableFuture<String> submitUpdateNode(String name, Map<String, Object> newProperties);
+
+    /**
+     * 提交删除节点，同 submitCreateNode
+     * @param name 节点名称
+     * @return
+     */
+    CompletableFuture<String> submitDeleteNode(String name);
+
+    /**
+     * 提交创建关系，同 submitCreateNode
+     * @param name 关系类型
+     * @param properties 关系属性，需包含 fromNode 和 toNode
+     * @return
+     */
+    CompletableFuture<String> submitCreateRelationship(String name, Map<String, Object> properties);
+
+    /**
+     * 获取写入组提交的统计信息
+     * @return
+     */
+    GroupCommitStatsVO getGroupCommitStats();
+
     /**
      * 查询节点（根据节点名称）
      * @param name
@@ -38,7 +99,42 @@ public interface GraphService {
     NodeVO findNode(String name);
 
     /**
-     * 创建关系（根据节点名称和关系属性）
+     * 按名称批量查询节点，缓存未命中的名称在一次查询中获取
+     * @param names 节点名称
+     * @return 名称到节点的映射和不存在的名称
+     */
+    NodeMultiGetVO findNodes(Collection<String> names);
+
+    /**
+     * 全文搜索节点名称及字符串属性，按相关度排序分页
+     * @param query 查询文本
+     * @param isIncludeProperties 是否返回命中节点的属性
+     * @param current 页号，从 1 开始
+     * @param pageSize 页面大小
+     * @return 当前页结果及命中总数
+     */
+    Page<NodeSearchHitVO> searchNodes(String query, boolean isIncludeProperties, long current, long pageSize);
+
+    /**
+     * 获取节点读缓存的统计信息（命中/未命中次数等）
+     * @return
+     */
+    CacheStatsVO getNodeCacheStats();
+
+    /**
+     * 获取各命名语句的执行次数
+     * @return 语句名 -> 执行次数
+     */
+    Map<String, Long> getStatementStats();
+
+    /**
+     * 获取图谱索引及其状态
+     * @return
+     */
+    List<IndexStatusVO> listIndexes();
+
+    /**
+     * 创建关系（根据节点名称和关系属性），端点不存在或两端点间已有同类型关系时不创建
      * @param name 关系名称
      * @param properties 关系属性
      * @return
@@ -46,18 +142,27 @@ public interface GraphService {
     String createRelationship(String name, Map<String, Object> properties);
 
     /**
-     * 删除关系（根据关系名称）
-     * @param name
+     * 批量创建关系（按关系类型分组，每组按批大小分块写入）
+     * @param relationships 关系列表，属性中需包含 fromNode 和 toNode
+     * @return 每条关系的创建结果，端点不存在的记录单独返回失败原因
+     */
+    BatchResultVO createRelationships(List<Relationship> relationships);
+
+    /**
+     * 删除某类型的全部关系，仅在调用方显式要求时使用
+     * @param name 关系类型
      * @return
      */
-    String deleteRelationship(String name);
+    String deleteRelationshipsOfType(String name);
 
     /**
-     * 更新关系（根据关系名称和新属性）
-     * @param name
-     * @param newProperties
+     * 旧接口语义：删除该类型的全部关系，再按新属性中的 fromNode / toNode 创建一条关系（同一事务内完成）
+     * @param name 关系类型
+     * @param newProperties 新属性，必须包含 fromNode 和 toNode
      * @return
+     * @deprecated 会替换该类型的全部关系，请使用按原端点定位的 {@link #updateRelationship(String, String, String, Map)}
      */
+    @Deprecated
     String updateRelationship(String name, Map<String, Object> newProperties);
 
     /**
@@ -68,16 +173,127 @@ public interface GraphService {
     RelationshipVO findRelationship(String name);
 
     /**
-     * 获取全部节点
+     * 按关系类型和端点查询关系，从端点节点出发匹配，代价与节点度数相关
+     * @param name 关系类型
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @return 不存在返回 null，同一端点间有多条同类型关系时返回其中一条
+     */
+    RelationshipVO findRelationship(String name, String fromNode, String toNode);
+
+    /**
+     * 按关系类型和端点删除关系（同一端点间的同类型关系全部删除）
+     * @param name 关系类型
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @return
+     */
+    String deleteRelationship(String name, String fromNode, String toNode);
+
+    /**
+     * 按关系类型和原端点更新关系：属性整体替换；新属性中的 fromNode / toNode 与原端点不同时，
+     * 在同一事务内删除原端点间的该类型关系并在新端点间创建关系
+     * @param name 关系类型
+     * @param fromNode 原起始节点名称
+     * @param toNode 原结束节点名称
+     * @param newProperties 新属性
+     * @return
+     */
+    String updateRelationship(String name, String fromNode, String toNode, Map<String, Object> newProperties);
+
+    /**
+     * 在一个事务中读取全部节点和关系，以紧凑格式返回供前端渲染
+     * @param isIncludeProperties 是否包含节点属性
+     * @param lod 是否开启细节层次模式
+     * @param maxNodes 细节层次模式下返回的最大节点数，为空时使用配置
+     * @return
+     */
+    GraphViewVO getGraphView(boolean isIncludeProperties, boolean lod, Integer maxNodes);
+
+    /**
+     * 获取全部节点，超过配置的最大行数时拒绝，需改用分页或流式接口
      * @param isIncludeProperties
      * @return
      */
     List<NodeVO> getAllNodes(boolean isIncludeProperties);
 
     /**
-     *获取全部关系
+     *获取全部关系，超过配置的最大行数时拒绝，需改用分页或流式接口
      * @param isIncludeProperties
      * @return
      */
     List<RelationshipVO> getAllRelationships(boolean isIncludeProperties);
+
+    /**
+     * 流式遍历全部节点，逐条回调，不在内存中汇总
+     * @param isIncludeProperties 是否包含属性
+     * @param consumer 每个节点的处理回调
+     * @return 遍历的节点数
+     */
+    long streamAllNodes(boolean isIncludeProperties, Consumer<NodeVO> consumer);
+
+    /**
+     * 流式遍历全部关系，逐条回调，不在内存中汇总
+     * @param isIncludeProperties 是否包含属性
+     * @param consumer 每条关系的处理回调
+     * @return 遍历的关系数
+     */
+    long streamAllRelationships(boolean isIncludeProperties, Consumer<RelationshipVO> consumer);
+
+    /**
+     * 将全部节点和关系导出为二进制快照（格式见 GraphBinaryFormat），在同一个读事务中完成以保证一致。
+     * 中途失败时以错误记录结束文件后抛出 BusinessException
+     * @param channel 输出通道，调用方负责关闭
+     * @return 导出的节点数和关系数之和
+     */
+    long exportBinary(WritableByteChannel channel);
+
+    /**
+     * 游标分页获取节点（按节点名称升序）
+     * @param isIncludeProperties 是否包含属性
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param pageSize 页面大小
+     * @return
+     */
+    CursorPageVO<NodeVO> listNodesByCursor(boolean isIncludeProperties, String cursor, int pageSize);
+
+    /**
+     * 游标分页获取关系（按起点名称、再按关系内部 id 升序）
+     * 起点按名称索引顺序逐个展开，读满一页即停止，每页代价与页面大小相关而与总关系数无关；
+     * 只包含起点带 :AMSNet 标签的关系，本服务写入的节点都带该标签，因此与 getAllRelationships 的结果一致
+     * @param isIncludeProperties 是否包含属性
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param pageSize 页面大小
+     * @return
+     */
+    CursorPageVO<RelationshipVO> listRelationshipsByCursor(boolean isIncludeProperties, String cursor, int pageSize);
+
+    /**
+     * 邻域查询：从起始节点出发扩展 depth 跳，返回途经的节点和关系。每跳一次往返，同一读事务内完成
+     * @param name 起始节点名称
+     * @param depth 跳数
+     * @param fanOut 每跳每个节点最多扩展的新邻居关系数，指向已访问节点的关系不计入
+     * @param relationshipTypes 只沿这些关系类型扩展，为空表示不限
+     * @return 起始节点不存在时返回 null
+     */
+    SubgraphVO getNeighborhood(String name, int depth, int fanOut, List<String> relationshipTypes);
+
+    /**
+     * 查询两节点之间的最短路径（全部等长最短路径，最多 k 条）
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @param maxDepth 路径最大长度
+     * @param k 最多返回的路径条数
+     * @return 不连通时返回空列表
+     */
+    List<PathVO> findPaths(String fromNode, String toNode, int maxDepth, int k);
+
+    /**
+     * 判断两节点之间是否存在长度不超过 maxDepth 的路径，找到一条即返回
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @param maxDepth 路径最大长度
+     * @return
+     */
+    boolean pathExists(String fromNode, String toNode, int maxDepth);
 }
\ No newline at end of file
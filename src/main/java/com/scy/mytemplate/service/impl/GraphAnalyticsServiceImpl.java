@@ -0,0 +1,533 @@
+package com.scy.mytemplate.service.impl;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.IdUtil;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.graph.CsrGraph;
+import com.scy.mytemplate.graph.GraphAlgorithms;
+import com.scy.mytemplate.manager.GraphChangeLogManager;
+import com.scy.mytemplate.manager.GraphSnapshotManager;
+import com.scy.mytemplate.manager.GraphStatementManager;
+import com.scy.mytemplate.manager.NodeCacheManager;
+import com.scy.mytemplate.model.dto.analytics.GraphAnalyticsRequest;
+import com.scy.mytemplate.model.enums.GraphAnalyticsStatusEnum;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import com.scy.mytemplate.model.vo.GraphAnalyticsRunVO;
+import com.scy.mytemplate.model.vo.GraphCommunityStatsVO;
+import com.scy.mytemplate.model.vo.GraphScoreVO;
+import com.scy.mytemplate.model.vo.NodeCommunityVO;
+import com.scy.mytemplate.service.GraphAnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class GraphAnalyticsServiceImpl implements GraphAnalyticsService {
+
+    private static final double DEFAULT_DAMPING_FACTOR = 0.85;
+
+    private static final int DEFAULT_MAX_ITERATIONS = 20;
+
+    private static final double DEFAULT_TOLERANCE = 1e-6;
+
+    private static final int DEFAULT_TOP_K = 10;
+
+    private static final int MAX_TOP_K = 1000;
+
+    private static final int MAX_ITERATIONS_LIMIT = 1000;
+
+    /**
+     * 介数中心性抽样的随机种子，固定以便结果可复现
+     */
+    private static final long SAMPLE_SEED = 42L;
+
+    private final Driver driver;
+    private final GraphConfig graphConfig;
+    private final GraphStatementManager graphStatementManager;
+    private final GraphSnapshotManager graphSnapshotManager;
+    private final NodeCacheManager nodeCacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GraphChangeLogManager graphChangeLogManager;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * 中心性分析与定时社区计算在单独的线程上执行，不占用请求线程和调度线程
+     */
+    private final ExecutorService analyticsExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * 定时社区计算已提交且尚未结束，避免重复排队
+     */
+    private final AtomicBoolean communityRefreshing = new AtomicBoolean();
+
+    private volatile GraphAnalyticsRunVO lastRun;
+
+    /**
+     * 最近一次连通分量与社区结果，整体替换
+     */
+    private volatile CommunityResult communityResult;
+
+    @Autowired
+    public GraphAnalyticsServiceImpl(Driver driver, GraphConfig graphConfig, GraphStatementManager graphStatementManager,
+                                     GraphSnapshotManager graphSnapshotManager, NodeCacheManager nodeCacheManager,
+                                     ApplicationEventPublisher eventPublisher, GraphChangeLogManager graphChangeLogManager) {
+        this.driver = driver;
+        this.graphConfig = graphConfig;
+        this.graphStatementManager = graphStatementManager;
+        this.graphSnapshotManager = graphSnapshotManager;
+        this.nodeCacheManager = nodeCacheManager;
+        this.eventPublisher = eventPublisher;
+        this.graphChangeLogManager = graphChangeLogManager;
+        int parallelism = graphConfig.getAnalyticsParallelism() > 0
+                ? graphConfig.getAnalyticsParallelism() : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+        this.analyticsExecutor = Executors.newSingleThreadExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("graph-analytics-").build());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        analyticsExecutor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Override
+    public GraphAnalyticsRunVO runCentrality(GraphAnalyticsRequest graphAnalyticsRequest) {
+        // 1. 校验参数
+        if (graphAnalyticsRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        double dampingFactor = graphAnalyticsRequest.getDampingFactor() == null
+                ? DEFAULT_DAMPING_FACTOR : graphAnalyticsRequest.getDampingFactor();
+        int maxIterations = graphAnalyticsRequest.getMaxIterations() == null
+                ? DEFAULT_MAX_ITERATIONS : graphAnalyticsRequest.getMaxIterations();
+        double tolerance = graphAnalyticsRequest.getTolerance() == null
+                ? DEFAULT_TOLERANCE : graphAnalyticsRequest.getTolerance();
+        int topK = graphAnalyticsRequest.getTopK() == null ? DEFAULT_TOP_K : graphAnalyticsRequest.getTopK();
+        if (dampingFactor <= 0 || dampingFactor >= 1) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "阻尼系数需在 0 到 1 之间");
+        }
+        if (maxIterations <= 0 || maxIterations > MAX_ITERATIONS_LIMIT) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "迭代次数需在 1 到 " + MAX_ITERATIONS_LIMIT + " 之间");
+        }
+        if (tolerance < 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "收敛阈值不能为负数");
+        }
+        if (topK < 0 || topK > MAX_TOP_K) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "topK 需在 0 到 " + MAX_TOP_K + " 之间");
+        }
+        // 介数中心性默认按上限抽样，避免在大图上执行 O(节点数 × 关系数) 的精确计算
+        int maxSources = Math.max(1, graphConfig.getAnalyticsBetweennessMaxSources());
+        Integer betweennessSamples = graphAnalyticsRequest.getBetweennessSamples();
+        if (betweennessSamples != null && (betweennessSamples <= 0 || betweennessSamples > maxSources)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "抽样源点数需在 1 到 " + maxSources + " 之间");
+        }
+        int samples = betweennessSamples == null ? maxSources : betweennessSamples;
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "已有分析任务在运行，请稍后重试");
+        }
+        // 2. 提交到分析线程后立即返回任务 id，结果通过 lastRun 查询
+        GraphAnalyticsRunVO runningRun = new GraphAnalyticsRunVO();
+        runningRun.setTaskId(IdUtil.simpleUUID());
+        runningRun.setStatus(GraphAnalyticsStatusEnum.RUNNING.getValue());
+        runningRun.setStartedAt(new Date());
+        runningRun.setParallelism(pool.getParallelism());
+        lastRun = runningRun;
+        try {
+            analyticsExecutor.execute(() -> runCentralityTask(runningRun, graphAnalyticsRequest, dampingFactor,
+                    maxIterations, tolerance, topK, samples));
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "提交分析任务失败");
+        }
+        return runningRun;
+    }
+
+    /**
+     * 在分析线程上执行中心性分析，结束后替换 lastRun 并释放运行标记
+     */
+    private void runCentralityTask(GraphAnalyticsRunVO runningRun, GraphAnalyticsRequest graphAnalyticsRequest,
+                                   double dampingFactor, int maxIterations, double tolerance, int topK, int samples) {
+        try {
+            lastRun = computeCentrality(runningRun, graphAnalyticsRequest, dampingFactor, maxIterations, tolerance,
+                    topK, samples);
+        } catch (CancellationException e) {
+            log.warn("图谱中心性分析超过截止时间，已中止，taskId: {}", runningRun.getTaskId());
+            lastRun = toFailedRun(runningRun, "分析超过截止时间，已中止");
+        } catch (BusinessException e) {
+            lastRun = toFailedRun(runningRun, e.getMessage());
+        } catch (Exception e) {
+            log.error("图谱中心性分析失败，taskId: {}", runningRun.getTaskId(), e);
+            lastRun = toFailedRun(runningRun, "分析失败，系统错误");
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private GraphAnalyticsRunVO computeCentrality(GraphAnalyticsRunVO runningRun, GraphAnalyticsRequest graphAnalyticsRequest,
+                                                  double dampingFactor, int maxIterations, double tolerance, int topK,
+                                                  int samples) {
+        GraphAnalyticsRunVO graphAnalyticsRunVO = new GraphAnalyticsRunVO();
+        graphAnalyticsRunVO.setTaskId(runningRun.getTaskId());
+        graphAnalyticsRunVO.setStartedAt(runningRun.getStartedAt());
+        graphAnalyticsRunVO.setParallelism(pool.getParallelism());
+        long startTime = System.currentTimeMillis();
+        long deadlineMillis = graphConfig.getAnalyticsTimeoutMillis() > 0
+                ? runningRun.getStartedAt().getTime() + graphConfig.getAnalyticsTimeoutMillis() : 0;
+        // 1. 加载图结构（快照可用时直接使用快照）
+        CsrGraph graph = graphSnapshotManager.getCurrentOrLoad();
+        checkDeadline(deadlineMillis);
+        int nodeCount = graph.nodeCount();
+        graphAnalyticsRunVO.setNodeCount(nodeCount);
+        graphAnalyticsRunVO.setRelationshipCount(graph.relationshipCount());
+        graphAnalyticsRunVO.setProjectionBytes(graph.estimatedBytes());
+        long phaseStart = System.currentTimeMillis();
+        graphAnalyticsRunVO.setLoadMillis(phaseStart - startTime);
+        // 2. 度中心性与 PageRank：得分数组 + PageRank 双缓冲
+        double[] degreeScores = GraphAlgorithms.degreeCentrality(pool, graph);
+        graphAnalyticsRunVO.setDegreeMillis(System.currentTimeMillis() - phaseStart);
+        phaseStart = System.currentTimeMillis();
+        GraphAlgorithms.PageRankResult pageRankResult = GraphAlgorithms.pageRank(pool, graph, dampingFactor,
+                maxIterations, tolerance);
+        double[] pageRankScores = pageRankResult.getScores();
+        graphAnalyticsRunVO.setPageRankMillis(System.currentTimeMillis() - phaseStart);
+        graphAnalyticsRunVO.setPageRankIterations(pageRankResult.getIterations());
+        graphAnalyticsRunVO.setPageRankConverged(pageRankResult.isConverged());
+        checkDeadline(deadlineMillis);
+        long workingBytes = 8L * nodeCount * 3;
+        // 3. 介数中心性：每个并行任务一组工作数组（距离、路径数、依赖、访问顺序、得分）
+        double[] betweennessScores = null;
+        if (graphAnalyticsRequest.isBetweenness()) {
+            phaseStart = System.currentTimeMillis();
+            int[] sources = selectSources(nodeCount, samples);
+            betweennessScores = GraphAlgorithms.betweenness(pool, graph, sources, deadlineMillis);
+            graphAnalyticsRunVO.setBetweennessSources(sources.length);
+            graphAnalyticsRunVO.setBetweennessMillis(System.currentTimeMillis() - phaseStart);
+            workingBytes += 4L * sources.length + (8L * 3 + 4L * 2) * nodeCount * pool.getParallelism();
+        }
+        graphAnalyticsRunVO.setWorkingBytes(workingBytes);
+        graphAnalyticsRunVO.setTopDegree(top(graph, degreeScores, topK));
+        graphAnalyticsRunVO.setTopPageRank(top(graph, pageRankScores, topK));
+        if (betweennessScores != null) {
+            graphAnalyticsRunVO.setTopBetweenness(top(graph, betweennessScores, topK));
+        }
+        // 4. 写回节点属性
+        if (graphAnalyticsRequest.isWriteBack()) {
+            phaseStart = System.currentTimeMillis();
+            graphAnalyticsRunVO.setWrittenCount(writeScores(graph, pageRankScores, degreeScores, betweennessScores));
+            graphAnalyticsRunVO.setWriteMillis(System.currentTimeMillis() - phaseStart);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        graphAnalyticsRunVO.setHeapUsedBytes(runtime.totalMemory() - runtime.freeMemory());
+        graphAnalyticsRunVO.setTotalMillis(System.currentTimeMillis() - startTime);
+        graphAnalyticsRunVO.setFinishedAt(new Date());
+        graphAnalyticsRunVO.setStatus(GraphAnalyticsStatusEnum.SUCCEEDED.getValue());
+        log.info("图谱中心性分析完成，节点数: {}，关系数: {}，PageRank 迭代: {}，介数源点数: {}，写回: {}，cost: {} ms",
+                nodeCount, graph.relationshipCount(), pageRankResult.getIterations(),
+                graphAnalyticsRunVO.getBetweennessSources(), graphAnalyticsRunVO.getWrittenCount(),
+                graphAnalyticsRunVO.getTotalMillis());
+        return graphAnalyticsRunVO;
+    }
+
+    private GraphAnalyticsRunVO toFailedRun(GraphAnalyticsRunVO runningRun, String errorMessage) {
+        GraphAnalyticsRunVO graphAnalyticsRunVO = new GraphAnalyticsRunVO();
+        BeanUtils.copyProperties(runningRun, graphAnalyticsRunVO);
+        graphAnalyticsRunVO.setStatus(GraphAnalyticsStatusEnum.FAILED.getValue());
+        graphAnalyticsRunVO.setErrorMessage(errorMessage);
+        graphAnalyticsRunVO.setFinishedAt(new Date());
+        return graphAnalyticsRunVO;
+    }
+
+    private static void checkDeadline(long deadlineMillis) {
+        if (deadlineMillis > 0 && System.currentTimeMillis() > deadlineMillis) {
+            throw new CancellationException("分析超过截止时间");
+        }
+    }
+
+    @Override
+    public GraphAnalyticsRunVO getLastRun() {
+        return lastRun;
+    }
+
+    /**
+     * 定时计算连通分量与社区，图谱版本未变化时跳过；计算提交到分析线程，调度线程立即返回
+     */
+    @Scheduled(fixedDelayString = "${graph.community-refresh-millis:60000}")
+    public void refreshCommunitiesIfChanged() {
+        if (!graphConfig.isCommunityEnabled() || !communityRefreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            analyticsExecutor.execute(() -> {
+                try {
+                    computeCommunities();
+                } catch (Exception e) {
+                    log.error("定时计算连通分量与社区失败", e);
+                } finally {
+                    communityRefreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            communityRefreshing.set(false);
+        }
+    }
+
+    @Override
+    public synchronized GraphCommunityStatsVO computeCommunities() {
+        // 版本号在加载前获取，加载期间的写入会使下一次重新计算
+        long version = graphChangeLogManager.currentVersion();
+        CommunityResult cached = communityResult;
+        if (cached != null && cached.stats.getVersion() == version) {
+            return toStats(cached);
+        }
+        long startTime = System.currentTimeMillis();
+        CsrGraph graph = graphSnapshotManager.getCurrentOrLoad();
+        GraphCommunityStatsVO graphCommunityStatsVO = new GraphCommunityStatsVO();
+        graphCommunityStatsVO.setVersion(version);
+        graphCommunityStatsVO.setNodeCount(graph.nodeCount());
+        graphCommunityStatsVO.setRelationshipCount(graph.relationshipCount());
+        long phaseStart = System.currentTimeMillis();
+        graphCommunityStatsVO.setLoadMillis(phaseStart - startTime);
+        // 1. 弱连通分量
+        int[] components = GraphAlgorithms.weaklyConnectedComponents(pool, graph);
+        int[] componentSizes = countSizes(components);
+        graphCommunityStatsVO.setComponentMillis(System.currentTimeMillis() - phaseStart);
+        graphCommunityStatsVO.setComponentCount(componentSizes.length);
+        graphCommunityStatsVO.setLargestComponentSize(max(componentSizes));
+        int isolatedNodeCount = 0;
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            if (graph.outDegree(v) + graph.inDegree(v) == 0) {
+                isolatedNodeCount++;
+            }
+        }
+        graphCommunityStatsVO.setIsolatedNodeCount(isolatedNodeCount);
+        // 2. 标签传播社区
+        phaseStart = System.currentTimeMillis();
+        GraphAlgorithms.LabelPropagationResult labelPropagationResult = GraphAlgorithms.labelPropagation(pool, graph,
+                Math.max(1, graphConfig.getCommunityMaxIterations()));
+        int[] communities = labelPropagationResult.getLabels();
+        int[] communitySizes = countSizes(communities);
+        graphCommunityStatsVO.setCommunityMillis(System.currentTimeMillis() - phaseStart);
+        graphCommunityStatsVO.setCommunityCount(communitySizes.length);
+        graphCommunityStatsVO.setLargestCommunitySize(max(communitySizes));
+        graphCommunityStatsVO.setLabelPropagationIterations(labelPropagationResult.getIterations());
+        graphCommunityStatsVO.setLabelPropagationConverged(labelPropagationResult.isConverged());
+        graphCommunityStatsVO.setComputedAt(new Date());
+        CommunityResult result = new CommunityResult(graph, components, componentSizes, communities, communitySizes,
+                graphCommunityStatsVO);
+        communityResult = result;
+        log.info("连通分量与社区计算完成，版本: {}，节点数: {}，分量数: {}，社区数: {}，cost: {} ms", version,
+                graph.nodeCount(), componentSizes.length, communitySizes.length, System.currentTimeMillis() - startTime);
+        return toStats(result);
+    }
+
+    @Override
+    public GraphCommunityStatsVO getCommunityStats() {
+        CommunityResult result = communityResult;
+        return result == null ? null : toStats(result);
+    }
+
+    @Override
+    public NodeCommunityVO getNodeCommunity(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        CommunityResult result = communityResult;
+        if (result == null) {
+            computeCommunities();
+            result = communityResult;
+        }
+        int id = result.graph.idOf(name);
+        if (id < 0) {
+            return null;
+        }
+        NodeCommunityVO nodeCommunityVO = new NodeCommunityVO();
+        nodeCommunityVO.setName(name);
+        nodeCommunityVO.setComponentId(result.components[id]);
+        nodeCommunityVO.setComponentSize(result.componentSizes[result.components[id]]);
+        nodeCommunityVO.setCommunityId(result.communities[id]);
+        nodeCommunityVO.setCommunitySize(result.communitySizes[result.communities[id]]);
+        nodeCommunityVO.setVersion(result.stats.getVersion());
+        nodeCommunityVO.setStale(result.stats.getVersion() != graphChangeLogManager.currentVersion());
+        return nodeCommunityVO;
+    }
+
+    private GraphCommunityStatsVO toStats(CommunityResult result) {
+        GraphCommunityStatsVO graphCommunityStatsVO = new GraphCommunityStatsVO();
+        BeanUtils.copyProperties(result.stats, graphCommunityStatsVO);
+        graphCommunityStatsVO.setStale(result.stats.getVersion() != graphChangeLogManager.currentVersion());
+        return graphCommunityStatsVO;
+    }
+
+    /**
+     * 统计每个编号（0..k-1）的节点数
+     */
+    private static int[] countSizes(int[] labels) {
+        int count = 0;
+        for (int label : labels) {
+            count = Math.max(count, label + 1);
+        }
+        int[] sizes = new int[count];
+        for (int label : labels) {
+            sizes[label]++;
+        }
+        return sizes;
+    }
+
+    private static int max(int[] values) {
+        int result = 0;
+        for (int value : values) {
+            result = Math.max(result, value);
+        }
+        return result;
+    }
+
+    /**
+     * 选择介数中心性的源点，抽样时使用固定种子的部分洗牌
+     */
+    private int[] selectSources(int nodeCount, int samples) {
+        int count = Math.min(samples, nodeCount);
+        int[] ids = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            ids[i] = i;
+        }
+        if (count == nodeCount) {
+            return ids;
+        }
+        Random random = new Random(SAMPLE_SEED);
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(nodeCount - i);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+        int[] sources = new int[count];
+        System.arraycopy(ids, 0, sources, 0, count);
+        return sources;
+    }
+
+    /**
+     * 取得分最高的 k 个节点（小顶堆）
+     */
+    private List<GraphScoreVO> top(CsrGraph graph, double[] scores, int k) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Comparator.comparingDouble((Integer id) -> scores[id]));
+        for (int id = 0; id < scores.length && k > 0; id++) {
+            if (heap.size() < k) {
+                heap.offer(id);
+            } else if (scores[id] > scores[heap.peek()]) {
+                heap.poll();
+                heap.offer(id);
+            }
+        }
+        List<GraphScoreVO> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            int id = heap.poll();
+            result.add(0, new GraphScoreVO(graph.nameOf(id), scores[id]));
+        }
+        return result;
+    }
+
+    /**
+     * 按 graph.batch-size 分批写回得分，每批一个事务；得分属于派生属性，写回后只发布一条批量更新事件，
+     * 不逐个节点写入变更日志
+     */
+    private long writeScores(CsrGraph graph, double[] pageRankScores, double[] degreeScores, double[] betweennessScores) {
+        int nodeCount = graph.nodeCount();
+        int batchSize = Math.max(1, graphConfig.getBatchSize());
+        List<String> keys = new ArrayList<>(List.of("pageRank", "degreeCentrality"));
+        if (betweennessScores != null) {
+            keys.add("betweenness");
+        }
+        long written = 0;
+        try (Session session = driver.session()) {
+            for (int from = 0; from < nodeCount; from += batchSize) {
+                int to = Math.min(from + batchSize, nodeCount);
+                List<Map<String, Object>> rows = new ArrayList<>(to - from);
+                for (int id = from; id < to; id++) {
+                    Map<String, Object> scores = new HashMap<>();
+                    scores.put("pageRank", pageRankScores[id]);
+                    scores.put("degreeCentrality", degreeScores[id]);
+                    if (betweennessScores != null) {
+                        scores.put("betweenness", betweennessScores[id]);
+                    }
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("name", graph.nameOf(id));
+                    row.put("scores", scores);
+                    rows.add(row);
+                }
+                try (Transaction tx = session.beginTransaction()) {
+                    graphStatementManager.run(tx, GraphStatementEnum.WRITE_NODE_SCORES, Map.of("rows", rows));
+                    tx.commit();
+                }
+                written += rows.size();
+            }
+        } catch (Exception e) {
+            log.error("写回节点得分失败，已写回: {}", written, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "写回节点得分失败，数据库错误");
+        } finally {
+            nodeCacheManager.invalidateAll();
+            // 部分写回失败时已提交的批次同样需要通知
+            if (written > 0) {
+                eventPublisher.publishEvent(GraphChangeEvent.nodesBulkUpdated(this, keys, written));
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 连通分量与社区结果，节点编号与 graph 一致，通过 graph.idOf 按名称 O(1) 定位
+     */
+    private static class CommunityResult {
+
+        private final CsrGraph graph;
+
+        private final int[] components;
+
+        private final int[] componentSizes;
+
+        private final int[] communities;
+
+        private final int[] communitySizes;
+
+        private final GraphCommunityStatsVO stats;
+
+        private CommunityResult(CsrGraph graph, int[] components, int[] componentSizes, int[] communities,
+                                int[] communitySizes, GraphCommunityStatsVO stats) {
+            this.graph = graph;
+            this.components = components;
+            this.componentSizes = componentSizes;
+            this.communities = communities;
+            this.communitySizes = communitySizes;
+            this.stats = stats;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.scy.mytemplate.service.impl;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.GraphStatementManager;
+import com.scy.mytemplate.manager.NodeCacheManager;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.RelationshipVO;
+import com.scy.mytemplate.service.GraphAsyncService;
+import com.scy.mytemplate.utils.GraphExceptionUtils;
+import com.scy.mytemplate.utils.GraphRecordUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.ResultCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+public class GraphAsyncServiceImpl implements GraphAsyncService {
+
+    private final Driver driver;
+    private final GraphConfig graphConfig;
+    private final NodeCacheManager nodeCacheManager;
+    private final GraphStatementManager graphStatementManager;
+
+    @Autowired
+    public GraphAsyncServiceImpl(Driver driver, GraphConfig graphConfig, NodeCacheManager nodeCacheManager,
+                                 GraphStatementManager graphStatementManager) {
+        this.driver = driver;
+        this.graphConfig = graphConfig;
+        this.nodeCacheManager = nodeCacheManager;
+        this.graphStatementManager = graphStatementManager;
+    }
+
+    @Override
+    public CompletableFuture<NodeVO> findNode(String name) {
+        // 1. 校验
+        if (name == null || name.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        // 2. 先查缓存（与同步查询共用）
+        Optional<NodeVO> cached = nodeCacheManager.get(name);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.orElse(null));
+        }
+        long cacheVersion = nodeCacheManager.currentVersion(name);
+        return readAsync(session -> session.readTransactionAsync(tx ->
+                graphStatementManager.runAsync(tx, GraphStatementEnum.FIND_NODE, Map.of("name", name))
+                        .thenCompose(cursor -> cursor.listAsync(record -> GraphRecordUtils.toNodeVO(record, true))),
+                graphConfig.readTransactionConfig("find-node")
+        ), "查询节点", null).thenApply(nodeVOs -> {
+            NodeVO nodeVO = nodeVOs.isEmpty() ? null : nodeVOs.get(0);
+            nodeCacheManager.put(name, nodeVO, cacheVersion);
+            return nodeVO;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<NodeVO>> getAllNodes(boolean isIncludeProperties) {
+        String alternative = "分页接口 /graph/listNodes/page 或流式接口 /graph/getAllNodes/stream";
+        int maxRows = graphConfig.resolveQueryMaxRows("get-all-nodes");
+        return readAsync(session -> session.readTransactionAsync(tx ->
+                graphStatementManager.runAsync(tx, GraphStatementEnum.GET_ALL_NODES, Map.of())
+                        .thenCompose(cursor -> listAsync(cursor, record -> GraphRecordUtils.toNodeVO(record, isIncludeProperties),
+                                maxRows, alternative)),
+                graphConfig.readTransactionConfig("get-all-nodes")
+        ), "获取全部节点", alternative);
+    }
+
+    @Override
+    public CompletableFuture<List<RelationshipVO>> getAllRelationships(boolean isIncludeProperties) {
+        String alternative = "分页接口 /graph/listRelationships/page 或流式接口 /graph/getAllRelationships/stream";
+        int maxRows = graphConfig.resolveQueryMaxRows("get-all-relationships");
+        return readAsync(session -> session.readTransactionAsync(tx ->
+                graphStatementManager.runAsync(tx, GraphStatementEnum.GET_ALL_RELATIONSHIPS, Map.of())
+                        .thenCompose(cursor -> listAsync(cursor, record -> GraphRecordUtils.toRelationshipVO(record, isIncludeProperties),
+                                maxRows, alternative)),
+                graphConfig.readTransactionConfig("get-all-relationships")
+        ), "获取全部关系", alternative);
+    }
+
+    /**
+     * 在新的异步会话中执行查询，完成后关闭会话，并将数据库异常转为业务异常
+     * 返回的 future 被取消时（如客户端断开）立即关闭会话，回滚事务并终止服务端查询
+     * @param work 查询逻辑
+     * @param action 操作描述
+     * @param alternative 超时时建议改用的接口，为空时提示稍后重试
+     * @param <T> 结果类型
+     * @return
+     */
+    private <T> CompletableFuture<T> readAsync(Function<AsyncSession, CompletionStage<T>> work, String action, String alternative) {
+        AsyncSession session = driver.asyncSession();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                log.info("{}已取消，关闭会话", action);
+                session.closeAsync();
+            }
+        });
+        CompletionStage<T> stage;
+        try {
+            stage = work.apply(session);
+        } catch (RuntimeException e) {
+            // 同步抛出的异常（如参数错误）同样关闭会话并以失败结束 future
+            stage = CompletableFuture.failedFuture(e);
+        }
+        stage.whenComplete((value, error) -> session.closeAsync().whenComplete((ignored, closeError) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause == null) {
+                future.complete(value);
+            } else if (!future.isCancelled()) {
+                // 已取消时会话关闭导致的异常无需记录
+                future.completeExceptionally(GraphExceptionUtils.toReadException(cause, action, alternative));
+            }
+        }));
+        return future;
+    }
+
+    /**
+     * 逐条读取结果，超过最大行数时以业务异常结束，事务随之回滚
+     * @param cursor 结果游标
+     * @param mapper 记录转换
+     * @param maxRows 最大行数，0 表示不限制
+     * @param alternative 建议改用的接口
+     * @param <T> 结果类型
+     * @return
+     */
+    private static <T> CompletionStage<List<T>> listAsync(ResultCursor cursor, Function<Record, T> mapper, int maxRows,
+                                                          String alternative) {
+        List<T> values = new ArrayList<>();
+        return cursor.forEachAsync(record -> {
+            if (maxRows > 0 && values.size() >= maxRows) {
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "结果超过 " + maxRows + " 条，数据量过大，请改用" + alternative);
+            }
+            values.add(mapper.apply(record));
+        }).thenApply(summary -> values);
+    }
+}
@@ -0,0 +1,502 @@
+package com.scy.mytemplate.service.impl;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.IdUtil;
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.support.ExcelTypeEnum;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.graph.GraphBinaryFormat;
+import com.scy.mytemplate.graph.GraphBinaryReader;
+import com.scy.mytemplate.graph.GraphImportRowListener;
+import com.scy.mytemplate.model.entity.Node;
+import com.scy.mytemplate.model.entity.Relationship;
+import com.scy.mytemplate.model.enums.GraphImportStatusEnum;
+import com.scy.mytemplate.model.vo.BatchItemResultVO;
+import com.scy.mytemplate.model.vo.BatchResultVO;
+import com.scy.mytemplate.model.vo.GraphImportTaskVO;
+import com.scy.mytemplate.service.GraphImportService;
+import com.scy.mytemplate.service.GraphService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class GraphImportServiceImpl implements GraphImportService {
+
+    private static final List<String> IMPORT_SUFFIXES = Arrays.asList("xlsx", "xls", "csv", GraphBinaryFormat.FILE_SUFFIX);
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint.json";
+
+    private static final String PHASE_NODE = "node";
+
+    private static final String PHASE_RELATIONSHIP = "relationship";
+
+    private final GraphService graphService;
+    private final GraphConfig graphConfig;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 导入任务，按 taskId 保存；服务重启后从断点文件恢复
+     */
+    private final Map<String, ImportTask> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * 读取文件的线程，导入任务依次执行
+     */
+    private final ExecutorService taskExecutor;
+
+    /**
+     * 写入批次的线程池，队列有界，队列满时由读取线程自行写入
+     */
+    private final ThreadPoolExecutor writeExecutor;
+
+    @Autowired
+    public GraphImportServiceImpl(GraphService graphService, GraphConfig graphConfig, ObjectMapper objectMapper) {
+        this.graphService = graphService;
+        this.graphConfig = graphConfig;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = Executors.newSingleThreadExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("graph-import-reader-").build());
+        int threads = Math.max(1, graphConfig.getImportThreads());
+        this.writeExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, graphConfig.getImportQueueCapacity())),
+                ThreadFactoryBuilder.create().setNamePrefix("graph-import-writer-").build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        taskExecutor.shutdownNow();
+        writeExecutor.shutdownNow();
+    }
+
+    @Override
+    public String importFile(MultipartFile multipartFile) {
+        // 1. 校验
+        if (multipartFile == null || multipartFile.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件为空");
+        }
+        String fileName = multipartFile.getOriginalFilename();
+        String suffix = FileUtil.getSuffix(fileName);
+        if (suffix == null || !IMPORT_SUFFIXES.contains(suffix.toLowerCase())) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件类型错误，仅支持 xlsx、xls、csv、amsg");
+        }
+        // 2. 保存文件到工作目录，继续导入时重新读取
+        String taskId = IdUtil.simpleUUID();
+        File file = new File(getImportDir(), taskId + "." + suffix.toLowerCase());
+        try {
+            multipartFile.transferTo(file);
+        } catch (IOException e) {
+            log.error("保存导入文件失败, fileName = {}", fileName, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "保存导入文件失败");
+        }
+        // 3. 创建任务并提交
+        GraphImportTaskVO state = new GraphImportTaskVO();
+        state.setTaskId(taskId);
+        state.setFileName(fileName);
+        state.setStatus(GraphImportStatusEnum.WAITING.getValue());
+        state.setPhase(PHASE_NODE);
+        ImportTask task = new ImportTask(state, file);
+        tasks.put(taskId, task);
+        saveCheckpoint(task);
+        taskExecutor.execute(() -> runImport(task));
+        return taskId;
+    }
+
+    @Override
+    public String resume(String taskId) {
+        checkTaskId(taskId);
+        ImportTask task = tasks.computeIfAbsent(taskId, this::loadTask);
+        if (task == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "导入任务不存在");
+        }
+        synchronized (task) {
+            String status = task.state.getStatus();
+            if (GraphImportStatusEnum.SUCCEEDED.getValue().equals(status)) {
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "导入任务已完成");
+            }
+            if (!GraphImportStatusEnum.FAILED.getValue().equals(status)) {
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "导入任务正在进行");
+            }
+            task.state.setStatus(GraphImportStatusEnum.WAITING.getValue());
+            task.state.setMessage(null);
+        }
+        taskExecutor.execute(() -> runImport(task));
+        return taskId;
+    }
+
+    @Override
+    public GraphImportTaskVO getProgress(String taskId) {
+        checkTaskId(taskId);
+        ImportTask task = tasks.get(taskId);
+        if (task == null) {
+            task = loadTask(taskId);
+        }
+        return task == null ? null : task.toVO();
+    }
+
+    /**
+     * 执行导入：先写入全部节点行，再写入全部关系行，保证关系的端点已存在
+     * @param task 导入任务
+     */
+    private void runImport(ImportTask task) {
+        task.begin();
+        saveCheckpoint(task);
+        try {
+            if (PHASE_NODE.equals(task.state.getPhase())) {
+                runPass(task, false);
+                synchronized (task) {
+                    task.state.setPhase(PHASE_RELATIONSHIP);
+                    task.writtenRows.clear();
+                }
+                saveCheckpoint(task);
+            }
+            runPass(task, true);
+            task.finish(GraphImportStatusEnum.SUCCEEDED, null);
+        } catch (BusinessException e) {
+            task.finish(GraphImportStatusEnum.FAILED, e.getMessage());
+        } catch (Exception e) {
+            log.error("图谱导入失败, taskId = {}", task.state.getTaskId(), e);
+            task.finish(GraphImportStatusEnum.FAILED, "导入失败，读取文件或写入数据库错误");
+        }
+        saveCheckpoint(task);
+        GraphImportTaskVO result = task.toVO();
+        log.info("图谱导入结束，taskId: {}, status: {}, readRows: {}, node: {}/{}, relationship: {}/{}, cost: {} ms, {} rows/s",
+                result.getTaskId(), result.getStatus(), result.getReadRows(),
+                result.getNodeSuccessCount(), result.getNodeFailCount(),
+                result.getRelationshipSuccessCount(), result.getRelationshipFailCount(),
+                result.getCostMillis(), String.format("%.1f", result.getRowsPerSecond()));
+    }
+
+    /**
+     * 读取一遍文件，只处理一种行，从断点开始按批提交写入并等待全部完成
+     * @param task 导入任务
+     * @param relationshipPass 是否处理关系行
+     */
+    private void runPass(ImportTask task, boolean relationshipPass) {
+        long checkpoint;
+        Set<Long> writtenRows;
+        synchronized (task) {
+            checkpoint = relationshipPass ? task.state.getRelationshipCheckpoint() : task.state.getNodeCheckpoint();
+            writtenRows = new HashSet<>(task.writtenRows);
+            task.completedRanges.clear();
+        }
+        List<Future<?>> futures = new ArrayList<>();
+        GraphImportRowListener listener = new GraphImportRowListener(relationshipPass, checkpoint, writtenRows,
+                Math.max(1, graphConfig.getBatchSize()), task.readRows,
+                (rows, rowIndexes, start, end) -> futures.add(writeExecutor.submit(
+                        () -> writeBatch(task, relationshipPass, rows, rowIndexes, start, end))));
+        String suffix = FileUtil.getSuffix(task.file);
+        if (GraphBinaryFormat.FILE_SUFFIX.equals(suffix)) {
+            readBinary(task.file, listener);
+        } else {
+            EasyExcel.read(task.file, listener).excelType(ExcelTypeEnum.valueOf(suffix.toUpperCase())).doReadAll();
+        }
+        listener.flush();
+        Throwable error = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "导入被中断");
+            }
+        }
+        if (error != null) {
+            log.error("图谱导入写入失败, taskId = {}", task.state.getTaskId(), error);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "导入写入失败，可从断点继续导入");
+        }
+        long dbFailedRows;
+        synchronized (task) {
+            dbFailedRows = task.dbFailedRows;
+        }
+        if (dbFailedRows > 0) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, dbFailedRows + " 行写入数据库失败，可从断点继续导入");
+        }
+    }
+
+    /**
+     * 用 FileChannel 顺序读取二进制快照，逐条交给监听器分批
+     * @param file 快照文件
+     * @param listener 行监听器
+     */
+    private void readBinary(File file, GraphImportRowListener listener) {
+        try (GraphBinaryReader reader = new GraphBinaryReader(FileChannel.open(file.toPath(), StandardOpenOption.READ))) {
+            int tag;
+            while ((tag = reader.next()) != -1) {
+                Map<String, Object> row = new HashMap<>(reader.getProperties());
+                row.put("name", reader.getName());
+                boolean isRelationship = tag == GraphBinaryFormat.TAG_RELATIONSHIP;
+                if (isRelationship) {
+                    row.put("fromNode", reader.getFromNode());
+                    row.put("toNode", reader.getToNode());
+                }
+                listener.accept(row, isRelationship);
+            }
+        } catch (IOException e) {
+            log.error("读取二进制快照失败, file = {}", file, e);
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "读取二进制快照失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 写入一批行，完成后推进断点；已有批次因数据库错误失败时不再写入，剩余批次留待继续导入
+     * @param task 导入任务
+     * @param relationshipPass 是否为关系行
+     * @param rows 本批行
+     * @param rowIndexes 本批各行的行序号
+     * @param start 本批区间起点
+     * @param end 本批区间终点
+     */
+    private void writeBatch(ImportTask task, boolean relationshipPass, List<Map<String, Object>> rows, long[] rowIndexes,
+                            long start, long end) {
+        synchronized (task) {
+            if (task.dbFailedRows > 0) {
+                return;
+            }
+        }
+        BatchResultVO batchResultVO;
+        if (rows.isEmpty()) {
+            batchResultVO = new BatchResultVO();
+        } else if (relationshipPass) {
+            List<Relationship> relationships = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                Map<String, Object> properties = new HashMap<>(row);
+                Object name = properties.remove("name");
+                relationships.add(new Relationship((String) name, properties));
+            }
+            batchResultVO = graphService.createRelationships(relationships);
+        } else {
+            List<Node> nodes = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                Map<String, Object> properties = new HashMap<>(row);
+                Object name = properties.remove("name");
+                nodes.add(new Node((String) name, properties));
+            }
+            batchResultVO = graphService.createNodes(nodes);
+        }
+        if (task.complete(relationshipPass, rowIndexes, start, end, batchResultVO)) {
+            saveCheckpoint(task);
+        }
+    }
+
+    /**
+     * 保存断点文件，先写临时文件再替换，避免中途退出留下不完整的断点
+     * @param task 导入任务
+     */
+    private void saveCheckpoint(ImportTask task) {
+        synchronized (task) {
+            File checkpointFile = new File(getImportDir(), task.state.getTaskId() + CHECKPOINT_SUFFIX);
+            File tempFile = new File(getImportDir(), task.state.getTaskId() + CHECKPOINT_SUFFIX + ".tmp");
+            try {
+                objectMapper.writeValue(tempFile, task.toVO());
+                Files.move(tempFile.toPath(), checkpointFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.error("保存导入断点失败, taskId = {}", task.state.getTaskId(), e);
+            }
+        }
+    }
+
+    /**
+     * 从断点文件恢复任务
+     * @param taskId 任务 id
+     * @return 断点或导入文件不存在返回 null
+     */
+    private ImportTask loadTask(String taskId) {
+        File checkpointFile = new File(getImportDir(), taskId + CHECKPOINT_SUFFIX);
+        if (!checkpointFile.isFile()) {
+            return null;
+        }
+        try {
+            GraphImportTaskVO state = objectMapper.readValue(checkpointFile, GraphImportTaskVO.class);
+            File file = new File(getImportDir(), taskId + "." + FileUtil.getSuffix(state.getFileName()).toLowerCase());
+            if (!file.isFile()) {
+                return null;
+            }
+            // 进程退出时仍在进行的任务视为失败，可以继续导入
+            if (!GraphImportStatusEnum.SUCCEEDED.getValue().equals(state.getStatus())) {
+                state.setStatus(GraphImportStatusEnum.FAILED.getValue());
+            }
+            return new ImportTask(state, file);
+        } catch (IOException e) {
+            log.error("读取导入断点失败, taskId = {}", taskId, e);
+            return null;
+        }
+    }
+
+    private File getImportDir() {
+        String importDir = graphConfig.getImportDir();
+        File dir = importDir == null || importDir.isEmpty()
+                ? new File(System.getProperty("java.io.tmpdir"), "amsnet-import") : new File(importDir);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建导入工作目录失败");
+        }
+        return dir;
+    }
+
+    /**
+     * 任务 id 会拼接成文件路径，只允许 simpleUUID 格式
+     * @param taskId 任务 id
+     */
+    private void checkTaskId(String taskId) {
+        if (taskId == null || !taskId.matches("[0-9a-f]{32}")) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "任务 id 错误");
+        }
+    }
+
+    /**
+     * 导入任务运行状态，写入线程并发更新时以任务对象加锁
+     */
+    private static class ImportTask {
+
+        private final GraphImportTaskVO state;
+
+        private final File file;
+
+        /**
+         * 本次运行读取的行数，由读取线程累加
+         */
+        private final AtomicLong readRows = new AtomicLong();
+
+        /**
+         * 已完成但尚未与断点连续的批次区间：首行序号 -> 末行序号 + 1
+         */
+        private final TreeMap<Long, Long> completedRanges = new TreeMap<>();
+
+        /**
+         * 当前阶段断点之后已写入成功的行序号，断点越过后移除，随断点保存
+         */
+        private final TreeSet<Long> writtenRows = new TreeSet<>();
+
+        /**
+         * 本次运行因数据库错误（重试后）写入失败的行数，大于 0 时停止写入，任务以失败结束
+         */
+        private long dbFailedRows;
+
+        private long processedRows;
+
+        private long startMillis;
+
+        private long endMillis;
+
+        private ImportTask(GraphImportTaskVO state, File file) {
+            this.state = state;
+            this.file = file;
+            if (state.getWrittenRows() != null) {
+                writtenRows.addAll(state.getWrittenRows());
+            }
+        }
+
+        private synchronized void begin() {
+            state.setStatus(GraphImportStatusEnum.RUNNING.getValue());
+            state.setStartTime(new Date());
+            readRows.set(0);
+            processedRows = 0;
+            dbFailedRows = 0;
+            startMillis = System.currentTimeMillis();
+            endMillis = 0;
+        }
+
+        private synchronized void finish(GraphImportStatusEnum status, String message) {
+            state.setStatus(status.getValue());
+            state.setMessage(message);
+            endMillis = System.currentTimeMillis();
+        }
+
+        /**
+         * 记录一批的结果，批次可能乱序完成，断点只推进到连续完成的位置
+         * 有数据库错误的批次不算完成：只记录其中写入成功的行，断点停在该批之前，继续导入时重写其余行
+         * @return 是否需要保存断点
+         */
+        private synchronized boolean complete(boolean relationshipPass, long[] rowIndexes, long start, long end,
+                                              BatchResultVO batchResultVO) {
+            List<BatchItemResultVO> items = batchResultVO.getItems() == null ? new ArrayList<>() : batchResultVO.getItems();
+            for (BatchItemResultVO item : items) {
+                if (item.isSuccess()) {
+                    writtenRows.add(rowIndexes[item.getIndex()]);
+                }
+            }
+            boolean failed = batchResultVO.getRetryableFailCount() > 0;
+            // 失败批次中写入失败的行会重写，只计入成功数
+            int failCount = failed ? 0 : batchResultVO.getFailCount();
+            processedRows += batchResultVO.getSuccessCount() + failCount;
+            if (relationshipPass) {
+                state.setRelationshipSuccessCount(state.getRelationshipSuccessCount() + batchResultVO.getSuccessCount());
+                state.setRelationshipFailCount(state.getRelationshipFailCount() + failCount);
+            } else {
+                state.setNodeSuccessCount(state.getNodeSuccessCount() + batchResultVO.getSuccessCount());
+                state.setNodeFailCount(state.getNodeFailCount() + failCount);
+            }
+            if (failed) {
+                dbFailedRows += batchResultVO.getRetryableFailCount();
+                return true;
+            }
+            completedRanges.put(start, end);
+            long checkpoint = relationshipPass ? state.getRelationshipCheckpoint() : state.getNodeCheckpoint();
+            long advanced = checkpoint;
+            Long rangeEnd;
+            while ((rangeEnd = completedRanges.remove(advanced)) != null) {
+                advanced = rangeEnd;
+            }
+            if (relationshipPass) {
+                state.setRelationshipCheckpoint(advanced);
+            } else {
+                state.setNodeCheckpoint(advanced);
+            }
+            writtenRows.headSet(advanced).clear();
+            return advanced != checkpoint || batchResultVO.getSuccessCount() > 0;
+        }
+
+        private synchronized GraphImportTaskVO toVO() {
+            GraphImportTaskVO graphImportTaskVO = new GraphImportTaskVO();
+            BeanUtils.copyProperties(state, graphImportTaskVO);
+            graphImportTaskVO.setWrittenRows(new ArrayList<>(writtenRows));
+            if (startMillis > 0) {
+                long costMillis = (endMillis > 0 ? endMillis : System.currentTimeMillis()) - startMillis;
+                graphImportTaskVO.setReadRows(readRows.get());
+                graphImportTaskVO.setCostMillis(costMillis);
+                graphImportTaskVO.setRowsPerSecond(costMillis == 0 ? 0 : processedRows * 1000.0 / costMillis);
+            }
+            return graphImportTaskVO;
+        }
+    }
+}
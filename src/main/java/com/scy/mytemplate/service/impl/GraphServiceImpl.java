@@ -1,78 +1,255 @@
 package com.scy.mytemplate.service.impl;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.common.ResultUtils;
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
 import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.graph.GraphBinaryWriter;
+import com.scy.mytemplate.graph.GraphMutation;
+import com.scy.mytemplate.graph.GraphViewBuilder;
+import com.scy.mytemplate.manager.GraphGroupCommitManager;
+import com.scy.mytemplate.manager.GraphSchemaManager;
+import com.scy.mytemplate.manager.GraphStatementManager;
+import com.scy.mytemplate.manager.GraphWriteLockManager;
+import com.scy.mytemplate.manager.NodeCacheManager;
+import com.scy.mytemplate.manager.NodeTextIndexManager;
+import com.scy.mytemplate.model.entity.Node;
+import com.scy.mytemplate.model.entity.Relationship;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import com.scy.mytemplate.model.vo.BatchItemResultVO;
+import com.scy.mytemplate.model.vo.BatchResultVO;
+import com.scy.mytemplate.model.vo.CacheStatsVO;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphViewVO;
+import com.scy.mytemplate.model.vo.GroupCommitStatsVO;
+import com.scy.mytemplate.model.vo.IndexStatusVO;
+import com.scy.mytemplate.model.vo.NodeMultiGetVO;
+import com.scy.mytemplate.model.vo.NodeSearchHitVO;
 import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.PathVO;
 import com.scy.mytemplate.model.vo.RelationshipVO;
+import com.scy.mytemplate.model.vo.SubgraphVO;
 import com.scy.mytemplate.service.GraphService;
+import com.scy.mytemplate.utils.GraphExceptionUtils;
+import com.scy.mytemplate.utils.GraphRecordUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
 import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
 import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.exceptions.ClientException;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
 public class GraphServiceImpl implements GraphService {
 
     private final Driver driver;
+    private final GraphConfig graphConfig;
+    private final NodeCacheManager nodeCacheManager;
+    private final GraphStatementManager graphStatementManager;
+    private final GraphSchemaManager graphSchemaManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GraphGroupCommitManager graphGroupCommitManager;
+    private final NodeTextIndexManager nodeTextIndexManager;
+    private final GraphWriteLockManager graphWriteLockManager;
     public static final String NEO4J_SALT = "neo4jSalt";
+    private static final String NODE_CURSOR_PREFIX = "n:";
+    private static final String RELATIONSHIP_CURSOR_PREFIX = "r:";
+    private static final String CONSTRAINT_VALIDATION_FAILED = "Neo.ClientError.Schema.ConstraintValidationFailed";
 
     @Autowired
-    public GraphServiceImpl(Driver driver) {
+    public GraphServiceImpl(Driver driver, GraphConfig graphConfig, NodeCacheManager nodeCacheManager,
+                            GraphStatementManager graphStatementManager, GraphSchemaManager graphSchemaManager,
+                            ApplicationEventPublisher eventPublisher, GraphGroupCommitManager graphGroupCommitManager,
+                            NodeTextIndexManager nodeTextIndexManager, GraphWriteLockManager graphWriteLockManager) {
         this.driver = driver;
+        this.graphConfig = graphConfig;
+        this.nodeCacheManager = nodeCacheManager;
+        this.graphStatementManager = graphStatementManager;
+        this.graphSchemaManager = graphSchemaManager;
+        this.eventPublisher = eventPublisher;
+        this.graphGroupCommitManager = graphGroupCommitManager;
+        this.nodeTextIndexManager = nodeTextIndexManager;
+        this.graphWriteLockManager = graphWriteLockManager;
     }
 
     @Override
     public String createNode(String name, Map<String, Object> properties) {
+        // 开启组提交时进入写入队列，等待所在事务提交
+        if (graphGroupCommitManager.isEnabled()) {
+            return waitForCommit(submitCreateNode(name, properties));
+        }
         // 校验
         if (name == null || properties == null || name.isEmpty() || properties.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
-        // 检查节点是否已存在
-        if (findNode(name) != null) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点已存在");
+        String invalidMessage = checkPropertyValues(properties);
+        if (invalidMessage != null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, invalidMessage);
         }
-        synchronized (name.intern()) {
-            try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
-                // 构建属性字符串
-                StringBuilder propertiesBuilder = new StringBuilder();
-                for (Map.Entry<String, Object> entry : properties.entrySet()) {
-                    // 转义属性名，避免特殊字符导致的问题
-                    String key = entry.getKey().replace("\\", "\\\\").replace("'", "\\'");
-                    // 根据属性值的类型来构建属性字符串
-                    Object value = entry.getValue();
-                    String valueString;
-                    if (value instanceof String) {
-                        valueString = "'" + value.toString().replace("\\", "\\\\").replace("'", "\\'") + "'";
-                    } else {
-                        valueString = value.toString();
+        // 存在唯一约束时由约束判重，只需一次往返
+        if (graphSchemaManager.isNameConstraintOnline()) {
+            return graphWriteLockManager.withLock(name, () -> doCreateNode(name, properties));
+        }
+        // 无约束时在节点写锁内检查节点是否已存在
+        return graphWriteLockManager.withLock(name, () -> {
+            if (findNode(name) != null) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点已存在");
+            }
+            return doCreateNode(name, properties);
+        });
+    }
+
+    /**
+     * 执行创建节点语句，违反唯一约束时返回“节点已存在”；调用方持有节点写锁
+     * @param name 节点名称
+     * @param properties 节点属性
+     * @return
+     */
+    private String doCreateNode(String name, Map<String, Object> properties) {
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+            // 属性整体作为参数传入，语句文本固定
+            Map<String, Object> nodeProperties = new HashMap<>(properties);
+            nodeProperties.put("name", name);
+            graphStatementManager.run(tx, GraphStatementEnum.CREATE_NODE, Map.of("properties", nodeProperties));
+            tx.commit(); // 确保事务被提交
+            // 清除之前缓存的“不存在”结果
+            nodeCacheManager.invalidate(name);
+            eventPublisher.publishEvent(GraphChangeEvent.nodeCreated(this, name, nodeProperties));
+            return name; // 创建节点后，可以直接返回节点名称
+        } catch (ClientException e) {
+            if (CONSTRAINT_VALIDATION_FAILED.equals(e.code())) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点已存在");
+            }
+            log.error("创建节点失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建节点失败，数据库错误");
+        } catch (Exception e) {
+            log.error("创建节点失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建节点失败，数据库错误");
+        }
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public BatchResultVO createNodes(List<Node> nodes) {
+        // 1. 校验
+        if (nodes == null || nodes.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        if (nodes.size() > graphConfig.getMaxBatchItems()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "批量节点数超过上限：" + graphConfig.getMaxBatchItems());
+        }
+        long startTime = System.currentTimeMillis();
+        BatchItemResultVO[] itemResults = new BatchItemResultVO[nodes.size()];
+        // 2. 逐条校验并去重，合法的节点作为参数行待写入
+        List<Map<String, Object>> rows = new ArrayList<>();
+        List<Integer> rowIndexes = new ArrayList<>();
+        Set<String> seenNames = new HashSet<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            String name = node == null ? null : node.getName();
+            if (name == null || name.isEmpty()) {
+                itemResults[i] = BatchItemResultVO.fail(i, name, "节点名称为空");
+                continue;
+            }
+            if (!seenNames.add(name)) {
+                itemResults[i] = BatchItemResultVO.fail(i, name, "批量请求中节点名称重复");
+                continue;
+            }
+            Map<String, Object> properties = node.getProperties() == null ? new HashMap<>() : new HashMap<>(node.getProperties());
+            String invalidMessage = checkPropertyValues(properties);
+            if (invalidMessage != null) {
+                itemResults[i] = BatchItemResultVO.fail(i, name, invalidMessage);
+                continue;
+            }
+            // name 由 row.name 单独写入，避免被属性覆盖
+            properties.remove("name");
+            Map<String, Object> row = new HashMap<>();
+            row.put("name", name);
+            row.put("properties", properties);
+            rows.add(row);
+            rowIndexes.add(i);
+        }
+        // 3. 按批大小分块，每块一个事务、一条 UNWIND 语句；已存在的节点不会被覆盖
+        // 事务函数在死锁等临时错误时由驱动按指数退避重试，重试后仍失败的记录标记为可重试
+        // 每块的提交与事件发布在块内节点的写锁内完成，保证事件顺序与提交顺序一致
+        int batchSize = Math.max(1, graphConfig.getBatchSize());
+        try (Session session = driver.session()) {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                int chunkFrom = from;
+                int chunkTo = Math.min(from + batchSize, rows.size());
+                List<Map<String, Object>> chunk = rows.subList(chunkFrom, chunkTo);
+                List<String> chunkNames = new ArrayList<>();
+                chunk.forEach(row -> chunkNames.add((String) row.get("name")));
+                graphWriteLockManager.withLocks(chunkNames, () -> {
+                    List<GraphChangeEvent> chunkEvents = new ArrayList<>();
+                    try {
+                        Map<String, Boolean> createdMap = session.writeTransaction(tx -> {
+                            Result result = graphStatementManager.run(tx, GraphStatementEnum.CREATE_NODES, Map.of("rows", chunk));
+                            Map<String, Boolean> created = new HashMap<>();
+                            while (result.hasNext()) {
+                                Record record = result.next();
+                                created.merge(record.get("name").asString(), record.get("created").asBoolean(), Boolean::logicalAnd);
+                            }
+                            return created;
+                        });
+                        for (int j = chunkFrom; j < chunkTo; j++) {
+                            int index = rowIndexes.get(j);
+                            String name = (String) rows.get(j).get("name");
+                            nodeCacheManager.invalidate(name);
+                            if (Boolean.TRUE.equals(createdMap.get(name))) {
+                                itemResults[index] = BatchItemResultVO.success(index, name);
+                                chunkEvents.add(GraphChangeEvent.nodeCreated(this, name, (Map<String, Object>) rows.get(j).get("properties")));
+                            } else {
+                                itemResults[index] = BatchItemResultVO.fail(index, name, "节点已存在");
+                            }
+                        }
+                    } catch (Exception e) {
+                        log.error("批量创建节点失败，区间 [{}, {})", chunkFrom, chunkTo, e);
+                        for (int j = chunkFrom; j < chunkTo; j++) {
+                            int index = rowIndexes.get(j);
+                            itemResults[index] = BatchItemResultVO.retryableFail(index, (String) rows.get(j).get("name"), "创建节点失败，数据库错误");
+                        }
                     }
-                    propertiesBuilder.append(", ").append(key).append(": ").append(valueString);
-                }
-                String propertiesString = propertiesBuilder.length() > 0 ? propertiesBuilder.substring(2) : "";
-                // 构建最终的Cypher查询
-                String query = "CREATE (n:AMSNet {name: $name" + (propertiesString.isEmpty() ? "" : ", " + propertiesString) + "})";
-                log.error("创建节点语句: {}", query);
-                tx.run(query, Map.of("name", name));
-                tx.commit(); // 确保事务被提交
-                return name; // 创建节点后，可以直接返回节点名称
-            } catch (Exception e) {
-                log.error("创建节点失败", e);
-                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建节点失败，数据库错误");
+                    chunkEvents.forEach(eventPublisher::publishEvent);
+                    return null;
+                });
             }
         }
+        // 4. 汇总结果
+        BatchResultVO batchResultVO = buildBatchResult(itemResults, startTime);
+        log.info("批量创建节点完成，total: {}, success: {}, cost: {} ms",
+                batchResultVO.getTotal(), batchResultVO.getSuccessCount(), batchResultVO.getCostMillis());
+        return batchResultVO;
     }
 
 
     @Override
     public String deleteNode(String name) {
+        if (graphGroupCommitManager.isEnabled()) {
+            return waitForCommit(submitDeleteNode(name));
+        }
         // 1. 校验
         if (name == null || name.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
@@ -81,46 +258,148 @@ public class GraphServiceImpl implements GraphService {
         if (findNode(name) == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点不已存在");
         }
-        // 3. 删除节点
-        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
-            String query = "MATCH (n:AMSNet {name: $name}) DETACH DELETE n";
-            tx.run(query, Map.of("name", name));
-            tx.commit();
-        } catch (Exception e) {
-            log.error("删除节点失败", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除节点失败，数据库错误");
-        }
-        return name;
+        // 3. 删除节点，提交与发布事件在节点写锁内完成，保证事件顺序与提交顺序一致
+        return graphWriteLockManager.withLock(name, () -> {
+            try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+                graphStatementManager.run(tx, GraphStatementEnum.DELETE_NODE, Map.of("name", name));
+                tx.commit();
+                nodeCacheManager.invalidate(name);
+            } catch (Exception e) {
+                log.error("删除节点失败", e);
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除节点失败，数据库错误");
+            }
+            eventPublisher.publishEvent(GraphChangeEvent.nodeDeleted(this, name));
+            return name;
+        });
     }
 
     @Override
     public String updateNode(String name, Map<String, Object> newProperties) {
+        if (graphGroupCommitManager.isEnabled()) {
+            return waitForCommit(submitUpdateNode(name, newProperties));
+        }
         // 1. 校验
         if (name == null || newProperties == null || name.isEmpty() || newProperties.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
+        String invalidMessage = checkPropertyValues(newProperties);
+        if (invalidMessage != null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, invalidMessage);
+        }
         // 2.  ·检查节点是否存在
         if (findNode(name) == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点不存在");
         }
-        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
-            StringBuilder propertiesBuilder = new StringBuilder();
-            for (Map.Entry<String, Object> entry : newProperties.entrySet()) {
-                // 转义属性名和属性值，避免特殊字符导致的问题
-                String key = entry.getKey().replace("\\", "\\\\").replace("'", "\\'");
-                String value = entry.getValue().toString().replace("\\", "\\\\").replace("'", "\\'");
-                propertiesBuilder.append(", ").append(key).append(": '").append(value).append("'");
-            }
-            String propertiesString = propertiesBuilder.toString();
-            // 构建最终的Cypher查询
-            String query = "MATCH (n:AMSNet {name: $name}) SET n += {name:$name" + propertiesString + "}";
-            tx.run(query, Map.of("name", name));
-            tx.commit();
-        } catch (Exception e) {
-            log.error("更新节点失败", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新节点失败，数据库错误");
+        // 节点名称不允许通过属性修改
+        Map<String, Object> properties = new HashMap<>(newProperties);
+        properties.remove("name");
+        return graphWriteLockManager.withLock(name, () -> {
+            try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+                graphStatementManager.run(tx, GraphStatementEnum.UPDATE_NODE, Map.of("name", name, "properties", properties));
+                tx.commit();
+                nodeCacheManager.invalidate(name);
+            } catch (Exception e) {
+                log.error("更新节点失败", e);
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新节点失败，数据库错误");
+            }
+            eventPublisher.publishEvent(GraphChangeEvent.nodeUpdated(this, name, properties));
+            return name;
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> submitCreateNode(String name, Map<String, Object> properties) {
+        if (!graphGroupCommitManager.isEnabled()) {
+            return CompletableFuture.completedFuture(createNode(name, properties));
+        }
+        if (name == null || properties == null || name.isEmpty() || properties.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        String invalidMessage = checkPropertyValues(properties);
+        if (invalidMessage != null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, invalidMessage);
+        }
+        // name 单独写入，避免被属性覆盖；节点是否已存在在提交时判断
+        Map<String, Object> nodeProperties = new HashMap<>(properties);
+        nodeProperties.remove("name");
+        return graphGroupCommitManager.submit(GraphMutation.createNode(name, nodeProperties));
+    }
+
+    @Override
+    public CompletableFuture<String> submitUpdateNode(String name, Map<String, Object> newProperties) {
+        if (!graphGroupCommitManager.isEnabled()) {
+            return CompletableFuture.completedFuture(updateNode(name, newProperties));
+        }
+        if (name == null || newProperties == null || name.isEmpty() || newProperties.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        String invalidMessage = checkPropertyValues(newProperties);
+        if (invalidMessage != null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, invalidMessage);
+        }
+        Map<String, Object> properties = new HashMap<>(newProperties);
+        properties.remove("name");
+        return graphGroupCommitManager.submit(GraphMutation.updateNode(name, properties));
+    }
+
+    @Override
+    public CompletableFuture<String> submitDeleteNode(String name) {
+        if (!graphGroupCommitManager.isEnabled()) {
+            return CompletableFuture.completedFuture(deleteNode(name));
+        }
+        if (name == null || name.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        return graphGroupCommitManager.submit(GraphMutation.deleteNode(name));
+    }
+
+    @Override
+    public CompletableFuture<String> submitCreateRelationship(String name, Map<String, Object> properties) {
+        if (!graphGroupCommitManager.isEnabled()) {
+            return CompletableFuture.completedFuture(createRelationship(name, properties));
+        }
+        if (name == null || properties == null || name.isEmpty() || properties.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        Object fromNode = properties.get("fromNode");
+        Object toNode = properties.get("toNode");
+        if (!(fromNode instanceof String) || !(toNode instanceof String)
+                || ((String) fromNode).isEmpty() || ((String) toNode).isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点名称为空");
+        }
+        String invalidMessage = checkPropertyValues(properties);
+        if (invalidMessage != null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, invalidMessage);
+        }
+        return graphGroupCommitManager.submit(GraphMutation.createRelationship(name, (String) fromNode, (String) toNode, properties));
+    }
+
+    @Override
+    public GroupCommitStatsVO getGroupCommitStats() {
+        return graphGroupCommitManager.getStats();
+    }
+
+    /**
+     * 同步等待组提交结果，提交失败时抛出写入时的业务异常；等待有上限，不会无限阻塞请求线程
+     * @param future 写入 future
+     * @return
+     */
+    private String waitForCommit(CompletableFuture<String> future) {
+        try {
+            return future.get(graphConfig.getGroupCommitWaitTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("等待组提交超时");
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "等待写入提交超时，写入结果未知，请稍后查询确认");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "等待写入提交被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessException) {
+                throw (BusinessException) e.getCause();
+            }
+            log.error("等待组提交失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "写入失败，数据库错误");
         }
-        return name;
     }
 
     @Override
@@ -129,10 +408,14 @@ public class GraphServiceImpl implements GraphService {
         if (name == null || name.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
-        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
-            String query = "MATCH (n:AMSNet {name: $name}) RETURN n";
-            log.error("查询节点语句: {}", query);
-            Result result = tx.run(query, Map.of("name", name));
+        // 2. 先查缓存（包括“不存在”的结果）
+        Optional<NodeVO> cached = nodeCacheManager.get(name);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        long cacheVersion = nodeCacheManager.currentVersion(name);
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("find-node"))) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.FIND_NODE, Map.of("name", name));
             // 判断是否有查询结果
             if (result.hasNext()) {
                 Map<String, Object> nodeQueryResultMap = result.single().get("n").asMap();// 是一个不可变视图，不能修改
@@ -142,18 +425,127 @@ public class GraphServiceImpl implements GraphService {
                 // 移除name属性，避免重复设置
                 nodeMap.remove("name");
                 nodeVO.setProperties(nodeMap);
+                nodeCacheManager.put(name, nodeVO, cacheVersion);
                 return nodeVO;
             } else {
                 // 未找到节点，返回null表示节点不存在
-                log.error("查询节点失败，节点不存在");
+                log.info("查询节点，节点不存在: {}", name);
+                nodeCacheManager.put(name, null, cacheVersion);
                 return null;
             }
         } catch (Exception e) {
-            log.error("查询节点失败", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询节点失败，数据库错误");
+            throw GraphExceptionUtils.toReadException(e, "查询节点", null);
         }
     }
 
+    @Override
+    public Page<NodeSearchHitVO> searchNodes(String query, boolean isIncludeProperties, long current, long pageSize) {
+        // 1. 校验
+        if (query == null || query.trim().isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "查询为空");
+        }
+        if (current <= 0 || pageSize <= 0 || pageSize > graphConfig.getMaxPageSize()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "页号需大于 0，页面大小需在 1 到 " + graphConfig.getMaxPageSize() + " 之间");
+        }
+        // 2. 在全文索引中打分排序，只取当前页
+        List<NodeSearchHitVO> hits = new ArrayList<>();
+        long total = nodeTextIndexManager.search(query, (current - 1) * pageSize, (int) pageSize, hits);
+        // 3. 需要属性时按名称批量获取当前页节点
+        if (isIncludeProperties && !hits.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            hits.forEach(hit -> names.add(hit.getName()));
+            Map<String, NodeVO> nodes = findNodes(names).getNodes();
+            for (NodeSearchHitVO hit : hits) {
+                NodeVO nodeVO = nodes.get(hit.getName());
+                hit.setProperties(nodeVO == null ? null : nodeVO.getProperties());
+            }
+        }
+        Page<NodeSearchHitVO> page = new Page<>(current, pageSize, total);
+        page.setRecords(hits);
+        return page;
+    }
+
+    @Override
+    public NodeMultiGetVO findNodes(Collection<String> names) {
+        // 1. 校验并去重（保持请求顺序）
+        if (names == null || names.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        if (names.size() > graphConfig.getMaxBatchItems()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "批量节点数超过上限：" + graphConfig.getMaxBatchItems());
+        }
+        Set<String> uniqueNames = new LinkedHashSet<>(names);
+        if (uniqueNames.contains(null) || uniqueNames.contains("")) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点名称为空");
+        }
+        // 2. 先查缓存，未命中的名称一次查询
+        Map<String, NodeVO> found = new HashMap<>();
+        Set<String> notFound = new HashSet<>();
+        List<String> uncached = new ArrayList<>();
+        for (String name : uniqueNames) {
+            Optional<NodeVO> cached = nodeCacheManager.get(name);
+            if (cached == null) {
+                uncached.add(name);
+            } else if (cached.isPresent()) {
+                found.put(name, cached.get());
+            } else {
+                notFound.add(name);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            Map<String, Long> cacheVersions = new HashMap<>();
+            for (String name : uncached) {
+                cacheVersions.put(name, nodeCacheManager.currentVersion(name));
+            }
+            try (Session session = driver.session(); Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("find-nodes"))) {
+                Result result = graphStatementManager.run(tx, GraphStatementEnum.FIND_NODES, Map.of("names", uncached));
+                while (result.hasNext()) {
+                    NodeVO nodeVO = GraphRecordUtils.toNodeVO(result.next(), true);
+                    found.put(nodeVO.getName(), nodeVO);
+                    nodeCacheManager.put(nodeVO.getName(), nodeVO, cacheVersions.get(nodeVO.getName()));
+                }
+            } catch (Exception e) {
+                throw GraphExceptionUtils.toReadException(e, "批量查询节点", null);
+            }
+            for (String name : uncached) {
+                if (!found.containsKey(name)) {
+                    notFound.add(name);
+                    nodeCacheManager.put(name, null, cacheVersions.get(name));
+                }
+            }
+        }
+        // 3. 按请求顺序组装结果
+        Map<String, NodeVO> nodes = new LinkedHashMap<>();
+        List<String> missingNames = new ArrayList<>();
+        for (String name : uniqueNames) {
+            if (notFound.contains(name)) {
+                missingNames.add(name);
+            } else {
+                nodes.put(name, found.get(name));
+            }
+        }
+        NodeMultiGetVO nodeMultiGetVO = new NodeMultiGetVO();
+        nodeMultiGetVO.setNodes(nodes);
+        nodeMultiGetVO.setMissingNames(missingNames);
+        nodeMultiGetVO.setHasMissing(!missingNames.isEmpty());
+        return nodeMultiGetVO;
+    }
+
+    @Override
+    public CacheStatsVO getNodeCacheStats() {
+        return nodeCacheManager.getStats();
+    }
+
+    @Override
+    public Map<String, Long> getStatementStats() {
+        return graphStatementManager.getStats();
+    }
+
+    @Override
+    public List<IndexStatusVO> listIndexes() {
+        return graphSchemaManager.listIndexes();
+    }
+
     // 修改后的createRelationship方法
     @Override
     public String createRelationship(String name, Map<String, Object> properties) {
@@ -168,68 +560,224 @@ public class GraphServiceImpl implements GraphService {
         if (fromNode == null || toNode == null || fromNode.isEmpty() || toNode.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点名称为空");
         }
-        // 2. 校验是否from to 节点都存在
-        if (findNode(fromNode) == null || findNode(toNode) == null) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "From OR To 节点不存在");
+        String invalidMessage = checkPropertyValues(properties);
+        if (invalidMessage != null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, invalidMessage);
         }
-        // 3. 创建关系
-        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
-            StringBuilder propertiesBuilder = new StringBuilder();
-            for (Map.Entry<String, Object> entry : properties.entrySet()) {
-                String key = entry.getKey();
-                String value = entry.getValue() instanceof String ? "'" + entry.getValue() + "'" : entry.getValue().toString();
-                propertiesBuilder.append(", ").append(key).append(": ").append(value);
-            }
-            String propertiesString = propertiesBuilder.toString().replaceFirst(", ", "");
-
-            String query = "MATCH (a:AMSNet {name: $fromNode}), (b:AMSNet {name:$toNode}) " +
-                    "CREATE (a)-[r:" + name + " {" + propertiesString + "}]->(b)";
-            tx.run(query, Map.of("fromNode", fromNode, "toNode", toNode));
-            tx.commit();
-        } catch (Exception e) {
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建关系失败，数据库错误");
+        if (graphGroupCommitManager.isEnabled()) {
+            // 关系是否已存在在提交语句中检查
+            return waitForCommit(submitCreateRelationship(name, properties));
+        }
+        // 2. 创建关系，锁住两个端点；端点与重复关系的检查和创建在同一条语句中完成
+        return graphWriteLockManager.withLocks(List.of(fromNode, toNode), () -> {
+            boolean fromExists;
+            boolean toExists;
+            boolean existed;
+            try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+                Record record = graphStatementManager.run(tx, GraphStatementEnum.CREATE_RELATIONSHIP, name,
+                        Map.of("fromNode", fromNode, "toNode", toNode, "properties", properties)).single();
+                fromExists = record.get("fromExists").asBoolean();
+                toExists = record.get("toExists").asBoolean();
+                existed = record.get("existed").asBoolean();
+                if (fromExists && toExists && !existed) {
+                    tx.commit();
+                }
+            } catch (Exception e) {
+                log.error("创建关系失败", e);
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建关系失败，数据库错误");
+            }
+            if (!fromExists) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "起始节点不存在，无法创建关系");
+            }
+            if (!toExists) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "结束节点不存在，无法创建关系");
+            }
+            if (existed) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系已存在，无法创建");
+            }
+            eventPublisher.publishEvent(GraphChangeEvent.relationshipCreated(this, name, fromNode, toNode, properties));
+            return name;
+        });
+    }
+
+
+    @Override
+    public BatchResultVO createRelationships(List<Relationship> relationships) {
+        // 1. 校验
+        if (relationships == null || relationships.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
-        return name;
+        if (relationships.size() > graphConfig.getMaxBatchItems()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "批量关系数超过上限：" + graphConfig.getMaxBatchItems());
+        }
+        long startTime = System.currentTimeMillis();
+        BatchItemResultVO[] itemResults = new BatchItemResultVO[relationships.size()];
+        // 2. 逐条校验，按关系类型分组
+        Map<String, List<Map<String, Object>>> rowsByType = new LinkedHashMap<>();
+        Set<List<Object>> relationshipKeys = new HashSet<>();
+        for (int i = 0; i < relationships.size(); i++) {
+            Relationship relationship = relationships.get(i);
+            String name = relationship == null ? null : relationship.getName();
+            Map<String, Object> properties = relationship == null ? null : relationship.getProperties();
+            if (name == null || name.isEmpty() || properties == null) {
+                itemResults[i] = BatchItemResultVO.fail(i, name, "参数为空");
+                continue;
+            }
+            Object fromNode = properties.get("fromNode");
+            Object toNode = properties.get("toNode");
+            if (!(fromNode instanceof String) || !(toNode instanceof String)
+                    || ((String) fromNode).isEmpty() || ((String) toNode).isEmpty()) {
+                itemResults[i] = BatchItemResultVO.fail(i, name, "节点名称为空");
+                continue;
+            }
+            String invalidMessage = checkPropertyValues(properties);
+            if (invalidMessage != null) {
+                itemResults[i] = BatchItemResultVO.fail(i, name, invalidMessage);
+                continue;
+            }
+            // 同一语句内的读取看不到本语句新建的关系，批次内重复的关系不写入
+            if (!relationshipKeys.add(List.of(name, fromNode, toNode))) {
+                itemResults[i] = BatchItemResultVO.fail(i, name, "批次内关系重复");
+                continue;
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("index", i);
+            row.put("fromNode", fromNode);
+            row.put("toNode", toNode);
+            row.put("properties", properties);
+            rowsByType.computeIfAbsent(name, key -> new ArrayList<>()).add(row);
+        }
+        // 3. 每个关系类型一条语句，按批大小分块；端点缺失或关系已存在的记录不写入，逐条返回原因
+        // 每块的提交与事件发布在块内端点的写锁内完成，保证事件顺序与提交顺序一致
+        int batchSize = Math.max(1, graphConfig.getBatchSize());
+        try (Session session = driver.session()) {
+            for (Map.Entry<String, List<Map<String, Object>>> entry : rowsByType.entrySet()) {
+                String name = entry.getKey();
+                List<Map<String, Object>> rows = entry.getValue();
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    int chunkFrom = from;
+                    int chunkTo = Math.min(from + batchSize, rows.size());
+                    List<Map<String, Object>> chunk = rows.subList(chunkFrom, chunkTo);
+                    List<String> endpoints = new ArrayList<>();
+                    chunk.forEach(row -> {
+                        endpoints.add((String) row.get("fromNode"));
+                        endpoints.add((String) row.get("toNode"));
+                    });
+                    graphWriteLockManager.withLocks(endpoints, () -> {
+                        List<GraphChangeEvent> chunkEvents = new ArrayList<>();
+                        try {
+                            // 事务函数重试时重新执行，结果以最后一次为准
+                            List<Record> records = session.writeTransaction(tx ->
+                                    graphStatementManager.run(tx, GraphStatementEnum.CREATE_RELATIONSHIPS, name, Map.of("rows", chunk)).list());
+                            for (Record record : records) {
+                                int index = record.get("index").asInt();
+                                boolean fromExists = record.get("fromExists").asBoolean();
+                                boolean toExists = record.get("toExists").asBoolean();
+                                boolean existed = record.get("existed").asBoolean();
+                                if (fromExists && toExists && existed) {
+                                    itemResults[index] = BatchItemResultVO.fail(index, name, "关系已存在");
+                                } else if (fromExists && toExists) {
+                                    itemResults[index] = BatchItemResultVO.success(index, name);
+                                    Map<String, Object> properties = relationships.get(index).getProperties();
+                                    chunkEvents.add(GraphChangeEvent.relationshipCreated(this, name, (String) properties.get("fromNode"),
+                                            (String) properties.get("toNode"), properties));
+                                } else if (!fromExists && !toExists) {
+                                    itemResults[index] = BatchItemResultVO.fail(index, name, "起始节点和结束节点都不存在");
+                                } else {
+                                    itemResults[index] = BatchItemResultVO.fail(index, name, fromExists ? "结束节点不存在" : "起始节点不存在");
+                                }
+                            }
+                        } catch (Exception e) {
+                            log.error("批量创建关系失败，关系: {}，区间 [{}, {})", name, chunkFrom, chunkTo, e);
+                            for (Map<String, Object> row : chunk) {
+                                int index = (Integer) row.get("index");
+                                itemResults[index] = BatchItemResultVO.retryableFail(index, name, "创建关系失败，数据库错误");
+                            }
+                        }
+                        chunkEvents.forEach(eventPublisher::publishEvent);
+                        return null;
+                    });
+                }
+            }
+        }
+        // 4. 汇总结果
+        BatchResultVO batchResultVO = buildBatchResult(itemResults, startTime);
+        log.info("批量创建关系完成，total: {}, success: {}, cost: {} ms",
+                batchResultVO.getTotal(), batchResultVO.getSuccessCount(), batchResultVO.getCostMillis());
+        return batchResultVO;
     }
 
 
     @Override
-    public String deleteRelationship(String name) {
+    public String deleteRelationshipsOfType(String name) {
         // 校验
         if (name == null || name.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系名称参数为空");
         }
-        // 2. 校验关系是否存在
-        if (findRelationship(name) == null) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系不存在");
-        }
-        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
-            String query = "MATCH ()-[r:" + name + "]-() DELETE r";
-            tx.run(query);
-            tx.commit();
-        } catch (Exception e) {
-            log.error("删除关系失败", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除关系失败，数据库错误");
-        }
-        return name;
+        // 涉及的端点无法预先确定，独占写锁：与该类型关系的并发写入互斥，事件顺序与提交顺序一致
+        return graphWriteLockManager.withAllLocks(() -> {
+            // 2. 校验关系是否存在
+            if (findRelationship(name) == null) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系不存在");
+            }
+            try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+                graphStatementManager.run(tx, GraphStatementEnum.DELETE_RELATIONSHIP, name, Map.of());
+                tx.commit();
+            } catch (Exception e) {
+                log.error("删除关系失败", e);
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除关系失败，数据库错误");
+            }
+            eventPublisher.publishEvent(GraphChangeEvent.relationshipTypeDeleted(this, name));
+            return name;
+        });
     }
 
-    // 由于更改neo4j的link改变node并不会更新link的连接，因此需要先删除关系再创建新关系
     @Override
+    @Deprecated
     public String updateRelationship(String name, Map<String, Object> newProperties) {
         // 1. 校验参数
         if (name == null || newProperties == null || name.isEmpty() || newProperties.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
-        // 2. 校验关系是否存在
-        if (findRelationship(name) == null) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系不存在");
+        Object fromNode = newProperties.get("fromNode");
+        Object toNode = newProperties.get("toNode");
+        if (!(fromNode instanceof String) || !(toNode instanceof String)
+                || ((String) fromNode).isEmpty() || ((String) toNode).isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点名称为空");
+        }
+        String invalidMessage = checkPropertyValues(newProperties);
+        if (invalidMessage != null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, invalidMessage);
         }
-        // 3. 删除同名关系
-        deleteRelationship(name);
-        // 4. 创建新关系
-        createRelationship(name, newProperties);
-        return name;
+        log.warn("已弃用的关系更新调用：未指定原端点，关系类型 {} 的全部关系将被替换为一条新关系", name);
+        // 2. 保留旧接口语义：用新关系替换该类型的全部关系；删除与创建在同一事务中，新端点不存在时不删除
+        return graphWriteLockManager.withAllLocks(() -> {
+            if (findRelationship(name) == null) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系不存在");
+            }
+            boolean fromExists;
+            boolean toExists;
+            try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+                graphStatementManager.run(tx, GraphStatementEnum.DELETE_RELATIONSHIP, name, Map.of());
+                Record record = graphStatementManager.run(tx, GraphStatementEnum.CREATE_RELATIONSHIP, name,
+                        Map.of("fromNode", fromNode, "toNode", toNode, "properties", newProperties)).single();
+                fromExists = record.get("fromExists").asBoolean();
+                toExists = record.get("toExists").asBoolean();
+                if (fromExists && toExists) {
+                    tx.commit();
+                }
+            } catch (Exception e) {
+                log.error("更新关系失败", e);
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新关系失败，数据库错误");
+            }
+            if (!fromExists || !toExists) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "From OR To 节点不存在");
+            }
+            eventPublisher.publishEvent(GraphChangeEvent.relationshipTypeDeleted(this, name));
+            eventPublisher.publishEvent(GraphChangeEvent.relationshipCreated(this, name, (String) fromNode,
+                    (String) toNode, newProperties));
+            return name;
+        });
     }
 
 
@@ -239,9 +787,8 @@ public class GraphServiceImpl implements GraphService {
         if (name == null || name.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系参数为空");
         }
-        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
-            String query = "MATCH ()-[r:" + name + "]-() RETURN r LIMIT 1";
-            Result result = tx.run(query);
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("find-relationship"))) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.FIND_RELATIONSHIP, name, Map.of());
             if (result.hasNext()) {
                 Map<String, Object> relationshipQueryResultMap = result.single().get("r").asMap();// 是一个不可变视图，不能修改
                 Map<String, Object> relationshipMap = new HashMap<>(relationshipQueryResultMap);
@@ -255,64 +802,654 @@ public class GraphServiceImpl implements GraphService {
                 return null;
             }
         } catch (Exception e) {
-            log.error("查询关系失败", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询关系失败，数据库错误");
+            throw GraphExceptionUtils.toReadException(e, "查询关系", null);
         }
     }
 
+    @Override
+    public RelationshipVO findRelationship(String name, String fromNode, String toNode) {
+        checkRelationshipIdentity(name, fromNode, toNode);
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("find-relationship"))) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.FIND_RELATIONSHIP_BETWEEN, name,
+                    Map.of("fromNode", fromNode, "toNode", toNode));
+            if (!result.hasNext()) {
+                return null;
+            }
+            return GraphRecordUtils.toRelationshipVO(result.single().asMap());
+        } catch (Exception e) {
+            throw GraphExceptionUtils.toReadException(e, "查询关系", null);
+        }
+    }
+
+    @Override
+    public String deleteRelationship(String name, String fromNode, String toNode) {
+        checkRelationshipIdentity(name, fromNode, toNode);
+        // 提交与发布事件在两个端点的写锁内完成
+        return graphWriteLockManager.withLocks(List.of(fromNode, toNode), () -> {
+            long count;
+            try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+                Result result = graphStatementManager.run(tx, GraphStatementEnum.DELETE_RELATIONSHIP_BETWEEN, name,
+                        Map.of("fromNode", fromNode, "toNode", toNode));
+                count = result.single().get("count").asLong();
+                tx.commit();
+            } catch (Exception e) {
+                log.error("删除关系失败", e);
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除关系失败，数据库错误");
+            }
+            if (count == 0) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系不存在");
+            }
+            eventPublisher.publishEvent(GraphChangeEvent.relationshipDeleted(this, name, fromNode, toNode));
+            return name;
+        });
+    }
+
+    @Override
+    public String updateRelationship(String name, String fromNode, String toNode, Map<String, Object> newProperties) {
+        checkRelationshipIdentity(name, fromNode, toNode);
+        if (newProperties == null || newProperties.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        String invalidMessage = checkPropertyValues(newProperties);
+        if (invalidMessage != null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, invalidMessage);
+        }
+        // 新属性中未给出端点时沿用原端点，属性中的 fromNode / toNode 与实际端点保持一致
+        Object newFromNode = newProperties.getOrDefault("fromNode", fromNode);
+        Object newToNode = newProperties.getOrDefault("toNode", toNode);
+        if (!(newFromNode instanceof String) || !(newToNode instanceof String)
+                || ((String) newFromNode).isEmpty() || ((String) newToNode).isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点名称为空");
+        }
+        Map<String, Object> properties = new HashMap<>(newProperties);
+        properties.put("fromNode", newFromNode);
+        properties.put("toNode", newToNode);
+        boolean isRepoint = !fromNode.equals(newFromNode) || !toNode.equals(newToNode);
+        // 原端点与新端点都加写锁，改端点时删除和创建事件连续发布
+        return graphWriteLockManager.withLocks(List.of(fromNode, toNode, (String) newFromNode, (String) newToNode), () -> {
+            long count;
+            boolean isEndpointMissing = false;
+            boolean isDuplicate = false;
+            try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
+                if (isRepoint) {
+                    // neo4j 不能修改关系的端点，改端点时在同一事务内先删除原关系再创建新关系
+                    Result result = graphStatementManager.run(tx, GraphStatementEnum.DELETE_RELATIONSHIP_BETWEEN, name,
+                            Map.of("fromNode", fromNode, "toNode", toNode));
+                    count = result.single().get("count").asLong();
+                    if (count > 0) {
+                        Record record = graphStatementManager.run(tx, GraphStatementEnum.CREATE_RELATIONSHIP, name,
+                                Map.of("fromNode", newFromNode, "toNode", newToNode, "properties", properties)).single();
+                        isEndpointMissing = !record.get("fromExists").asBoolean() || !record.get("toExists").asBoolean();
+                        isDuplicate = record.get("existed").asBoolean();
+                    }
+                } else {
+                    Result result = graphStatementManager.run(tx, GraphStatementEnum.UPDATE_RELATIONSHIP_BETWEEN, name,
+                            Map.of("fromNode", fromNode, "toNode", toNode, "properties", properties));
+                    count = result.single().get("count").asLong();
+                }
+                // 关系不存在、新端点不存在或新端点间已有同类型关系时不提交，事务关闭时回滚
+                if (count > 0 && !isEndpointMissing && !isDuplicate) {
+                    tx.commit();
+                }
+            } catch (Exception e) {
+                log.error("更新关系失败", e);
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新关系失败，数据库错误");
+            }
+            if (count == 0) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系不存在");
+            }
+            if (isEndpointMissing) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "From OR To 节点不存在");
+            }
+            if (isDuplicate) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系已存在");
+            }
+            if (isRepoint) {
+                eventPublisher.publishEvent(GraphChangeEvent.relationshipDeleted(this, name, fromNode, toNode));
+                eventPublisher.publishEvent(GraphChangeEvent.relationshipCreated(this, name, (String) newFromNode,
+                        (String) newToNode, properties));
+            } else {
+                eventPublisher.publishEvent(GraphChangeEvent.relationshipUpdated(this, name, fromNode, toNode, properties));
+            }
+            return name;
+        });
+    }
+
+    /**
+     * 校验关系标识（关系类型 + 起止节点名称）
+     * @param name 关系类型
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     */
+    private void checkRelationshipIdentity(String name, String fromNode, String toNode) {
+        if (name == null || name.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系名称参数为空");
+        }
+        if (fromNode == null || toNode == null || fromNode.isEmpty() || toNode.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点名称为空");
+        }
+    }
+
+    @Override
+    public GraphViewVO getGraphView(boolean isIncludeProperties, boolean lod, Integer maxNodes) {
+        int limit = maxNodes == null ? graphConfig.getViewMaxNodes() : maxNodes;
+        if (limit <= 0 || limit > graphConfig.getViewMaxNodes()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "最大节点数需在 1 到 " + graphConfig.getViewMaxNodes() + " 之间");
+        }
+        long startTime = System.currentTimeMillis();
+        GraphViewBuilder builder = new GraphViewBuilder(isIncludeProperties);
+        SessionConfig sessionConfig = SessionConfig.builder().withFetchSize(graphConfig.getStreamFetchSize()).build();
+        // 节点和关系在同一个事务中读取，关系端点取自节点名称而不是关系属性；行数按节点和关系合计
+        long rows = 0;
+        String alternative = "流式接口 /graph/getAllNodes/stream 和 /graph/getAllRelationships/stream";
+        try (Session session = driver.session(sessionConfig);
+             Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("get-graph-view"))) {
+            if (isIncludeProperties) {
+                Result result = graphStatementManager.run(tx, GraphStatementEnum.GET_ALL_NODES, Map.of());
+                while (result.hasNext()) {
+                    NodeVO nodeVO = GraphRecordUtils.toNodeVO(result.next(), true);
+                    builder.addNode(nodeVO.getName(), nodeVO.getProperties());
+                    checkRowLimit("get-graph-view", ++rows, alternative);
+                }
+            } else {
+                Result result = graphStatementManager.run(tx, GraphStatementEnum.SNAPSHOT_NODES, Map.of());
+                while (result.hasNext()) {
+                    builder.addNode(result.next().get("name").asString(), null);
+                    checkRowLimit("get-graph-view", ++rows, alternative);
+                }
+            }
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.SNAPSHOT_RELATIONSHIPS, Map.of());
+            while (result.hasNext()) {
+                Record record = result.next();
+                builder.addRelationship(record.get("name").asString(), record.get("fromNode").asString(),
+                        record.get("toNode").asString());
+                checkRowLimit("get-graph-view", ++rows, alternative);
+            }
+        } catch (Exception e) {
+            throw GraphExceptionUtils.toReadException(e, "获取图谱快照", alternative);
+        }
+        GraphViewVO graphViewVO = lod ? builder.build(limit) : builder.build();
+        log.info("获取图谱快照，节点数: {}，关系数: {}，是否采样: {}，cost: {} ms", graphViewVO.getNames().size(),
+                graphViewVO.getEdgeTypes().length, graphViewVO.isSampled(), System.currentTimeMillis() - startTime);
+        return graphViewVO;
+    }
+
     @Override
     public List<NodeVO> getAllNodes(boolean isIncludeProperties) {
-        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
-            String query = "MATCH (n:AMSNet) RETURN n";
-            Result result = tx.run(query);
+        try (Session session = driver.session();
+             Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("get-all-nodes"))) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.GET_ALL_NODES, Map.of());
             List<NodeVO> nodeVOs = new ArrayList<>();
             while (result.hasNext()) {
-                Map<String, Object> nodeQueryResultMap = result.next().get("n").asMap();
-                // 将不可变对象转为可变对象
-                Map<String, Object> nodeMap = new HashMap<>(nodeQueryResultMap);
-                NodeVO nodeVO = new NodeVO();
-                nodeVO.setName((String) nodeMap.get("name"));
-                // 根据是否包含属性来决定是否设置properties
-                if (isIncludeProperties) {
-                    // 移除name属性，避免重复设置
-                    nodeMap.remove("name");
-                    nodeVO.setProperties(nodeMap);
-                }
-                nodeVOs.add(nodeVO);
+                nodeVOs.add(GraphRecordUtils.toNodeVO(result.next(), isIncludeProperties));
+                checkRowLimit("get-all-nodes", nodeVOs.size(), "分页接口 /graph/listNodes/page 或流式接口 /graph/getAllNodes/stream");
             }
             return nodeVOs;
         } catch (Exception e) {
-            log.error("获取全部节点失败", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "获取全部节点失败，数据库错误");
+            throw GraphExceptionUtils.toReadException(e, "获取全部节点", "分页接口 /graph/listNodes/page 或流式接口 /graph/getAllNodes/stream");
         }
     }
 
     @Override
     public List<RelationshipVO> getAllRelationships(boolean isIncludeProperties) {
-        try (Session session = driver.session(); Transaction tx = session.beginTransaction()) {
-            // 修改后的查询语句，增加了返回关系的起始节点名称和结束节点名称
-            String query = "MATCH ()-[r]->() RETURN type(r) AS name, r.fromNode AS fromNode, r.toNode AS toNode";
-            Result result = tx.run(query);
+        try (Session session = driver.session();
+             Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("get-all-relationships"))) {
+            // 返回关系类型及起始节点名称和结束节点名称
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.GET_ALL_RELATIONSHIPS, Map.of());
 
             List<RelationshipVO> relationshipVOs = new ArrayList<>();
             while (result.hasNext()) {
-                Map<String, Object> relationshipQueryResultMap = new HashMap<>(result.next().asMap());
-                // 将不可变对象转为可变对象
-                Map<String, Object> relationshipMap = new HashMap<>(relationshipQueryResultMap);
-                RelationshipVO relationshipVO = new RelationshipVO();
-                relationshipVO.setName((String) relationshipMap.get("name"));
-                // 根据是否包含属性来决定是否设置properties
-                if (isIncludeProperties) {
-                    // 移除name属性，避免重复设置
-                    relationshipMap.remove("name");
-                    relationshipVO.setProperties(relationshipMap);
+                relationshipVOs.add(GraphRecordUtils.toRelationshipVO(result.next(), isIncludeProperties));
+                checkRowLimit("get-all-relationships", relationshipVOs.size(), "分页接口 /graph/listRelationships/page 或流式接口 /graph/getAllRelationships/stream");
+            }
+            return relationshipVOs;
+        } catch (Exception e) {
+            throw GraphExceptionUtils.toReadException(e, "获取全部关系", "分页接口 /graph/listRelationships/page 或流式接口 /graph/getAllRelationships/stream");
+        }
+    }
+
+    /**
+     * 汇总批量操作的逐条结果
+     * @param itemResults 逐条结果
+     * @param startTime 开始时间
+     * @return
+     */
+    private BatchResultVO buildBatchResult(BatchItemResultVO[] itemResults, long startTime) {
+        int successCount = 0;
+        int retryableFailCount = 0;
+        for (BatchItemResultVO itemResult : itemResults) {
+            if (itemResult.isSuccess()) {
+                successCount++;
+            } else if (itemResult.isRetryable()) {
+                retryableFailCount++;
+            }
+        }
+        BatchResultVO batchResultVO = new BatchResultVO();
+        batchResultVO.setTotal(itemResults.length);
+        batchResultVO.setSuccessCount(successCount);
+        batchResultVO.setFailCount(itemResults.length - successCount);
+        batchResultVO.setRetryableFailCount(retryableFailCount);
+        batchResultVO.setCostMillis(System.currentTimeMillis() - startTime);
+        batchResultVO.setItems(Arrays.asList(itemResults));
+        return batchResultVO;
+    }
+
+    /**
+     * 校验属性值类型，Neo4j 属性只支持基本类型及其列表
+     * @param properties 属性
+     * @return 不合法时返回错误信息，合法返回 null
+     */
+    private static String checkPropertyValues(Map<String, Object> properties) {
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    if (!isPrimitiveValue(element)) {
+                        return "属性 " + entry.getKey() + " 的列表元素类型不支持";
+                    }
+                }
+            } else if (value != null && !isPrimitiveValue(value)) {
+                return "属性 " + entry.getKey() + " 的值类型不支持";
+            }
+        }
+        return null;
+    }
+
+    private static boolean isPrimitiveValue(Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean;
+    }
+
+    @Override
+    public long streamAllNodes(boolean isIncludeProperties, Consumer<NodeVO> consumer) {
+        // 限制驱动每次拉取的记录数，消费端写出变慢时驱动不会继续向服务端拉取
+        SessionConfig sessionConfig = SessionConfig.builder().withFetchSize(graphConfig.getStreamFetchSize()).build();
+        try (Session session = driver.session(sessionConfig);
+             Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("stream-all-nodes"))) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.GET_ALL_NODES, Map.of());
+            long count = 0;
+            while (result.hasNext()) {
+                consumer.accept(GraphRecordUtils.toNodeVO(result.next(), isIncludeProperties));
+                count++;
+            }
+            return count;
+        } catch (UncheckedIOException e) {
+            // 写出失败说明客户端已断开，事务随 try 关闭回滚，服务端查询随之终止
+            log.info("流式获取全部节点时客户端断开，已取消查询");
+            throw e;
+        } catch (Exception e) {
+            throw GraphExceptionUtils.toReadException(e, "流式获取全部节点", "分页接口 /graph/listNodes/page");
+        }
+    }
+
+    @Override
+    public long streamAllRelationships(boolean isIncludeProperties, Consumer<RelationshipVO> consumer) {
+        SessionConfig sessionConfig = SessionConfig.builder().withFetchSize(graphConfig.getStreamFetchSize()).build();
+        try (Session session = driver.session(sessionConfig);
+             Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("stream-all-relationships"))) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.GET_ALL_RELATIONSHIPS, Map.of());
+            long count = 0;
+            while (result.hasNext()) {
+                consumer.accept(GraphRecordUtils.toRelationshipVO(result.next(), isIncludeProperties));
+                count++;
+            }
+            return count;
+        } catch (UncheckedIOException e) {
+            log.info("流式获取全部关系时客户端断开，已取消查询");
+            throw e;
+        } catch (Exception e) {
+            throw GraphExceptionUtils.toReadException(e, "流式获取全部关系", "分页接口 /graph/listRelationships/page");
+        }
+    }
+
+    @Override
+    public long exportBinary(WritableByteChannel channel) {
+        long startTime = System.currentTimeMillis();
+        SessionConfig sessionConfig = SessionConfig.builder().withFetchSize(graphConfig.getStreamFetchSize()).build();
+        try (Session session = driver.session(sessionConfig);
+             Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("export-binary"))) {
+            GraphBinaryWriter writer = new GraphBinaryWriter(channel);
+            try {
+                Result result = graphStatementManager.run(tx, GraphStatementEnum.GET_ALL_NODES, Map.of());
+                while (result.hasNext()) {
+                    NodeVO nodeVO = GraphRecordUtils.toNodeVO(result.next(), true);
+                    writer.writeNode(nodeVO.getName(), nodeVO.getProperties());
+                }
+                result = graphStatementManager.run(tx, GraphStatementEnum.EXPORT_RELATIONSHIPS, Map.of());
+                while (result.hasNext()) {
+                    Record record = result.next();
+                    // 端点由节点编号表示，属性中的 fromNode / toNode 在导入时还原
+                    Map<String, Object> properties = new HashMap<>(record.get("properties").asMap());
+                    properties.remove("fromNode");
+                    properties.remove("toNode");
+                    writer.writeRelationship(record.get("name").asString(), record.get("fromNode").asString(),
+                            record.get("toNode").asString(), properties);
+                }
+            } catch (RuntimeException e) {
+                // 响应已是 200 且可能已写出部分数据，以错误记录结束文件，导入时报错而不是当作完整快照
+                BusinessException businessException = e instanceof IllegalArgumentException
+                        ? new BusinessException(ErrorCode.OPERATION_ERROR, e.getMessage())
+                        : GraphExceptionUtils.toReadException(e, "导出二进制快照", null);
+                writer.abort(businessException.getMessage());
+                throw businessException;
+            }
+            writer.close();
+            log.info("导出二进制快照完成，节点数: {}，关系数: {}，cost: {} ms",
+                    writer.getNodeCount(), writer.getRelationshipCount(), System.currentTimeMillis() - startTime);
+            return writer.getNodeCount() + writer.getRelationshipCount();
+        } catch (IOException e) {
+            // 写出失败说明客户端已断开，事务随 try 关闭回滚，服务端查询随之终止
+            log.info("导出二进制快照时客户端断开，已取消查询");
+            throw new UncheckedIOException(e);
+        } catch (Exception e) {
+            throw GraphExceptionUtils.toReadException(e, "导出二进制快照", null);
+        }
+    }
+
+    @Override
+    public CursorPageVO<NodeVO> listNodesByCursor(boolean isIncludeProperties, String cursor, int pageSize) {
+        checkPageSize(pageSize);
+        // 第一页从空字符串之后开始，节点名称不允许为空，因此覆盖全部节点
+        String afterName = cursor == null || cursor.isEmpty() ? "" : decodeCursor(cursor, NODE_CURSOR_PREFIX);
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("list-nodes-by-cursor"))) {
+            // 多取一条用于判断是否还有下一页
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.LIST_NODES_PAGE,
+                    Map.of("afterName", afterName, "limit", pageSize + 1));
+            List<NodeVO> nodeVOs = new ArrayList<>();
+            String lastName = null;
+            boolean hasMore = false;
+            while (result.hasNext()) {
+                Record record = result.next();
+                if (nodeVOs.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                lastName = record.get("n").get("name").asString();
+                nodeVOs.add(GraphRecordUtils.toNodeVO(record, isIncludeProperties));
+            }
+            CursorPageVO<NodeVO> cursorPageVO = new CursorPageVO<>();
+            cursorPageVO.setRecords(nodeVOs);
+            cursorPageVO.setHasMore(hasMore);
+            cursorPageVO.setNextCursor(hasMore ? encodeCursor(NODE_CURSOR_PREFIX, lastName) : null);
+            return cursorPageVO;
+        } catch (Exception e) {
+            throw GraphExceptionUtils.toReadException(e, "分页获取节点", "更小的页面大小");
+        }
+    }
+
+    @Override
+    public CursorPageVO<RelationshipVO> listRelationshipsByCursor(boolean isIncludeProperties, String cursor, int pageSize) {
+        checkPageSize(pageSize);
+        // 游标为 (起点名称, 关系 id) 复合键：起点按名称走索引有序推进，同一起点内按关系 id 续读
+        String afterName = "";
+        long afterId = -1L;
+        if (cursor != null && !cursor.isEmpty()) {
+            String key = decodeCursor(cursor, RELATIONSHIP_CURSOR_PREFIX);
+            int separator = key.indexOf(':');
+            if (separator <= 0) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "游标无效");
+            }
+            try {
+                afterId = Long.parseLong(key.substring(0, separator));
+            } catch (NumberFormatException e) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "游标无效");
+            }
+            afterName = key.substring(separator + 1);
+        }
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("list-relationships-by-cursor"))) {
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.LIST_RELATIONSHIPS_PAGE,
+                    Map.of("afterName", afterName, "afterId", afterId, "limit", pageSize + 1));
+            List<RelationshipVO> relationshipVOs = new ArrayList<>();
+            String lastName = afterName;
+            long lastId = afterId;
+            boolean hasMore = false;
+            while (result.hasNext()) {
+                Record record = result.next();
+                if (relationshipVOs.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                lastName = record.get("anchor").asString();
+                lastId = record.get("id").asLong();
+                RelationshipVO relationshipVO = GraphRecordUtils.toRelationshipVO(record, isIncludeProperties);
+                if (relationshipVO.getProperties() != null) {
+                    // anchor 与 id 仅用于游标，不作为关系属性返回
+                    relationshipVO.getProperties().remove("anchor");
+                    relationshipVO.getProperties().remove("id");
                 }
                 relationshipVOs.add(relationshipVO);
             }
-            return relationshipVOs;
+            CursorPageVO<RelationshipVO> cursorPageVO = new CursorPageVO<>();
+            cursorPageVO.setRecords(relationshipVOs);
+            cursorPageVO.setHasMore(hasMore);
+            cursorPageVO.setNextCursor(hasMore ? encodeCursor(RELATIONSHIP_CURSOR_PREFIX, lastId + ":" + lastName) : null);
+            return cursorPageVO;
+        } catch (Exception e) {
+            throw GraphExceptionUtils.toReadException(e, "分页获取关系", "更小的页面大小");
+        }
+    }
+
+    @Override
+    public SubgraphVO getNeighborhood(String name, int depth, int fanOut, List<String> relationshipTypes) {
+        // 1. 校验
+        if (name == null || name.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
+        }
+        if (depth <= 0 || depth > graphConfig.getMaxNeighborhoodDepth()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "跳数需在 1 到 " + graphConfig.getMaxNeighborhoodDepth() + " 之间");
+        }
+        if (fanOut <= 0 || fanOut > graphConfig.getMaxNeighborhoodFanOut()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "扇出需在 1 到 " + graphConfig.getMaxNeighborhoodFanOut() + " 之间");
+        }
+        // 2. 在同一读事务内逐跳扩展，每跳一条语句，共 depth + 1 次往返（最后一次读取节点属性）。
+        // 单条变长路径语句无法按跳限制扇出、也无法跨跳去重，路径数随跳数指数增长，因此不合并为一条语句。
+        // 扇出只计指向新节点的关系，语句按已访问名称列表区分新旧邻居；指向已访问节点的关系不占扇出。
+        // 同一关系在一跳的结果中可能出现多次（回到父节点的关系、两端都在本跳前沿的关系），
+        // 节点与关系按名称和 id 去重后再计入总量上限
+        int maxNodes = graphConfig.getMaxNeighborhoodNodes();
+        int maxRelationships = graphConfig.getMaxNeighborhoodRelationships();
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("fanOut", fanOut);
+        parameters.put("types", relationshipTypes == null || relationshipTypes.isEmpty() ? null : relationshipTypes);
+        // 每条关系在一跳中最多出现两次，行数上限取关系上限的两倍多一行：
+        // 语句被该上限截断时，结果中不重复的新关系一定超过剩余额度，截断可由去重后的计数判断
+        parameters.put("limit", 2 * maxRelationships + 1);
+        Set<String> visited = new LinkedHashSet<>();
+        visited.add(name);
+        Set<Long> relationshipIds = new HashSet<>();
+        List<RelationshipVO> relationshipVOs = new ArrayList<>();
+        boolean nodesTruncated = false;
+        boolean relationshipsTruncated = false;
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction(graphConfig.readTransactionConfig("get-neighborhood"))) {
+            List<String> frontier = Collections.singletonList(name);
+            for (int hop = 0; hop < depth && !frontier.isEmpty() && !nodesTruncated && !relationshipsTruncated; hop++) {
+                parameters.put("frontier", frontier);
+                parameters.put("visited", new ArrayList<>(visited));
+                List<Record> records = graphStatementManager.run(tx, GraphStatementEnum.NEIGHBORHOOD_HOP, parameters).list();
+                List<String> next = new ArrayList<>();
+                for (Record record : records) {
+                    long relationshipId = record.get("id").asLong();
+                    if (relationshipIds.contains(relationshipId)) {
+                        continue;
+                    }
+                    // 先判断上限再记录邻居，超出上限的关系及其另一端节点都不返回
+                    if (relationshipVOs.size() >= maxRelationships) {
+                        relationshipsTruncated = true;
+                        break;
+                    }
+                    String neighbor = record.get("neighbor").asString();
+                    if (!visited.contains(neighbor)) {
+                        if (visited.size() >= maxNodes) {
+                            nodesTruncated = true;
+                            continue;
+                        }
+                        visited.add(neighbor);
+                        next.add(neighbor);
+                    }
+                    relationshipIds.add(relationshipId);
+                    relationshipVOs.add(GraphRecordUtils.toRelationshipVO(record.asMap()));
+                }
+                frontier = next;
+            }
+            // 3. 按发现顺序批量读取节点属性，起始节点不存在时返回 null
+            Map<String, NodeVO> nodeVOMap = new HashMap<>();
+            Result result = graphStatementManager.run(tx, GraphStatementEnum.FIND_NODES,
+                    Collections.singletonMap("names", new ArrayList<>(visited)));
+            while (result.hasNext()) {
+                NodeVO nodeVO = GraphRecordUtils.toNodeVO(result.next(), true);
+                nodeVOMap.put(nodeVO.getName(), nodeVO);
+            }
+            if (!nodeVOMap.containsKey(name)) {
+                return null;
+            }
+            List<NodeVO> nodeVOs = new ArrayList<>(visited.size());
+            for (String nodeName : visited) {
+                NodeVO nodeVO = nodeVOMap.get(nodeName);
+                if (nodeVO != null) {
+                    nodeVOs.add(nodeVO);
+                }
+            }
+            SubgraphVO subgraphVO = new SubgraphVO();
+            subgraphVO.setNodes(nodeVOs);
+            subgraphVO.setRelationships(relationshipVOs);
+            subgraphVO.setTruncated(nodesTruncated || relationshipsTruncated);
+            subgraphVO.setRelationshipsTruncated(relationshipsTruncated);
+            return subgraphVO;
         } catch (Exception e) {
-            log.error("获取全部关系失败");
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "获取全部关系失败，数据库错误");
+            throw GraphExceptionUtils.toReadException(e, "邻域查询", "更小的跳数或扇出");
+        }
+    }
+
+    @Override
+    public List<PathVO> findPaths(String fromNode, String toNode, int maxDepth, int k) {
+        checkPathRequest(fromNode, toNode, maxDepth);
+        if (k <= 0 || k > graphConfig.getMaxPaths()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "路径条数需在 1 到 " + graphConfig.getMaxPaths() + " 之间");
+        }
+        TransactionConfig transactionConfig = graphConfig.readTransactionConfig("find-paths", graphConfig.getPathQueryTimeoutMillis());
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction(transactionConfig)) {
+            // 变长关系的上限不能参数化，maxDepth 已校验为整数
+            Result result = graphStatementManager.runWithFragment(tx, GraphStatementEnum.FIND_PATHS, String.valueOf(maxDepth),
+                    Map.of("fromNode", fromNode, "toNode", toNode, "limit", k));
+            List<PathVO> pathVOs = new ArrayList<>();
+            while (result.hasNext()) {
+                Record record = result.next();
+                PathVO pathVO = new PathVO();
+                pathVO.setLength(record.get("length").asInt());
+                pathVO.setNodes(record.get("nodes").asList(value -> value.asString()));
+                pathVO.setRelationships(record.get("rels").asList(value -> GraphRecordUtils.toRelationshipVO(value.asMap())));
+                pathVOs.add(pathVO);
+            }
+            return pathVOs;
+        } catch (ClientException e) {
+            throw toPathQueryException(e);
+        } catch (Exception e) {
+            log.error("路径查询失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "路径查询失败，数据库错误");
+        }
+    }
+
+    @Override
+    public boolean pathExists(String fromNode, String toNode, int maxDepth) {
+        checkPathRequest(fromNode, toNode, maxDepth);
+        TransactionConfig transactionConfig = graphConfig.readTransactionConfig("path-exists", graphConfig.getPathQueryTimeoutMillis());
+        try (Session session = driver.session(); Transaction tx = session.beginTransaction(transactionConfig)) {
+            Result result = graphStatementManager.runWithFragment(tx, GraphStatementEnum.PATH_EXISTS, String.valueOf(maxDepth),
+                    Map.of("fromNode", fromNode, "toNode", toNode));
+            return result.hasNext();
+        } catch (ClientException e) {
+            throw toPathQueryException(e);
+        } catch (Exception e) {
+            log.error("路径存在性查询失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "路径存在性查询失败，数据库错误");
+        }
+    }
+
+    /**
+     * 校验路径查询参数，起止节点需存在且不同
+     * @param fromNode 起始节点名称
+     * @param toNode 结束节点名称
+     * @param maxDepth 路径最大长度
+     */
+    private void checkPathRequest(String fromNode, String toNode, int maxDepth) {
+        if (fromNode == null || toNode == null || fromNode.isEmpty() || toNode.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点名称为空");
+        }
+        if (fromNode.equals(toNode)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "起始节点和结束节点不能相同");
+        }
+        if (maxDepth <= 0 || maxDepth > graphConfig.getMaxPathDepth()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "路径长度需在 1 到 " + graphConfig.getMaxPathDepth() + " 之间");
+        }
+        if (findNode(fromNode) == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "起始节点不存在");
+        }
+        if (findNode(toNode) == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "结束节点不存在");
+        }
+    }
+
+    /**
+     * 将路径查询的客户端异常转为业务异常，超时单独提示
+     * @param e 客户端异常
+     * @return
+     */
+    private BusinessException toPathQueryException(ClientException e) {
+        if (GraphExceptionUtils.isTimedOut(e)) {
+            return new BusinessException(ErrorCode.OPERATION_ERROR, "路径查询超时，请减小最大路径长度");
+        }
+        log.error("路径查询失败", e);
+        return new BusinessException(ErrorCode.SYSTEM_ERROR, "路径查询失败，数据库错误");
+    }
+
+    /**
+     * 校验已读取的行数，超过操作允许的最大行数时拒绝；异常抛出后事务关闭，服务端查询随之终止
+     * @param operation 操作名
+     * @param rows 已读取的行数
+     * @param alternative 建议改用的接口
+     */
+    private void checkRowLimit(String operation, long rows, String alternative) {
+        int maxRows = graphConfig.resolveQueryMaxRows(operation);
+        if (maxRows > 0 && rows > maxRows) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "结果超过 " + maxRows + " 条，数据量过大，请改用" + alternative);
+        }
+    }
+
+    /**
+     * 校验游标分页的页面大小
+     * @param pageSize 页面大小
+     */
+    private void checkPageSize(int pageSize) {
+        if (pageSize <= 0 || pageSize > graphConfig.getMaxPageSize()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "页面大小需在 1 到 " + graphConfig.getMaxPageSize() + " 之间");
+        }
+    }
+
+    /**
+     * 生成不透明游标（前缀 + 排序键，Base64 编码）
+     * @param prefix 游标类型前缀
+     * @param key 最后一条记录的排序键
+     * @return
+     */
+    private static String encodeCursor(String prefix, String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((prefix + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，返回排序键
+     * @param cursor 游标
+     * @param prefix 期望的游标类型前缀
+     * @return
+     */
+    private static String decodeCursor(String cursor, String prefix) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "游标无效");
+        }
+        if (!decoded.startsWith(prefix)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "游标无效");
         }
+        return decoded.substring(prefix.length());
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.scy.mytemplate.utils;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.exceptions.ClientException;
+
+/**
+ * Neo4j 读操作异常转换工具类，同步与异步查询共用
+ */
+@Slf4j
+public class GraphExceptionUtils {
+
+    private static final String TRANSACTION_TIMED_OUT = "Neo.ClientError.Transaction.TransactionTimedOut";
+
+    /**
+     * 是否为事务超时（含驱动配置的超时）
+     * @param e 异常
+     * @return
+     */
+    public static boolean isTimedOut(Throwable e) {
+        if (!(e instanceof ClientException)) {
+            return false;
+        }
+        String code = ((ClientException) e).code();
+        return code != null && code.startsWith(TRANSACTION_TIMED_OUT);
+    }
+
+    /**
+     * 将读操作的异常转为业务异常：业务异常原样返回，超时单独提示，其余按数据库错误处理
+     * @param e 异常
+     * @param action 操作描述
+     * @param alternative 超时时建议改用的做法，为空时提示稍后重试
+     * @return
+     */
+    public static BusinessException toReadException(Throwable e, String action, String alternative) {
+        if (e instanceof BusinessException) {
+            return (BusinessException) e;
+        }
+        if (isTimedOut(e)) {
+            log.warn("{}超时", action);
+            return new BusinessException(ErrorCode.OPERATION_ERROR,
+                    action + "超时，" + (alternative == null ? "请稍后重试" : "数据量过大，请改用" + alternative));
+        }
+        log.error(action + "失败", e);
+        return new BusinessException(ErrorCode.SYSTEM_ERROR, action + "失败，数据库错误");
+    }
+}
@@ -0,0 +1,83 @@
+package com.scy.mytemplate.utils;
+
+import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.RelationshipVO;
+import org.neo4j.driver.Record;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Neo4j 查询记录转换工具类
+ */
+public class GraphRecordUtils {
+
+    /**
+     * 将 RETURN n 的查询记录转为节点视图
+     * @param record 查询记录
+     * @param isIncludeProperties 是否包含属性
+     * @return
+     */
+    public static NodeVO toNodeVO(Record record, boolean isIncludeProperties) {
+        // 将不可变对象转为可变对象
+        Map<String, Object> nodeMap = new HashMap<>(record.get("n").asMap());
+        NodeVO nodeVO = new NodeVO();
+        nodeVO.setName((String) nodeMap.get("name"));
+        // 根据是否包含属性来决定是否设置properties
+        if (isIncludeProperties) {
+            // 移除name属性，避免重复设置
+            nodeMap.remove("name");
+            nodeVO.setProperties(nodeMap);
+        }
+        return nodeVO;
+    }
+
+    /**
+     * 将 RETURN type(r) AS name, ... 的查询记录转为关系视图
+     * @param record 查询记录
+     * @param isIncludeProperties 是否包含属性
+     * @return
+     */
+    public static RelationshipVO toRelationshipVO(Record record, boolean isIncludeProperties) {
+        // 将不可变对象转为可变对象
+        Map<String, Object> relationshipMap = new HashMap<>(record.asMap());
+        RelationshipVO relationshipVO = new RelationshipVO();
+        relationshipVO.setName((String) relationshipMap.get("name"));
+        // 根据是否包含属性来决定是否设置properties
+        if (isIncludeProperties) {
+            // 移除name属性，避免重复设置
+            relationshipMap.remove("name");
+            relationshipVO.setProperties(relationshipMap);
+        }
+        return relationshipVO;
+    }
+
+    /**
+     * 将节点属性 Map（含 name）转为节点视图
+     * @param nodeProperties 节点属性
+     * @return
+     */
+    public static NodeVO toNodeVO(Map<String, Object> nodeProperties) {
+        Map<String, Object> nodeMap = new HashMap<>(nodeProperties);
+        NodeVO nodeVO = new NodeVO();
+        nodeVO.setName((String) nodeMap.remove("name"));
+        nodeVO.setProperties(nodeMap);
+        return nodeVO;
+    }
+
+    /**
+     * 将 {name, fromNode, toNode, properties} 形式的关系 Map 转为关系视图，端点名称写入属性
+     * @param relationshipMap 关系 Map
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static RelationshipVO toRelationshipVO(Map<String, Object> relationshipMap) {
+        Map<String, Object> properties = new HashMap<>((Map<String, Object>) relationshipMap.get("properties"));
+        properties.put("fromNode", relationshipMap.get("fromNode"));
+        properties.put("toNode", relationshipMap.get("toNode"));
+        RelationshipVO relationshipVO = new RelationshipVO();
+        relationshipVO.setName((String) relationshipMap.get("name"));
+        relationshipVO.setProperties(properties);
+        return relationshipVO;
+    }
+}
@@ -0,0 +1,190 @@
+package com.scy.mytemplate.benchmark;
+
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.graph.CsrGraph;
+import com.scy.mytemplate.graph.OverlayGraph;
+import com.scy.mytemplate.manager.GraphSnapshotManager;
+import com.scy.mytemplate.manager.GraphStatementManager;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内存邻接快照与 Neo4j 往返的两跳邻域耗时对比（JMH），以及快照写入后立即读取的耗时
+ * 需要一个已有 :AMSNet 数据的 Neo4j，连接参数通过系统属性 neo4j.uri / neo4j.username / neo4j.password 传入，
+ * 执行 mvn test-compile 后以 test classpath 运行本类的 main 方法；快照规模与每条关系的内存占用在加载后写入日志。
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphSnapshotBenchmark {
+
+    private static final String TWO_HOP = "MATCH (s:AMSNet {name: $name})-[*1..2]-(m:AMSNet) " +
+            "RETURN count(DISTINCT m) AS count";
+
+    private static final int SAMPLE_SIZE = 1000;
+
+    private static final String WRITE_TYPE = "BENCHMARK_WRITE";
+
+    private Driver driver;
+
+    private OverlayGraph graph;
+
+    private String[] names;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        driver = GraphDatabase.driver(System.getProperty("neo4j.uri", "bolt://localhost:7687"),
+                AuthTokens.basic(System.getProperty("neo4j.username", "neo4j"), System.getProperty("neo4j.password", "neo4j")));
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        List<String> sample = new ArrayList<>();
+        try (Session session = driver.session()) {
+            Result result = session.run(GraphStatementEnum.SNAPSHOT_NODES.getCypher());
+            while (result.hasNext()) {
+                String name = result.next().get("name").asString();
+                builder.addNode(name);
+                if (sample.size() < SAMPLE_SIZE) {
+                    sample.add(name);
+                }
+            }
+            result = session.run(GraphStatementEnum.SNAPSHOT_RELATIONSHIPS.getCypher());
+            while (result.hasNext()) {
+                Record record = result.next();
+                builder.addRelationship(record.get("fromNode").asString(), record.get("toNode").asString(),
+                        record.get("name").asString());
+            }
+        }
+        if (sample.isEmpty()) {
+            throw new IllegalStateException("数据库中没有 :AMSNet 节点");
+        }
+        CsrGraph csrGraph = builder.build();
+        graph = new OverlayGraph(csrGraph);
+        names = sample.toArray(new String[0]);
+        log.info("快照节点数: {}，关系数: {}，估算内存: {} bytes，每条关系: {} bytes", csrGraph.nodeCount(),
+                csrGraph.relationshipCount(), csrGraph.estimatedBytes(), String.format("%.1f", csrGraph.bytesPerRelationship()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driver.close();
+    }
+
+    @Benchmark
+    public int snapshotTwoHop() {
+        int start = graph.idOf(nextName());
+        boolean[] visited = new boolean[graph.nodeCapacity()];
+        visited[start] = true;
+        int[] frontier = new int[graph.nodeCapacity()];
+        int[] count = {0};
+        OverlayGraph.EdgeVisitor visitor = (neighbor, type) -> {
+            if (!visited[neighbor]) {
+                visited[neighbor] = true;
+                frontier[count[0]++] = neighbor;
+            }
+            return true;
+        };
+        graph.forEachEdge(start, true, visitor);
+        graph.forEachEdge(start, false, visitor);
+        int firstHop = count[0];
+        for (int i = 0; i < firstHop; i++) {
+            graph.forEachEdge(frontier[i], true, visitor);
+            graph.forEachEdge(frontier[i], false, visitor);
+        }
+        return count[0];
+    }
+
+    /**
+     * 经 GraphSnapshotManager 写入一条关系再删除，随后做一次两跳邻域查询
+     */
+    @Benchmark
+    public int snapshotTwoHopAfterWrite(SnapshotManagerState state) {
+        String fromNode = nextName();
+        String toNode = nextName();
+        state.manager.onGraphChange(GraphChangeEvent.relationshipCreated(this, WRITE_TYPE, fromNode, toNode, Map.of()));
+        state.manager.onGraphChange(GraphChangeEvent.relationshipDeleted(this, WRITE_TYPE, fromNode, toNode));
+        return state.manager.getNeighborhood(fromNode, 2, state.fanOut, null).getNodes().size();
+    }
+
+    @Benchmark
+    public int neo4jTwoHop() {
+        try (Session session = driver.session()) {
+            return session.run(TWO_HOP, Map.of("name", nextName())).single().get("count").asInt();
+        }
+    }
+
+    private String nextName() {
+        cursor = (cursor + 1) % names.length;
+        return names[cursor];
+    }
+
+    /**
+     * 从数据库加载快照的 GraphSnapshotManager，覆盖层预先累积 overlayChanges 条关系新增，
+     * 用于观察写后读的开销是否随覆盖层大小增长
+     */
+    @State(Scope.Benchmark)
+    public static class SnapshotManagerState {
+
+        @Param({"0", "10000"})
+        public int overlayChanges;
+
+        private GraphSnapshotManager manager;
+
+        private int fanOut;
+
+        @Setup(Level.Trial)
+        public void setup(GraphSnapshotBenchmark benchmark) {
+            GraphConfig graphConfig = new GraphConfig();
+            graphConfig.setSnapshotEnabled(true);
+            fanOut = graphConfig.getMaxNeighborhoodFanOut();
+            manager = new GraphSnapshotManager();
+            ReflectionTestUtils.setField(manager, "driver", benchmark.driver);
+            ReflectionTestUtils.setField(manager, "graphConfig", graphConfig);
+            ReflectionTestUtils.setField(manager, "graphStatementManager", new GraphStatementManager());
+            manager.refresh();
+            String[] names = benchmark.names;
+            for (int i = 0; i < overlayChanges; i++) {
+                manager.onGraphChange(GraphChangeEvent.relationshipCreated(this, "BENCHMARK_OVERLAY",
+                        names[i % names.length], names[(i * 31 + 7) % names.length], Map.of()));
+            }
+            log.info("覆盖层变更数: {}", manager.getStats().getOverlayChanges());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GraphSnapshotBenchmark.class.getSimpleName()).build()).run();
+    }
+}
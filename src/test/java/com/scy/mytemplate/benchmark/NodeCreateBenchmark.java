@@ -0,0 +1,124 @@
+package com.scy.mytemplate.benchmark;
+
+import cn.hutool.core.util.IdUtil;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量 UNWIND 创建与逐个节点单独事务创建的耗时对比（JMH），每次调用创建 nodeCount 个新节点
+ * 连接参数通过系统属性 neo4j.uri / neo4j.username / neo4j.password 传入，
+ * 执行 mvn test-compile 后以 test classpath 运行本类的 main 方法；创建的节点带 benchmark 前缀，每轮结束后删除。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeCreateBenchmark {
+
+    private static final String NAME_PREFIX = "benchmark-";
+
+    private static final Map<String, Object> PROPERTIES = Map.of("category", "benchmark");
+
+    private static final String DELETE_CREATED = "MATCH (n:AMSNet) WHERE n.name STARTS WITH $prefix " +
+            "CALL { WITH n DETACH DELETE n } IN TRANSACTIONS OF 10000 ROWS";
+
+    @Param({"100", "1000"})
+    private int nodeCount;
+
+    private Driver driver;
+
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        driver = GraphDatabase.driver(System.getProperty("neo4j.uri", "bolt://localhost:7687"),
+                AuthTokens.basic(System.getProperty("neo4j.username", "neo4j"), System.getProperty("neo4j.password", "neo4j")));
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCreated() {
+        try (Session session = driver.session()) {
+            session.run(DELETE_CREATED, Map.of("prefix", NAME_PREFIX)).consume();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driver.close();
+    }
+
+    @Benchmark
+    public int batchCreate() {
+        List<Map<String, Object>> rows = new ArrayList<>(nodeCount);
+        for (String name : nextNames()) {
+            rows.add(Map.of("name", name, "properties", PROPERTIES));
+        }
+        try (Session session = driver.session()) {
+            return session.writeTransaction(tx ->
+                    tx.run(GraphStatementEnum.CREATE_NODES.getCypher(), Map.of("rows", rows)).list().size());
+        }
+    }
+
+    /**
+     * 逐个节点创建：与原 createNode 相同，先查询节点是否存在，再在单独事务中创建，每个节点两次往返
+     */
+    @Benchmark
+    public int singleCreate() {
+        int created = 0;
+        try (Session session = driver.session()) {
+            for (String name : nextNames()) {
+                boolean exists = session.readTransaction(tx ->
+                        tx.run(GraphStatementEnum.FIND_NODE.getCypher(), Map.of("name", name)).hasNext());
+                if (exists) {
+                    continue;
+                }
+                Map<String, Object> properties = new HashMap<>(PROPERTIES);
+                properties.put("name", name);
+                session.writeTransaction(tx -> tx.run(GraphStatementEnum.CREATE_NODE.getCypher(),
+                        Map.of("properties", properties)).consume());
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private List<String> nextNames() {
+        String batch = NAME_PREFIX + IdUtil.simpleUUID() + "-";
+        List<String> names = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            names.add(batch + (sequence++));
+        }
+        return names;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NodeCreateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.scy.mytemplate.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsrGraphTest {
+
+    private static List<String> outEdges(CsrGraph graph, String name) {
+        int id = graph.idOf(name);
+        List<String> edges = new ArrayList<>();
+        for (int e = graph.outStart(id); e < graph.outEnd(id); e++) {
+            edges.add(graph.typeOf(graph.outType(e)) + ":" + graph.nameOf(graph.outTarget(e)));
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    private static List<String> inEdges(CsrGraph graph, String name) {
+        int id = graph.idOf(name);
+        List<String> edges = new ArrayList<>();
+        for (int e = graph.inStart(id); e < graph.inEnd(id); e++) {
+            edges.add(graph.typeOf(graph.inType(e)) + ":" + graph.nameOf(graph.inTarget(e)));
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    @Test
+    void buildsOutAndInAdjacency() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        assertEquals(0, builder.addNode("a"));
+        assertEquals(1, builder.addNode("b"));
+        assertEquals(2, builder.addNode("c"));
+        assertEquals(0, builder.addNode("a"));
+        builder.addRelationship("a", "b", "KNOWS");
+        builder.addRelationship("a", "c", "OWNS");
+        builder.addRelationship("c", "a", "KNOWS");
+        builder.addRelationship("a", "b", "KNOWS");
+        CsrGraph graph = builder.build();
+        assertEquals(3, graph.nodeCount());
+        assertEquals(4, graph.relationshipCount());
+        assertEquals(2, graph.relationshipTypeCount());
+        assertEquals(List.of("KNOWS:b", "KNOWS:b", "OWNS:c"), outEdges(graph, "a"));
+        assertEquals(List.of("KNOWS:c"), inEdges(graph, "a"));
+        assertEquals(List.of("KNOWS:a", "KNOWS:a"), inEdges(graph, "b"));
+        assertEquals(List.of(), outEdges(graph, "b"));
+        assertEquals(3, graph.outDegree(graph.idOf("a")));
+        assertEquals(1, graph.inDegree(graph.idOf("a")));
+        assertEquals(0, graph.outDegree(graph.idOf("b")));
+    }
+
+    @Test
+    void ignoresRelationshipsWithMissingEndpoints() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addNode("a");
+        builder.addRelationship("a", "missing", "KNOWS");
+        builder.addRelationship("missing", "a", "KNOWS");
+        CsrGraph graph = builder.build();
+        assertEquals(1, graph.nodeCount());
+        assertEquals(0, graph.relationshipCount());
+        assertEquals(0, graph.relationshipTypeCount());
+    }
+
+    @Test
+    void unknownNamesMapToMinusOne() {
+        CsrGraph graph = new CsrGraph.Builder().build();
+        assertEquals(-1, graph.idOf("a"));
+        assertEquals(-1, graph.typeIdOf("KNOWS"));
+        assertEquals(0, graph.nodeCount());
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        int size = 1000;
+        for (int i = 0; i < size; i++) {
+            builder.addNode("n" + i);
+        }
+        for (int i = 0; i < size; i++) {
+            builder.addRelationship("n" + i, "n" + ((i + 1) % size), "NEXT");
+        }
+        CsrGraph graph = builder.build();
+        assertEquals(size, graph.relationshipCount());
+        for (int i = 0; i < size; i++) {
+            int id = graph.idOf("n" + i);
+            assertEquals(1, graph.outDegree(id));
+            assertEquals(1, graph.inDegree(id));
+            assertEquals("n" + ((i + 1) % size), graph.nameOf(graph.outTarget(graph.outStart(id))));
+        }
+        assertTrue(graph.estimatedBytes() > 0);
+    }
+}
@@ -0,0 +1,160 @@
+package com.scy.mytemplate.graph;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphAlgorithmsTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * n0 -> n1 -> ... -> n(size-1)
+     */
+    private static CsrGraph path(int size) {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (int i = 0; i < size; i++) {
+            builder.addNode("n" + i);
+        }
+        for (int i = 0; i + 1 < size; i++) {
+            builder.addRelationship("n" + i, "n" + (i + 1), "NEXT");
+        }
+        return builder.build();
+    }
+
+    private static int[] allSources(CsrGraph graph) {
+        int[] sources = new int[graph.nodeCount()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = i;
+        }
+        return sources;
+    }
+
+    @Test
+    void betweennessOnPathGraph() {
+        CsrGraph graph = path(5);
+        double[] scores = GraphAlgorithms.betweenness(pool, graph, allSources(graph));
+        assertArrayEquals(new double[]{0, 3, 4, 3, 0}, scores, EPSILON);
+    }
+
+    @Test
+    void betweennessSplitsAcrossShortestPaths() {
+        // a -> b -> d 与 a -> c -> d 两条最短路径，b、c 各得 0.5
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (String name : new String[]{"a", "b", "c", "d"}) {
+            builder.addNode(name);
+        }
+        builder.addRelationship("a", "b", "R");
+        builder.addRelationship("a", "c", "R");
+        builder.addRelationship("b", "d", "R");
+        builder.addRelationship("c", "d", "R");
+        CsrGraph graph = builder.build();
+        double[] scores = GraphAlgorithms.betweenness(pool, graph, allSources(graph));
+        assertArrayEquals(new double[]{0, 0.5, 0.5, 0}, scores, EPSILON);
+    }
+
+    @Test
+    void betweennessScalesSampledSources() {
+        CsrGraph graph = path(5);
+        double[] scores = GraphAlgorithms.betweenness(pool, graph, new int[]{0});
+        // 只以 n0 为源点：n1、n2、n3 分别位于 3、2、1 条最短路径上，按 5 / 1 放大
+        assertArrayEquals(new double[]{0, 15, 10, 5, 0}, scores, EPSILON);
+    }
+
+    @Test
+    void betweennessStopsAfterDeadline() {
+        CsrGraph graph = path(5);
+        assertThrows(CancellationException.class,
+                () -> GraphAlgorithms.betweenness(pool, graph, allSources(graph), System.currentTimeMillis() - 1));
+    }
+
+    @Test
+    void pageRankSumsToOne() {
+        // 包含没有出边的节点（n4）与孤立节点
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (int i = 0; i < 6; i++) {
+            builder.addNode("n" + i);
+        }
+        builder.addRelationship("n0", "n1", "R");
+        builder.addRelationship("n1", "n2", "R");
+        builder.addRelationship("n2", "n0", "R");
+        builder.addRelationship("n2", "n3", "R");
+        builder.addRelationship("n3", "n4", "R");
+        CsrGraph graph = builder.build();
+        GraphAlgorithms.PageRankResult result = GraphAlgorithms.pageRank(pool, graph, 0.85, 100, 1e-12);
+        assertEquals(1.0, Arrays.stream(result.getScores()).sum(), 1e-6);
+        assertTrue(result.isConverged());
+        assertTrue(result.getScores()[4] > result.getScores()[5]);
+    }
+
+    @Test
+    void pageRankOnEmptyGraph() {
+        GraphAlgorithms.PageRankResult result = GraphAlgorithms.pageRank(pool, new CsrGraph.Builder().build(), 0.85, 10, 1e-6);
+        assertEquals(0, result.getScores().length);
+        assertTrue(result.isConverged());
+    }
+
+    @Test
+    void degreeCentralityCountsBothDirections() {
+        CsrGraph graph = path(5);
+        assertArrayEquals(new double[]{0.25, 0.5, 0.5, 0.5, 0.25}, GraphAlgorithms.degreeCentrality(pool, graph), EPSILON);
+    }
+
+    @Test
+    void weaklyConnectedComponentsIgnoreDirection() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (int i = 0; i < 5; i++) {
+            builder.addNode("n" + i);
+        }
+        builder.addRelationship("n1", "n0", "R");
+        builder.addRelationship("n3", "n2", "R");
+        CsrGraph graph = builder.build();
+        int[] components = GraphAlgorithms.weaklyConnectedComponents(pool, graph);
+        assertArrayEquals(new int[]{0, 0, 1, 1, 2}, components);
+    }
+
+    @Test
+    void labelPropagationSeparatesDisconnectedCliques() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (int i = 0; i < 6; i++) {
+            builder.addNode("n" + i);
+        }
+        for (int offset = 0; offset < 6; offset += 3) {
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    if (i != j) {
+                        builder.addRelationship("n" + (offset + i), "n" + (offset + j), "R");
+                    }
+                }
+            }
+        }
+        int[] labels = GraphAlgorithms.labelPropagation(pool, builder.build(), 20).getLabels();
+        assertEquals(labels[0], labels[1]);
+        assertEquals(labels[0], labels[2]);
+        assertEquals(labels[3], labels[4]);
+        assertEquals(labels[3], labels[5]);
+        assertNotEquals(labels[0], labels[3]);
+    }
+}
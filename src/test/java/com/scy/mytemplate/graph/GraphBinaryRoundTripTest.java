@@ -0,0 +1,164 @@
+package com.scy.mytemplate.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphBinaryRoundTripTest {
+
+    private static byte[] write(WriterAction action) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GraphBinaryWriter writer = new GraphBinaryWriter(Channels.newChannel(outputStream))) {
+            action.write(writer);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static GraphBinaryReader reader(byte[] bytes) throws IOException {
+        return new GraphBinaryReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    void everyValueTypeRoundTrips() throws IOException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("nullValue", null);
+        properties.put("string", "电阻 R1 ✓");
+        properties.put("emptyString", "");
+        properties.put("long", 42L);
+        properties.put("negative", -3L);
+        properties.put("min", Long.MIN_VALUE);
+        properties.put("max", Long.MAX_VALUE);
+        properties.put("double", 3.25);
+        properties.put("nan", Double.NaN);
+        properties.put("true", true);
+        properties.put("false", false);
+        properties.put("list", Arrays.asList("a", 1L, 2.5, true, null, List.of("nested", -1L)));
+        properties.put("emptyList", List.of());
+        byte[] bytes = write(writer -> assertTrue(writer.writeNode("n1", properties)));
+        try (GraphBinaryReader reader = reader(bytes)) {
+            assertEquals(GraphBinaryFormat.TAG_NODE, reader.next());
+            assertEquals("n1", reader.getName());
+            assertNull(reader.getFromNode());
+            assertEquals(properties, reader.getProperties());
+            assertEquals(-1, reader.next());
+        }
+    }
+
+    @Test
+    void intAndFloatAreWidened() throws IOException {
+        byte[] bytes = write(writer -> writer.writeNode("n1", Map.of("int", 7, "float", 1.5f)));
+        try (GraphBinaryReader reader = reader(bytes)) {
+            reader.next();
+            assertEquals(7L, reader.getProperties().get("int"));
+            assertEquals(1.5, reader.getProperties().get("float"));
+        }
+    }
+
+    @Test
+    void relationshipsReferenceWrittenNodes() throws IOException {
+        byte[] bytes = write(writer -> {
+            assertTrue(writer.writeNode("a", Map.of("k", "v1")));
+            assertFalse(writer.writeNode("a", Map.of()));
+            assertTrue(writer.writeNode("b", Map.of("k", "v2")));
+            assertTrue(writer.writeRelationship("CONNECTS", "a", "b", Map.of("weight", 2L)));
+            assertTrue(writer.writeRelationship("CONNECTS", "b", "a", null));
+            assertFalse(writer.writeRelationship("CONNECTS", "a", "missing", Map.of()));
+            assertEquals(2, writer.getNodeCount());
+            assertEquals(2, writer.getRelationshipCount());
+        });
+        try (GraphBinaryReader reader = reader(bytes)) {
+            assertEquals(GraphBinaryFormat.TAG_NODE, reader.next());
+            assertEquals(GraphBinaryFormat.TAG_NODE, reader.next());
+            assertEquals("b", reader.getName());
+            assertEquals(Map.of("k", "v2"), reader.getProperties());
+            assertEquals(GraphBinaryFormat.TAG_RELATIONSHIP, reader.next());
+            assertEquals("CONNECTS", reader.getName());
+            assertEquals("a", reader.getFromNode());
+            assertEquals("b", reader.getToNode());
+            assertEquals(Map.of("weight", 2L), reader.getProperties());
+            assertEquals(GraphBinaryFormat.TAG_RELATIONSHIP, reader.next());
+            assertEquals("b", reader.getFromNode());
+            assertTrue(reader.getProperties().isEmpty());
+            assertEquals(-1, reader.next());
+        }
+    }
+
+    @Test
+    void recordsLargerThanBufferRoundTrip() throws IOException {
+        char[] chars = new char[200_000];
+        Arrays.fill(chars, '图');
+        String large = new String(chars);
+        byte[] bytes = write(writer -> {
+            for (int i = 0; i < 1000; i++) {
+                writer.writeNode("node-" + i, Map.of("index", (long) i));
+            }
+            writer.writeNode("large", Map.of("text", large));
+        });
+        try (GraphBinaryReader reader = reader(bytes)) {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(GraphBinaryFormat.TAG_NODE, reader.next());
+                assertEquals("node-" + i, reader.getName());
+                assertEquals((long) i, reader.getProperties().get("index"));
+            }
+            assertEquals(GraphBinaryFormat.TAG_NODE, reader.next());
+            assertEquals(large, reader.getProperties().get("text"));
+            assertEquals(-1, reader.next());
+        }
+    }
+
+    @Test
+    void rejectsUnknownHeader() {
+        byte[] bytes = {'N', 'O', 'P', 'E', 1};
+        assertThrows(IOException.class, () -> reader(bytes));
+    }
+
+    @Test
+    void rejectsUnsupportedValueType() {
+        assertThrows(IllegalArgumentException.class,
+                () -> write(writer -> writer.writeNode("n1", Map.of("object", new Object()))));
+    }
+
+    @Test
+    void abortedFileFailsOnRead() throws IOException {
+        byte[] bytes = write(writer -> {
+            writer.writeNode("a", Map.of());
+            assertThrows(IllegalArgumentException.class, () -> writer.writeNode("b", Map.of("object", new Object())));
+            writer.abort("不支持的属性值类型：Object");
+        });
+        try (GraphBinaryReader reader = reader(bytes)) {
+            assertEquals(GraphBinaryFormat.TAG_NODE, reader.next());
+            assertEquals("a", reader.getName());
+            IOException e = assertThrows(IOException.class, reader::next);
+            assertTrue(e.getMessage().contains("不支持的属性值类型"));
+        }
+    }
+
+    @Test
+    void truncatedFileFailsOnRead() throws IOException {
+        byte[] bytes = write(writer -> writer.writeNode("a", Map.of("k", "v")));
+        try (GraphBinaryReader reader = reader(Arrays.copyOf(bytes, bytes.length - 3))) {
+            assertThrows(IOException.class, () -> {
+                while (reader.next() != -1) {
+                    // 读到不完整的记录时抛出
+                }
+            });
+        }
+    }
+
+    private interface WriterAction {
+        void write(GraphBinaryWriter writer) throws IOException;
+    }
+}
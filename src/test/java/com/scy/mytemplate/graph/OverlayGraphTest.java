@@ -0,0 +1,134 @@
+package com.scy.mytemplate.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OverlayGraphTest {
+
+    /**
+     * a -KNOWS-> b -KNOWS-> c，a -KNOWS-> c 两条并行关系
+     */
+    private static CsrGraph baseGraph() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addNode("a");
+        builder.addNode("b");
+        builder.addNode("c");
+        builder.addRelationship("a", "b", "KNOWS");
+        builder.addRelationship("b", "c", "KNOWS");
+        builder.addRelationship("a", "c", "KNOWS");
+        builder.addRelationship("a", "c", "KNOWS");
+        return builder.build();
+    }
+
+    private static List<String> edges(OverlayGraph graph, String name, boolean out) {
+        List<String> edges = new ArrayList<>();
+        graph.forEachEdge(graph.idOf(name), out, (neighbor, type) -> {
+            edges.add(graph.typeOf(type) + ":" + graph.nameOf(neighbor));
+            return true;
+        });
+        Collections.sort(edges);
+        return edges;
+    }
+
+    @Test
+    void withoutChangesTraversesBaseAndCompactReturnsBase() {
+        CsrGraph base = baseGraph();
+        OverlayGraph graph = new OverlayGraph(base);
+        assertEquals(List.of("KNOWS:b", "KNOWS:c", "KNOWS:c"), edges(graph, "a", true));
+        assertEquals(List.of("KNOWS:a", "KNOWS:a", "KNOWS:b"), edges(graph, "c", false));
+        assertSame(base, graph.compact());
+    }
+
+    @Test
+    void addedNodesAndRelationshipsAreVisibleInBothDirections() {
+        OverlayGraph graph = new OverlayGraph(baseGraph());
+        assertTrue(graph.addNode("d"));
+        assertFalse(graph.addNode("d"));
+        assertTrue(graph.addRelationship("c", "d", "OWNS"));
+        assertFalse(graph.addRelationship("c", "missing", "OWNS"));
+        assertEquals(List.of("OWNS:d"), edges(graph, "c", true));
+        assertEquals(List.of("OWNS:c"), edges(graph, "d", false));
+        assertTrue(graph.hasRelationship("c", "d", "OWNS"));
+        assertEquals(2, graph.changeCount());
+    }
+
+    @Test
+    void deleteRelationshipRemovesAllParallelEdges() {
+        OverlayGraph graph = new OverlayGraph(baseGraph());
+        graph.addRelationship("a", "c", "KNOWS");
+        assertEquals(3, graph.deleteRelationship("a", "c", "KNOWS"));
+        assertEquals(0, graph.deleteRelationship("a", "c", "KNOWS"));
+        assertEquals(List.of("KNOWS:b"), edges(graph, "a", true));
+        assertEquals(List.of("KNOWS:b"), edges(graph, "c", false));
+        assertFalse(graph.hasRelationship("a", "c", "KNOWS"));
+    }
+
+    @Test
+    void deletedBaseRelationshipCanBeRecreated() {
+        OverlayGraph graph = new OverlayGraph(baseGraph());
+        assertEquals(1, graph.deleteRelationship("a", "b", "KNOWS"));
+        assertTrue(graph.addRelationship("a", "b", "KNOWS"));
+        assertEquals(List.of("KNOWS:b", "KNOWS:c", "KNOWS:c"), edges(graph, "a", true));
+        assertEquals(List.of("KNOWS:a"), edges(graph, "b", false));
+        assertEquals(1, graph.deleteRelationship("a", "b", "KNOWS"));
+        assertEquals(List.of("KNOWS:c", "KNOWS:c"), edges(graph, "a", true));
+    }
+
+    @Test
+    void copyIsIsolatedFromLaterRelationshipDeletes() {
+        OverlayGraph graph = new OverlayGraph(baseGraph());
+        graph.deleteRelationship("a", "b", "KNOWS");
+        OverlayGraph copy = graph.copy();
+        graph.deleteRelationship("a", "c", "KNOWS");
+        assertEquals(List.of("KNOWS:c", "KNOWS:c"), edges(copy, "a", true));
+        assertEquals(List.of(), edges(graph, "a", true));
+    }
+
+    @Test
+    void deletedNodeHidesItsRelationshipsAndCanBeRecreated() {
+        OverlayGraph graph = new OverlayGraph(baseGraph());
+        assertTrue(graph.deleteNode("b"));
+        assertEquals(-1, graph.idOf("b"));
+        assertEquals(List.of("KNOWS:c", "KNOWS:c"), edges(graph, "a", true));
+        assertTrue(graph.addNode("b"));
+        assertTrue(graph.addRelationship("b", "a", "KNOWS"));
+        assertEquals(List.of("KNOWS:a"), edges(graph, "b", true));
+        assertEquals(List.of("KNOWS:b"), edges(graph, "a", false));
+    }
+
+    @Test
+    void copyIsIsolatedFromLaterChanges() {
+        OverlayGraph graph = new OverlayGraph(baseGraph());
+        graph.addNode("d");
+        OverlayGraph copy = graph.copy();
+        graph.addRelationship("a", "d", "KNOWS");
+        graph.deleteNode("b");
+        assertEquals(List.of("KNOWS:b", "KNOWS:c", "KNOWS:c"), edges(copy, "a", true));
+        assertTrue(copy.idOf("b") >= 0);
+    }
+
+    @Test
+    void compactMatchesOverlayTraversal() {
+        OverlayGraph graph = new OverlayGraph(baseGraph());
+        graph.addNode("d");
+        graph.addRelationship("d", "a", "OWNS");
+        graph.deleteNode("b");
+        graph.deleteRelationship("a", "c", "KNOWS");
+        CsrGraph compacted = graph.compact();
+        assertEquals(3, compacted.nodeCount());
+        assertEquals(1, compacted.relationshipCount());
+        assertEquals(-1, compacted.idOf("b"));
+        OverlayGraph view = new OverlayGraph(compacted);
+        assertEquals(edges(graph, "d", true), edges(view, "d", true));
+        assertEquals(edges(graph, "a", false), edges(view, "a", false));
+        assertEquals(List.of(), edges(view, "c", false));
+    }
+}
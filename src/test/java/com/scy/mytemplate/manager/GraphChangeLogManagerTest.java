@@ -0,0 +1,51 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.model.vo.GraphChangesVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphChangeLogManagerTest {
+
+    private GraphChangeLogManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new GraphChangeLogManager(new GraphConfig());
+    }
+
+    @Test
+    void returnsChangesAfterVersion() {
+        manager.onGraphChange(GraphChangeEvent.nodeCreated(this, "a", Map.of("name", "a")));
+        manager.onGraphChange(GraphChangeEvent.nodeDeleted(this, "b"));
+
+        GraphChangesVO changes = manager.getChanges(1, manager.getEpoch(), 10);
+
+        assertFalse(changes.isResyncRequired());
+        assertEquals(1, changes.getChanges().size());
+        assertEquals(2, changes.getChanges().get(0).getVersion());
+    }
+
+    @Test
+    void bulkUpdateInRangeRequiresResync() {
+        manager.onGraphChange(GraphChangeEvent.nodeCreated(this, "a", Map.of("name", "a")));
+        manager.onGraphChange(GraphChangeEvent.nodesBulkUpdated(this, List.of("score"), 100));
+        manager.onGraphChange(GraphChangeEvent.nodeDeleted(this, "a"));
+
+        assertTrue(manager.getChanges(0, null, 10).isResyncRequired());
+        assertTrue(manager.getChanges(1, null, 10).isResyncRequired());
+        // 全量同步到批量更新之后的版本可以继续增量同步
+        GraphChangesVO changes = manager.getChanges(2, null, 10);
+        assertFalse(changes.isResyncRequired());
+        assertEquals(1, changes.getChanges().size());
+        assertEquals(3, changes.getChanges().get(0).getVersion());
+    }
+}
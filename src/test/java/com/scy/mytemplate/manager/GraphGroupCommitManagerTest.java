@@ -0,0 +1,333 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.config.GraphConfig;
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.graph.GraphMutation;
+import com.scy.mytemplate.model.enums.GraphChangeTypeEnum;
+import com.scy.mytemplate.model.enums.GraphStatementEnum;
+import com.scy.mytemplate.model.vo.GroupCommitStatsVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionWork;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.exceptions.ClientException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GraphGroupCommitManagerTest {
+
+    private GraphGroupCommitManager manager;
+
+    private GraphConfig graphConfig;
+
+    /**
+     * 已提交的节点及属性
+     */
+    private Map<String, Map<String, Object>> nodes;
+
+    /**
+     * 已提交的关系，元素为 [类型, 起始节点, 结束节点]
+     */
+    private Set<List<String>> relationships;
+
+    /**
+     * 按执行顺序记录的语句，包括随事务回滚的语句
+     */
+    private List<GraphStatementEnum> statements;
+
+    /**
+     * 涉及这些名称的语句执行时抛出数据库错误
+     */
+    private Set<String> poisoned;
+
+    private List<GraphChangeEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        nodes = new HashMap<>();
+        relationships = new HashSet<>();
+        statements = new ArrayList<>();
+        poisoned = new HashSet<>();
+        events = new ArrayList<>();
+        Driver driver = mock(Driver.class);
+        Session session = mock(Session.class);
+        Transaction tx = mock(Transaction.class);
+        when(driver.session()).thenReturn(session);
+        // 事务失败时丢弃本事务内的写入
+        when(session.writeTransaction(any(TransactionWork.class))).thenAnswer(invocation -> {
+            Map<String, Map<String, Object>> nodesBefore = new HashMap<>();
+            nodes.forEach((name, properties) -> nodesBefore.put(name, new HashMap<>(properties)));
+            Set<List<String>> relationshipsBefore = new HashSet<>(relationships);
+            try {
+                return invocation.<TransactionWork<?>>getArgument(0).execute(tx);
+            } catch (RuntimeException e) {
+                nodes = nodesBefore;
+                relationships = relationshipsBefore;
+                throw e;
+            }
+        });
+        GraphStatementManager graphStatementManager = mock(GraphStatementManager.class);
+        when(graphStatementManager.run(any(Transaction.class), any(GraphStatementEnum.class), anyMap()))
+                .thenAnswer(invocation -> run(invocation.getArgument(1), null, invocation.getArgument(2)));
+        when(graphStatementManager.run(any(Transaction.class), any(GraphStatementEnum.class), anyString(), anyMap()))
+                .thenAnswer(invocation -> run(invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+        graphConfig = new GraphConfig();
+        graphConfig.setGroupCommitEnabled(true);
+        graphConfig.setGroupCommitIntervalMillis(10000);
+        manager = new GraphGroupCommitManager();
+        ReflectionTestUtils.setField(manager, "driver", driver);
+        ReflectionTestUtils.setField(manager, "graphConfig", graphConfig);
+        ReflectionTestUtils.setField(manager, "graphStatementManager", graphStatementManager);
+        ReflectionTestUtils.setField(manager, "nodeCacheManager", mock(NodeCacheManager.class));
+        ReflectionTestUtils.setField(manager, "eventPublisher", (ApplicationEventPublisher) event -> events.add((GraphChangeEvent) event));
+        ReflectionTestUtils.setField(manager, "graphWriteLockManager", new GraphWriteLockManager());
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.destroy();
+    }
+
+    /**
+     * 提交一组写入，后台线程凑满这些写入后在同一批内处理
+     */
+    private List<CompletableFuture<String>> submitBatch(GraphMutation... mutations) {
+        graphConfig.setGroupCommitMaxOperations(mutations.length);
+        manager.init();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (GraphMutation mutation : mutations) {
+            futures.add(manager.submit(mutation));
+        }
+        return futures;
+    }
+
+    /**
+     * future 完成后事件可能仍在发布，停止后台线程并等待其结束后再检查事件和统计
+     */
+    private void stop() {
+        manager.destroy();
+    }
+
+    private static String await(CompletableFuture<String> future) throws Exception {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    private static String failure(CompletableFuture<String> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BusinessException.class, e.getCause());
+        return e.getCause().getMessage();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Result run(GraphStatementEnum statement, String relationshipType, Map<String, Object> parameters) {
+        statements.add(statement);
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) parameters.get("rows");
+        List<String> touched = statement == GraphStatementEnum.DELETE_NODES
+                ? (List<String>) parameters.get("names")
+                : rows.stream().map(row -> (String) row.get(row.containsKey("fromNode") && row.get("fromNode") != null ? "fromNode" : "name"))
+                .collect(Collectors.toList());
+        if (touched.stream().anyMatch(poisoned::contains)) {
+            throw new ClientException("写入失败");
+        }
+        List<Map<String, Object>> records = new ArrayList<>();
+        switch (statement) {
+            case CREATE_NODES:
+                for (Map<String, Object> row : rows) {
+                    String name = (String) row.get("name");
+                    boolean created = !nodes.containsKey(name);
+                    if (created) {
+                        nodes.put(name, new HashMap<>((Map<String, Object>) row.get("properties")));
+                    }
+                    records.add(Map.of("name", name, "created", created));
+                }
+                break;
+            case UPDATE_NODES:
+                for (Map<String, Object> row : rows) {
+                    String name = (String) row.get("name");
+                    if (nodes.containsKey(name)) {
+                        nodes.get(name).putAll((Map<String, Object>) row.get("properties"));
+                        records.add(Map.of("name", name));
+                    }
+                }
+                break;
+            case DELETE_NODES:
+                for (String name : (List<String>) parameters.get("names")) {
+                    if (nodes.remove(name) != null) {
+                        relationships.removeIf(relationship -> relationship.contains(name));
+                        records.add(Map.of("name", name));
+                    }
+                }
+                break;
+            case CREATE_RELATIONSHIPS:
+                // 同一语句内的读取看不到本语句新建的关系
+                Set<List<String>> before = new HashSet<>(relationships);
+                for (Map<String, Object> row : rows) {
+                    List<String> relationship = List.of(relationshipType, (String) row.get("fromNode"), (String) row.get("toNode"));
+                    boolean fromExists = nodes.containsKey(relationship.get(1));
+                    boolean toExists = nodes.containsKey(relationship.get(2));
+                    boolean existed = before.contains(relationship);
+                    if (fromExists && toExists && !existed) {
+                        relationships.add(relationship);
+                    }
+                    records.add(Map.of("index", row.get("index"), "fromExists", fromExists, "toExists", toExists, "existed", existed));
+                }
+                break;
+            default:
+                throw new IllegalStateException(statement.name());
+        }
+        return result(records);
+    }
+
+    private static Result result(List<Map<String, Object>> records) {
+        Iterator<Map<String, Object>> iterator = records.iterator();
+        Result result = mock(Result.class);
+        when(result.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(result.next()).thenAnswer(invocation -> {
+            Map<String, Object> values = iterator.next();
+            Record record = mock(Record.class);
+            when(record.get(anyString())).thenAnswer(get -> Values.value(values.get(get.<String>getArgument(0))));
+            return record;
+        });
+        return result;
+    }
+
+    @Test
+    void createFollowedByDeleteCancelsOut() throws Exception {
+        List<CompletableFuture<String>> futures = submitBatch(
+                GraphMutation.createNode("R1", Map.of("value", "10k")),
+                GraphMutation.updateNode("R1", Map.of("package", "0603")),
+                GraphMutation.deleteNode("R1"));
+        for (CompletableFuture<String> future : futures) {
+            assertEquals("R1", await(future));
+        }
+        stop();
+        assertEquals(List.of(GraphStatementEnum.DELETE_NODES), statements);
+        assertFalse(nodes.containsKey("R1"));
+        assertTrue(events.isEmpty());
+        assertEquals(2, manager.getStats().getCoalescedCount());
+    }
+
+    @Test
+    void createBeforeDeleteOfExistingNodeFails() throws Exception {
+        nodes.put("R1", new HashMap<>());
+        List<CompletableFuture<String>> futures = submitBatch(
+                GraphMutation.createNode("R1", Map.of()),
+                GraphMutation.deleteNode("R1"));
+        assertEquals("节点已存在", failure(futures.get(0)));
+        assertEquals("R1", await(futures.get(1)));
+        stop();
+        assertFalse(nodes.containsKey("R1"));
+        assertEquals(List.of(GraphChangeTypeEnum.NODE_DELETED),
+                events.stream().map(GraphChangeEvent::getChangeType).collect(Collectors.toList()));
+    }
+
+    @Test
+    void updatesFoldIntoPendingCreate() throws Exception {
+        List<CompletableFuture<String>> futures = submitBatch(
+                GraphMutation.createNode("R1", Map.of("value", "10k", "package", "0402")),
+                GraphMutation.updateNode("R1", Map.of("package", "0603")),
+                GraphMutation.updateNode("R1", Map.of("tolerance", "1%")));
+        for (CompletableFuture<String> future : futures) {
+            assertEquals("R1", await(future));
+        }
+        stop();
+        assertEquals(List.of(GraphStatementEnum.CREATE_NODES), statements);
+        Map<String, Object> expected = Map.of("value", "10k", "package", "0603", "tolerance", "1%");
+        assertEquals(expected, nodes.get("R1"));
+        assertEquals(1, events.size());
+        assertEquals(GraphChangeTypeEnum.NODE_CREATED, events.get(0).getChangeType());
+        assertEquals(expected, events.get(0).getProperties());
+    }
+
+    @Test
+    void relationshipCreateBreaksNodeCoalescing() throws Exception {
+        nodes.put("C1", new HashMap<>());
+        List<CompletableFuture<String>> futures = submitBatch(
+                GraphMutation.createNode("R1", Map.of("value", "10k")),
+                GraphMutation.createRelationship("CONNECTS", "R1", "C1", Map.of("fromNode", "R1", "toNode", "C1")),
+                GraphMutation.updateNode("R1", Map.of("value", "22k")));
+        assertEquals("R1", await(futures.get(0)));
+        assertEquals("CONNECTS", await(futures.get(1)));
+        assertEquals("R1", await(futures.get(2)));
+        stop();
+        assertEquals(List.of(GraphStatementEnum.CREATE_NODES, GraphStatementEnum.CREATE_RELATIONSHIPS,
+                GraphStatementEnum.UPDATE_NODES), statements);
+        assertEquals(List.of(GraphChangeTypeEnum.NODE_CREATED, GraphChangeTypeEnum.RELATIONSHIP_CREATED,
+                GraphChangeTypeEnum.NODE_UPDATED), events.stream().map(GraphChangeEvent::getChangeType).collect(Collectors.toList()));
+        assertEquals(0, manager.getStats().getCoalescedCount());
+    }
+
+    @Test
+    void duplicateRelationshipCreatesFail() throws Exception {
+        nodes.put("R1", new HashMap<>());
+        nodes.put("C1", new HashMap<>());
+        nodes.put("C2", new HashMap<>());
+        relationships.add(List.of("CONNECTS", "R1", "C2"));
+        Map<String, Object> properties = Map.of("fromNode", "R1", "toNode", "C1");
+        List<CompletableFuture<String>> futures = submitBatch(
+                GraphMutation.createRelationship("CONNECTS", "R1", "C1", properties),
+                GraphMutation.createRelationship("CONNECTS", "R1", "C1", properties),
+                GraphMutation.createRelationship("CONNECTS", "R1", "C2", Map.of("fromNode", "R1", "toNode", "C2")),
+                GraphMutation.createRelationship("CONNECTS", "R1", "missing", Map.of("fromNode", "R1", "toNode", "missing")));
+        assertEquals("CONNECTS", await(futures.get(0)));
+        assertEquals("关系已存在，无法创建", failure(futures.get(1)));
+        assertEquals("关系已存在，无法创建", failure(futures.get(2)));
+        assertEquals("From OR To 节点不存在", failure(futures.get(3)));
+        stop();
+        // 同一对端点再次出现时另起一段语句
+        assertEquals(List.of(GraphStatementEnum.CREATE_RELATIONSHIPS, GraphStatementEnum.CREATE_RELATIONSHIPS), statements);
+        assertEquals(Set.of(List.of("CONNECTS", "R1", "C1"), List.of("CONNECTS", "R1", "C2")), relationships);
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void halvingIsolatesFailingMutation() throws Exception {
+        poisoned.add("R3");
+        List<CompletableFuture<String>> futures = submitBatch(
+                GraphMutation.createNode("R1", Map.of()),
+                GraphMutation.createNode("R2", Map.of()),
+                GraphMutation.createNode("R3", Map.of()),
+                GraphMutation.createNode("R4", Map.of()));
+        assertEquals("R1", await(futures.get(0)));
+        assertEquals("R2", await(futures.get(1)));
+        assertEquals("写入失败，数据库错误", failure(futures.get(2)));
+        assertEquals("R4", await(futures.get(3)));
+        stop();
+        assertEquals(Set.of("R1", "R2", "R4"), nodes.keySet());
+        // [R1..R4] 失败 -> [R1, R2] 提交，[R3, R4] 失败 -> [R3] 失败，[R4] 提交
+        GroupCommitStatsVO stats = manager.getStats();
+        assertEquals(2, stats.getCommitCount());
+        assertEquals(3, stats.getFailedCommitCount());
+        assertEquals(3, events.size());
+    }
+}
@@ -0,0 +1,102 @@
+package com.scy.mytemplate.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GraphWriteLockManagerTest {
+
+    private GraphWriteLockManager manager;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        manager = new GraphWriteLockManager();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 在持有 names 的写锁期间执行 action
+     */
+    private void holding(List<String> names, Runnable action) throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> manager.withLocks(names, () -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        locked.await();
+        try {
+            action.run();
+        } finally {
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void disjointNamesDoNotBlock() throws Exception {
+        holding(List.of("a", "b", "c"), () -> assertEquals("d", manager.withLock("d", () -> "d")));
+        assertEquals(0, manager.size());
+    }
+
+    @Test
+    void sharedNameBlocksUntilReleased() throws Exception {
+        List<Future<String>> waiters = new ArrayList<>();
+        holding(List.of("a", "b"), () -> {
+            waiters.add(executor.submit(() -> manager.withLocks(List.of("z", "b"), () -> "done")));
+            assertThrows(TimeoutException.class, () -> waiters.get(0).get(200, TimeUnit.MILLISECONDS));
+        });
+        assertEquals("done", waiters.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(0, manager.size());
+    }
+
+    @Test
+    void reentrantAcquisitionIsReleased() {
+        String result = manager.withLock("a", () -> manager.withLocks(List.of("a", "b"), () -> "nested"));
+        assertEquals("nested", result);
+        assertEquals(0, manager.size());
+    }
+
+    @Test
+    void allLocksWaitForNodeWrites() throws Exception {
+        List<Future<String>> waiters = new ArrayList<>();
+        holding(List.of("a"), () -> {
+            waiters.add(executor.submit(() -> manager.withAllLocks(() -> "exclusive")));
+            assertThrows(TimeoutException.class, () -> waiters.get(0).get(200, TimeUnit.MILLISECONDS));
+        });
+        assertEquals("exclusive", waiters.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(0, manager.size());
+    }
+
+    @Test
+    void releasesLocksWhenWorkThrows() {
+        assertThrows(IllegalStateException.class, () -> manager.withLocks(List.of("a", "b"), () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(0, manager.size());
+    }
+}
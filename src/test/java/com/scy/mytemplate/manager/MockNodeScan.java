@@ -0,0 +1,85 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.config.GraphConfig;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.Values;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 内存索引测试用的模拟数据库：每次执行语句都返回 rows 的当前内容，每行作为记录的 column 列
+ *
+ * @param <T> 行类型
+ */
+class MockNodeScan<T> {
+
+    private final List<T> rows;
+
+    private final String column;
+
+    private final Driver driver;
+
+    private Runnable duringLoad;
+
+    MockNodeScan(String column, List<T> rows) {
+        this.column = column;
+        this.rows = new ArrayList<>(rows);
+        driver = mock(Driver.class);
+        Session session = mock(Session.class);
+        Transaction tx = mock(Transaction.class);
+        when(driver.session(any(SessionConfig.class))).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(tx);
+        when(tx.run(anyString(), anyMap())).thenAnswer(invocation -> result());
+    }
+
+    /**
+     * 注入模拟驱动、默认配置和语句管理
+     *
+     * @param manager 索引管理类
+     */
+    void inject(Object manager) {
+        ReflectionTestUtils.setField(manager, "driver", driver);
+        ReflectionTestUtils.setField(manager, "graphConfig", new GraphConfig());
+        ReflectionTestUtils.setField(manager, "graphStatementManager", new GraphStatementManager());
+    }
+
+    /**
+     * 下一次扫描到第一条记录后执行一次，模拟加载期间的并发写入
+     *
+     * @param action 写入
+     */
+    void duringLoad(Runnable action) {
+        duringLoad = action;
+    }
+
+    private Result result() {
+        Iterator<T> iterator = new ArrayList<>(rows).iterator();
+        Result result = mock(Result.class);
+        when(result.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(result.next()).thenAnswer(invocation -> {
+            Record record = mock(Record.class);
+            when(record.get(column)).thenReturn(Values.value(iterator.next()));
+            if (duringLoad != null) {
+                Runnable action = duringLoad;
+                duringLoad = null;
+                action.run();
+            }
+            return record;
+        });
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.event.GraphChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NodeNameIndexManagerTest {
+
+    private NodeNameIndexManager manager;
+
+    private MockNodeScan<String> scan;
+
+    @BeforeEach
+    void setUp() {
+        scan = new MockNodeScan<>("name", List.of("Resistor", "resistor-2", "capacitor", "RAM", "电阻"));
+        manager = new NodeNameIndexManager();
+        scan.inject(manager);
+    }
+
+    @Test
+    void suggestIsCaseInsensitiveAndSorted() {
+        assertEquals(List.of("RAM", "Resistor", "resistor-2"), manager.suggest("r", 10));
+        assertEquals(List.of("Resistor", "resistor-2"), manager.suggest("RES", 10));
+        assertEquals(List.of("RAM"), manager.suggest("r", 1));
+        assertEquals(List.of("电阻"), manager.suggest("电", 10));
+        assertEquals(List.of(), manager.suggest("x", 10));
+        assertEquals(5, manager.size());
+    }
+
+    @Test
+    void notLoadedUntilFirstQuery() {
+        assertEquals(-1, manager.size());
+        manager.onGraphChange(GraphChangeEvent.nodeCreated(this, "ROM", Map.of()));
+        assertEquals(-1, manager.size());
+        manager.suggest("r", 10);
+        assertEquals(5, manager.size());
+    }
+
+    @Test
+    void appliesNodeChangesAfterLoad() {
+        manager.suggest("r", 10);
+        manager.onGraphChange(GraphChangeEvent.nodeCreated(this, "ROM", Map.of()));
+        manager.onGraphChange(GraphChangeEvent.nodeDeleted(this, "RAM"));
+        manager.onGraphChange(GraphChangeEvent.nodeDeleted(this, "missing"));
+        manager.onGraphChange(GraphChangeEvent.relationshipCreated(this, "R", "Resistor", "capacitor", Map.of()));
+        assertEquals(List.of("Resistor", "resistor-2", "ROM"), manager.suggest("r", 10));
+        assertEquals(5, manager.size());
+        // 重复应用结果不变
+        manager.onGraphChange(GraphChangeEvent.nodeCreated(this, "ROM", Map.of()));
+        manager.onGraphChange(GraphChangeEvent.nodeDeleted(this, "RAM"));
+        assertEquals(5, manager.size());
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayed() {
+        manager.suggest("r", 10);
+        // 扫描期间创建 ROM、删除 RAM；扫描结果仍是写入前的数据
+        scan.duringLoad(() -> {
+            manager.onGraphChange(GraphChangeEvent.nodeCreated(this, "ROM", Map.of()));
+            manager.onGraphChange(GraphChangeEvent.nodeDeleted(this, "RAM"));
+        });
+        manager.rebuild();
+        assertEquals(List.of("Resistor", "resistor-2", "ROM"), manager.suggest("r", 10));
+    }
+
+    @Test
+    void compactsLargeDeltas() {
+        manager.suggest("r", 10);
+        for (int i = 0; i < 2000; i++) {
+            manager.onGraphChange(GraphChangeEvent.nodeCreated(this, String.format("node-%04d", i), Map.of()));
+        }
+        assertEquals(2005, manager.size());
+        List<String> suggestions = manager.suggest("node-", 3);
+        assertEquals(List.of("node-0000", "node-0001", "node-0002"), suggestions);
+    }
+}
@@ -0,0 +1,114 @@
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.event.GraphChangeEvent;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.vo.NodeSearchHitVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NodeTextIndexManagerTest {
+
+    private NodeTextIndexManager manager;
+
+    private MockNodeScan<Map<String, Object>> scan;
+
+    @BeforeEach
+    void setUp() {
+        scan = new MockNodeScan<>("n", List.of(
+                node("R1", Map.of("description", "贴片电阻 resistor", "package", "0603")),
+                node("R2", Map.of("description", "carbon resistor", "tags", List.of("through-hole", "电阻"))),
+                node("C1", Map.of("description", "陶瓷电容 capacitor", "value", 100L))));
+        manager = new NodeTextIndexManager();
+        scan.inject(manager);
+    }
+
+    private static Map<String, Object> node(String name, Map<String, Object> properties) {
+        Map<String, Object> node = new HashMap<>(properties);
+        node.put("name", name);
+        return node;
+    }
+
+    private List<String> search(String query) {
+        List<NodeSearchHitVO> hits = new ArrayList<>();
+        long total = manager.search(query, 0, 10, hits);
+        assertEquals(total, hits.size());
+        return hits.stream().map(NodeSearchHitVO::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    void matchesLatinTermsAndRanksByMatchedTerms() {
+        assertEquals(List.of("R1", "R2"), search("resistor").stream().sorted().collect(Collectors.toList()));
+        // 同时命中两个词的排在前面
+        assertEquals("R2", search("carbon resistor").get(0));
+        assertEquals(List.of("R1"), search("0603"));
+        assertEquals(List.of("C1"), search("c1"));
+        assertEquals(List.of(), search("inductor"));
+    }
+
+    @Test
+    void matchesIdeographicBigramsAndStringLists() {
+        assertEquals(List.of("R1", "R2"), search("电阻").stream().sorted().collect(Collectors.toList()));
+        assertEquals(List.of("C1"), search("陶瓷电容"));
+        assertEquals(List.of("R2"), search("through"));
+    }
+
+    @Test
+    void reportsMatchedFields() {
+        List<NodeSearchHitVO> hits = new ArrayList<>();
+        manager.search("r2 hole", 0, 10, hits);
+        assertEquals("R2", hits.get(0).getName());
+        assertEquals(2, hits.get(0).getMatchedTerms());
+        assertTrue(hits.get(0).getMatchedFields().containsAll(List.of("name", "tags")));
+    }
+
+    @Test
+    void pagesResults() {
+        List<NodeSearchHitVO> hits = new ArrayList<>();
+        long total = manager.search("resistor", 1, 10, hits);
+        assertEquals(2, total);
+        assertEquals(1, hits.size());
+    }
+
+    @Test
+    void rejectsQueryWithoutTerms() {
+        assertThrows(BusinessException.class, () -> manager.search(" - ", 0, 10, new ArrayList<>()));
+    }
+
+    @Test
+    void appliesNodeChangesAfterLoad() {
+        search("resistor");
+        manager.onGraphChange(GraphChangeEvent.nodeCreated(this, "L1", Map.of("description", "inductor")));
+        manager.onGraphChange(GraphChangeEvent.nodeUpdated(this, "R1", Map.of("description", "film")));
+        manager.onGraphChange(GraphChangeEvent.nodeDeleted(this, "C1"));
+        assertEquals(List.of("L1"), search("inductor"));
+        assertEquals(List.of("R2"), search("resistor"));
+        // 更新按属性合并，未修改的属性仍可搜索
+        assertEquals(List.of("R1"), search("0603 film"));
+        assertEquals(List.of(), search("capacitor"));
+    }
+
+    @Test
+    void changesDuringLoadAreReplayed() {
+        // 首次加载期间的写入：扫描结果不含这些变更
+        scan.duringLoad(() -> {
+            manager.onGraphChange(GraphChangeEvent.nodeCreated(this, "L1", Map.of("description", "inductor")));
+            manager.onGraphChange(GraphChangeEvent.nodeDeleted(this, "C1"));
+        });
+        assertEquals(List.of("L1"), search("inductor"));
+        assertEquals(List.of(), search("capacitor"));
+        // 重建期间的写入同样重放
+        scan.duringLoad(() -> manager.onGraphChange(GraphChangeEvent.nodeUpdated(this, "R2", Map.of("description", "wirewound"))));
+        manager.rebuild();
+        assertEquals(List.of("R2"), search("wirewound"));
+    }
+}